@@ -0,0 +1,211 @@
+package com.katanapay.routing.bin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only BIN range metadata, memory-mapped from a file written by {@link BinDatabaseCompiler}.
+ * <p>
+ * The file starts with a {@value #HEADER_SIZE} byte header {@code [int magic][int version][int rangeCount]
+ * [int issuerCount]}, followed by the ranges sorted by their low BIN as fixed-width {@value #RECORD_SIZE} byte
+ * records {@code [int low][int high][byte scheme][byte type][2 bytes country][int issuer]}, and ends with the
+ * issuer names as {@code int} offsets followed by their UTF-8 bytes. BINs are the first {@value #BIN_DIGITS}
+ * digits of a card number, and the ranges never overlap.
+ * <p>
+ * A range is found by a binary search over the mapped records, so lookups neither allocate nor touch the heap,
+ * and opening a file of any size only maps it. Ranges are referred to by their index, which is only valid for
+ * the database it came from. The mapping is released once the database is garbage collected, so a database
+ * can be replaced while lookups on it are still running.
+ */
+public final class BinDatabase {
+
+    public static final int BIN_DIGITS = 8;
+
+    static final int MAGIC = 0x42494E31;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 16;
+
+    private static final int MIN_CARD_DIGITS = 6;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int rangeCount;
+    private final int issuerOffsetsPosition;
+    private final int issuerNamesPosition;
+
+    private BinDatabase(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a BIN database: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported BIN database version " + buffer.getInt(4) + ": " + path);
+        }
+
+        this.rangeCount = buffer.getInt(8);
+        int issuerCount = buffer.getInt(12);
+        long namesPosition = HEADER_SIZE + (long) rangeCount * RECORD_SIZE + (issuerCount + 1L) * Integer.BYTES;
+        if (rangeCount < 0 || issuerCount < 0 || namesPosition > buffer.capacity()
+                || namesPosition + buffer.getInt((int) namesPosition - Integer.BYTES) != buffer.capacity()) {
+            throw new IOException("Truncated BIN database: " + path);
+        }
+        this.issuerOffsetsPosition = HEADER_SIZE + rangeCount * RECORD_SIZE;
+        this.issuerNamesPosition = (int) namesPosition;
+    }
+
+    /**
+     * Maps a database file.
+     *
+     * @param path the file written by {@link BinDatabaseCompiler}
+     * @return the database
+     * @throws IOException if the file cannot be read or is not a BIN database of this version
+     */
+    public static BinDatabase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("BIN database is too large: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new BinDatabase(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the BIN of a card number, padding numbers shorter than {@value #BIN_DIGITS} digits with zeros.
+     *
+     * @param cardNumber the card number
+     * @return the BIN, or -1 if the number has less than 6 digits or contains anything but digits in its BIN
+     */
+    public static int binOf(CharSequence cardNumber) {
+        int length = cardNumber.length();
+        if (length < MIN_CARD_DIGITS) {
+            return -1;
+        }
+
+        int bin = 0;
+        for (int i = 0; i < BIN_DIGITS; i++) {
+            int digit = i < length ? cardNumber.charAt(i) - '0' : 0;
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            bin = bin * 10 + digit;
+        }
+        return bin;
+    }
+
+    /**
+     * Finds the range of a card number.
+     *
+     * @param cardNumber the card number
+     * @return the index of the range, or -1 if no range covers its BIN
+     */
+    public int lookup(CharSequence cardNumber) {
+        int bin = binOf(cardNumber);
+        return bin < 0 ? -1 : lookup(bin);
+    }
+
+    /**
+     * Finds the range of a card number together with its metadata.
+     *
+     * @param cardNumber the card number
+     * @return the range, {@link BinRange#UNKNOWN} if no range covers its BIN
+     */
+    public BinRange find(CharSequence cardNumber) {
+        int range = lookup(cardNumber);
+        return range < 0 ? BinRange.UNKNOWN : new BinRange(this, range);
+    }
+
+    /**
+     * Finds the range of a BIN.
+     *
+     * @param bin the first {@value #BIN_DIGITS} digits of a card number
+     * @return the index of the range, or -1 if no range covers the BIN
+     */
+    public int lookup(int bin) {
+        int low = 0;
+        int high = rangeCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int position = HEADER_SIZE + middle * RECORD_SIZE;
+            if (buffer.getInt(position) > bin) {
+                high = middle - 1;
+            } else if (buffer.getInt(position + 4) < bin) {
+                low = middle + 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    public int lowBin(int range) {
+        return buffer.getInt(position(range));
+    }
+
+    public int highBin(int range) {
+        return buffer.getInt(position(range) + 4);
+    }
+
+    public CardScheme scheme(int range) {
+        return CardScheme.ofOrdinal(buffer.get(position(range) + 8));
+    }
+
+    public CardType cardType(int range) {
+        return CardType.ofOrdinal(buffer.get(position(range) + 9));
+    }
+
+    /**
+     * Returns the ISO 3166 alpha-2 code of the issuer country.
+     *
+     * @param range the index of the range
+     * @return the country code, or null if unknown
+     */
+    public String country(int range) {
+        int position = position(range) + 10;
+        if (buffer.get(position) == 0) {
+            return null;
+        }
+        return new String(new char[]{(char) buffer.get(position), (char) buffer.get(position + 1)});
+    }
+
+    /**
+     * Returns the name of the issuer. Decoded on every call, so not meant for the payment hot path.
+     *
+     * @param range the index of the range
+     * @return the issuer name, or null if unknown
+     */
+    public String issuer(int range) {
+        int issuer = buffer.getInt(position(range) + 12);
+        if (issuer < 0) {
+            return null;
+        }
+
+        int start = buffer.getInt(issuerOffsetsPosition + issuer * Integer.BYTES);
+        int end = buffer.getInt(issuerOffsetsPosition + (issuer + 1) * Integer.BYTES);
+        byte[] name = new byte[end - start];
+        buffer.get(issuerNamesPosition + start, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private int position(int range) {
+        if (range < 0 || range >= rangeCount) {
+            throw new IndexOutOfBoundsException("No BIN range " + range + " in " + path);
+        }
+        return HEADER_SIZE + range * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,235 @@
+package com.katanapay.routing.bin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds a {@link BinDatabase} file from a text file of BIN ranges.
+ * <p>
+ * Every line holds {@code low,high,scheme,country,type,issuer}. The bounds are BIN prefixes of 6 to
+ * {@value BinDatabase#BIN_DIGITS} digits; the low bound is padded with zeros and the high bound with nines.
+ * The scheme and type are names of {@link CardScheme} and {@link CardType}; they, the country and the issuer
+ * may be left empty. Empty lines and lines starting with {@code #} are skipped, and the ranges may come in any
+ * order but must not overlap.
+ * <p>
+ * The file is written next to the target and moved over it, so a database mapped from the previous file keeps
+ * working.
+ */
+public final class BinDatabaseCompiler {
+
+    private static final int MIN_BIN_DIGITS = 6;
+    private static final int MAX_ISSUER_LENGTH = 256;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private int rangeCount;
+    private int[] lows = new int[1024];
+    private int[] highs = new int[1024];
+    private int[] attributes = new int[1024];
+    private int[] issuers = new int[1024];
+    private final Map<String, Integer> issuerIds = new HashMap<>();
+    private final List<byte[]> issuerNames = new ArrayList<>();
+
+    private BinDatabaseCompiler() {
+    }
+
+    /**
+     * Compiles BIN ranges into a database file.
+     *
+     * @param source the BIN range lines
+     * @param target the database file to write
+     * @return the number of ranges written
+     * @throws IOException              if the source cannot be read or the target cannot be written
+     * @throws IllegalArgumentException if a line is malformed or ranges overlap
+     */
+    public static int compile(BufferedReader source, Path target) throws IOException {
+        BinDatabaseCompiler compiler = new BinDatabaseCompiler();
+        compiler.read(source);
+        long[] order = compiler.sortedOrder();
+        compiler.write(order, target);
+        return compiler.rangeCount;
+    }
+
+    private void read(BufferedReader source) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = source.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                add(trimmed.split(",", 6));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid BIN range on line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void add(String[] fields) {
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("expected low,high,scheme,country,type,issuer");
+        }
+
+        int low = parseBound(fields[0], '0');
+        int high = parseBound(fields[1], '9');
+        if (low > high) {
+            throw new IllegalArgumentException("low bound " + fields[0] + " is above high bound " + fields[1]);
+        }
+
+        CardScheme scheme = parseEnum(CardScheme.class, field(fields, 2), CardScheme.UNKNOWN);
+        String country = field(fields, 3);
+        CardType type = parseEnum(CardType.class, field(fields, 4), CardType.UNKNOWN);
+        String issuer = field(fields, 5);
+        if (issuer.length() > MAX_ISSUER_LENGTH) {
+            throw new IllegalArgumentException("issuer name is longer than " + MAX_ISSUER_LENGTH + " characters");
+        }
+
+        int countryCode = 0;
+        if (!country.isEmpty()) {
+            if (country.length() != 2 || !isUpperCaseLetter(country.charAt(0)) || !isUpperCaseLetter(country.charAt(1))) {
+                throw new IllegalArgumentException("country must be an ISO 3166 alpha-2 code: " + country);
+            }
+            countryCode = country.charAt(0) | country.charAt(1) << 8;
+        }
+
+        if (rangeCount == lows.length) {
+            int capacity = rangeCount * 2;
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+            issuers = Arrays.copyOf(issuers, capacity);
+        }
+        lows[rangeCount] = low;
+        highs[rangeCount] = high;
+        attributes[rangeCount] = scheme.ordinal() | type.ordinal() << 8 | countryCode << 16;
+        issuers[rangeCount] = issuer.isEmpty() ? -1 : issuerIds.computeIfAbsent(issuer, name -> {
+            issuerNames.add(name.getBytes(StandardCharsets.UTF_8));
+            return issuerNames.size() - 1;
+        });
+        rangeCount++;
+    }
+
+    private static String field(String[] fields, int index) {
+        return index < fields.length ? fields[index].strip() : "";
+    }
+
+    private static int parseBound(String field, char padding) {
+        String bin = field.strip();
+        if (bin.length() < MIN_BIN_DIGITS || bin.length() > BinDatabase.BIN_DIGITS) {
+            throw new IllegalArgumentException("BIN must have 6 to 8 digits: " + bin);
+        }
+
+        int value = 0;
+        for (int i = 0; i < BinDatabase.BIN_DIGITS; i++) {
+            char c = i < bin.length() ? bin.charAt(i) : padding;
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("BIN must only contain digits: " + bin);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String field, E empty) {
+        return field.isEmpty() ? empty : Enum.valueOf(type, field.toUpperCase(Locale.ROOT));
+    }
+
+    private static boolean isUpperCaseLetter(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    /**
+     * Sorts the ranges by their low bound as {@code low << 32 | index}, which avoids boxing millions of entries.
+     */
+    private long[] sortedOrder() {
+        long[] order = new long[rangeCount];
+        for (int i = 0; i < rangeCount; i++) {
+            order[i] = (long) lows[i] << 32 | i;
+        }
+        Arrays.sort(order);
+
+        for (int i = 1; i < rangeCount; i++) {
+            int previous = (int) order[i - 1];
+            int current = (int) order[i];
+            if (lows[current] <= highs[previous]) {
+                throw new IllegalArgumentException("BIN ranges overlap: %08d-%08d and %08d-%08d"
+                        .formatted(lows[previous], highs[previous], lows[current], highs[current]));
+            }
+        }
+        return order;
+    }
+
+    private void write(long[] order, Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+                buffer.putInt(BinDatabase.MAGIC)
+                        .putInt(BinDatabase.VERSION)
+                        .putInt(rangeCount)
+                        .putInt(issuerNames.size());
+
+                for (long entry : order) {
+                    int range = (int) entry;
+                    ensureRemaining(channel, buffer, BinDatabase.RECORD_SIZE);
+                    int attribute = attributes[range];
+                    buffer.putInt(lows[range])
+                            .putInt(highs[range])
+                            .put((byte) attribute)
+                            .put((byte) (attribute >>> 8))
+                            .put((byte) (attribute >>> 16))
+                            .put((byte) (attribute >>> 24))
+                            .putInt(issuers[range]);
+                }
+
+                int offset = 0;
+                for (int i = 0; i <= issuerNames.size(); i++) {
+                    ensureRemaining(channel, buffer, Integer.BYTES);
+                    buffer.putInt(offset);
+                    offset += i < issuerNames.size() ? issuerNames.get(i).length : 0;
+                }
+                for (byte[] name : issuerNames) {
+                    ensureRemaining(channel, buffer, name.length);
+                    buffer.put(name);
+                }
+
+                flush(channel, buffer);
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
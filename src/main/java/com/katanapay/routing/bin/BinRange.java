@@ -0,0 +1,41 @@
+package com.katanapay.routing.bin;
+
+/**
+ * The BIN range a card number falls into, read from its {@link BinDatabase} on every call. A card outside all
+ * ranges has an unknown scheme and type and no country or issuer.
+ *
+ * @param database the database the range came from, null for an unknown card
+ * @param index    the index of the range in the database, -1 for an unknown card
+ */
+public record BinRange(BinDatabase database, int index) {
+
+    public static final BinRange UNKNOWN = new BinRange(null, -1);
+
+    public boolean isKnown() {
+        return index >= 0;
+    }
+
+    public CardScheme scheme() {
+        return isKnown() ? database.scheme(index) : CardScheme.UNKNOWN;
+    }
+
+    public CardType cardType() {
+        return isKnown() ? database.cardType(index) : CardType.UNKNOWN;
+    }
+
+    /**
+     * @return the ISO 3166 alpha-2 code of the issuer country, or null if unknown
+     */
+    public String country() {
+        return isKnown() ? database.country(index) : null;
+    }
+
+    /**
+     * Decoded on every call, like {@link BinDatabase#issuer(int)}.
+     *
+     * @return the name of the issuer, or null if unknown
+     */
+    public String issuer() {
+        return isKnown() ? database.issuer(index) : null;
+    }
+}
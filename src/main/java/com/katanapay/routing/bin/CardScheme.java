@@ -0,0 +1,23 @@
+package com.katanapay.routing.bin;
+
+/**
+ * Card scheme of a BIN range. Stored by ordinal in the {@link BinDatabase} file, so new schemes are only
+ * ever appended.
+ */
+public enum CardScheme {
+    UNKNOWN,
+    VISA,
+    MASTERCARD,
+    AMEX,
+    DISCOVER,
+    JCB,
+    UNIONPAY,
+    DINERS,
+    MAESTRO;
+
+    private static final CardScheme[] VALUES = values();
+
+    static CardScheme ofOrdinal(int ordinal) {
+        return ordinal < VALUES.length ? VALUES[ordinal] : UNKNOWN;
+    }
+}
@@ -0,0 +1,18 @@
+package com.katanapay.routing.bin;
+
+/**
+ * Funding type of the cards in a BIN range. Stored by ordinal in the {@link BinDatabase} file, so new types
+ * are only ever appended.
+ */
+public enum CardType {
+    UNKNOWN,
+    CREDIT,
+    DEBIT,
+    PREPAID;
+
+    private static final CardType[] VALUES = values();
+
+    static CardType ofOrdinal(int ordinal) {
+        return ordinal < VALUES.length ? VALUES[ordinal] : UNKNOWN;
+    }
+}
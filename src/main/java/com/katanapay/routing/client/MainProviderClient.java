@@ -1,8 +1,12 @@
 package com.katanapay.routing.client;
 
+import com.katanapay.routing.exception.ProviderErrorCode;
 import com.katanapay.routing.exception.ProviderException;
+import com.katanapay.routing.exception.ProviderServerErrorException;
 import com.katanapay.routing.dto.ProviderPaymentRequest;
 import com.katanapay.routing.dto.ProviderPaymentResponse;
+import com.katanapay.routing.jfr.ProviderCallEvent;
+import com.katanapay.routing.metrics.ProviderMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
@@ -13,7 +17,6 @@ import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.CircuitBreaker;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
@@ -29,7 +32,10 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class MainProviderClient implements ProviderClient {
 
+    private static final HttpHeaders JSON_HEADERS = jsonHeaders();
+
     private final RestTemplate restTemplate;
+    private final ProviderMetrics providerMetrics;
 
     /**
      * {@inheritDoc}
@@ -37,57 +43,76 @@ public class MainProviderClient implements ProviderClient {
     @Override
     @CircuitBreaker
     @Retryable(
-            retryFor = {ResourceAccessException.class, HttpServerErrorException.class},
+            retryFor = {ResourceAccessException.class, ProviderServerErrorException.class},
             backoff = @Backoff(delay = 1000, multiplier = 2))
     public ProviderPaymentResponse sendPaymentRequest(String endpoint, ProviderPaymentRequest request) {
         log.debug("Sending payment request to endpoint: {} for payment: {}", endpoint, request.getPaymentId());
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-
-        // For a real implementation, add authentication headers here
-        // headers.set("X-API-Key", apiKey);
-
-        HttpEntity<ProviderPaymentRequest> entity = new HttpEntity<>(request, headers);
+        HttpEntity<ProviderPaymentRequest> entity = new HttpEntity<>(request, JSON_HEADERS);
 
+        ProviderCallEvent callEvent = ProviderCallEvent.start();
+        long start = System.nanoTime();
+        ProviderMetrics.Outcome outcome = ProviderMetrics.Outcome.ERROR;
+        int statusCode = 0;
         try {
             ResponseEntity<ProviderPaymentResponse> response = restTemplate.postForEntity(
                     endpoint,
                     entity,
                     ProviderPaymentResponse.class
             );
+            statusCode = response.getStatusCode().value();
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 log.debug("Received successful response from provider API for payment: {}",
                         request.getPaymentId());
+                outcome = ProviderMetrics.Outcome.SUCCESS;
                 return response.getBody();
             } else {
-                log.error("Provider API returned unsuccessful response for payment: {}",
-                        request.getPaymentId());
-                throw new ProviderException("Provider API returned unsuccessful response");
+                log.debug("Provider API returned unsuccessful response for payment: {}", request.getPaymentId());
+                throw ProviderException.of(ProviderErrorCode.INVALID_RESPONSE, statusCode, null);
             }
         } catch (HttpStatusCodeException e) {
-            log.error("Provider API returned error status: {} for payment: {}",
-                    e.getStatusCode(), request.getPaymentId());
+            statusCode = e.getStatusCode().value();
+            log.debug("Provider API returned error status: {} for payment: {}", statusCode, request.getPaymentId());
 
             if (e.getStatusCode().is4xxClientError()) {
+                outcome = ProviderMetrics.Outcome.CLIENT_ERROR;
                 return simulateFallbackResponse(request.getPaymentId().toString(), "FAILED");
             } else if (e.getStatusCode().is5xxServerError()) {
-                throw new HttpServerErrorException(e.getStatusCode(),
-                        "Provider API server error: " + e.getStatusCode());
+                outcome = ProviderMetrics.Outcome.SERVER_ERROR;
+                throw new ProviderServerErrorException(statusCode);
             } else {
-                throw new ProviderException("Provider API error: " + e.getMessage(), e);
+                throw ProviderException.of(ProviderErrorCode.INVALID_RESPONSE, statusCode, null);
             }
         } catch (ResourceAccessException e) {
-            log.error("Connection error to provider API for payment: {}", request.getPaymentId(), e);
-            throw new ProviderException("Provider API connection error: " + e.getMessage(), e);
+            outcome = ProviderMetrics.Outcome.CONNECTION_ERROR;
+            log.debug("Connection error to provider API for payment: {}", request.getPaymentId(), e);
+            throw ProviderException.of(ProviderErrorCode.CONNECTION_ERROR, 0, e);
+        } catch (ProviderException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Unexpected error calling provider API for payment: {}", request.getPaymentId(), e);
             throw new ProviderException("Unexpected provider API error: " + e.getMessage(), e);
+        } finally {
+            providerMetrics.record(endpoint, outcome, System.nanoTime() - start);
+            callEvent.complete(request.getPaymentId(), endpoint, outcome, statusCode);
         }
     }
 
+    /**
+     * Builds the headers shared by every provider request, read-only so they can be reused.
+     */
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+
+        // For a real implementation, add authentication headers here
+        // headers.set("X-API-Key", apiKey);
+
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
     /**
      * Creates a simulated response for testing or fallback purposes.
      *
@@ -0,0 +1,83 @@
+package com.katanapay.routing.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katanapay.routing.limiter.AdaptiveConcurrencyLimiter;
+import com.katanapay.routing.limiter.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${concurrency-limit.retry-after-seconds:1}")
+    private String retryAfterSeconds;
+
+    @Value("${concurrency-limit.submission.initial-limit:50}")
+    private int submissionInitialLimit;
+
+    @Value("${concurrency-limit.submission.min-limit:10}")
+    private int submissionMinLimit;
+
+    @Value("${concurrency-limit.submission.max-limit:500}")
+    private int submissionMaxLimit;
+
+    @Value("${concurrency-limit.query.initial-limit:100}")
+    private int queryInitialLimit;
+
+    @Value("${concurrency-limit.query.min-limit:20}")
+    private int queryMinLimit;
+
+    @Value("${concurrency-limit.query.max-limit:1000}")
+    private int queryMaxLimit;
+
+    @Bean
+    public AdaptiveConcurrencyLimiter submissionConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter("submission",
+                submissionInitialLimit, submissionMinLimit, submissionMaxLimit);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter queryConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter("query",
+                queryInitialLimit, queryMinLimit, queryMaxLimit);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ObjectMapper objectMapper) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(submissionConcurrencyLimiter(), queryConcurrencyLimiter(),
+                        objectMapper, retryAfterSeconds));
+        registration.addUrlPatterns("/api/v1/payments", "/api/v1/payments/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics() {
+        return registry -> {
+            for (AdaptiveConcurrencyLimiter limiter : new AdaptiveConcurrencyLimiter[]{
+                    submissionConcurrencyLimiter(), queryConcurrencyLimiter()}) {
+                Gauge.builder("payments.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                        .description("Current adaptive concurrency limit")
+                        .tag("limiter", limiter.getName())
+                        .register(registry);
+                Gauge.builder("payments.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                        .description("Requests currently holding a concurrency slot")
+                        .tag("limiter", limiter.getName())
+                        .register(registry);
+                FunctionCounter.builder("payments.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                        .description("Requests rejected because the concurrency limit was reached")
+                        .tag("limiter", limiter.getName())
+                        .register(registry);
+            }
+        };
+    }
+}
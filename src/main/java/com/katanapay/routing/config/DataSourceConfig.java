@@ -0,0 +1,160 @@
+package com.katanapay.routing.config;
+
+import com.katanapay.routing.datasource.ConnectionPool;
+import com.katanapay.routing.datasource.ConnectionPoolRoutingDataSource;
+import com.katanapay.routing.datasource.ConnectionPoolTransactionManager;
+import com.katanapay.routing.datasource.DatabaseShards;
+import com.katanapay.routing.datasource.ShardPools;
+import com.katanapay.routing.datasource.ShardedLiquibase;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One Hikari pool per {@link ConnectionPool} and database shard, behind a routing data source that the
+ * persistence unit and the {@code JdbcTemplate} share, one transaction manager per pool, and Liquibase for every
+ * shard.
+ * <p>
+ * Every pool is configured from {@code spring.datasource}, then {@code spring.datasource.hikari} and then
+ * {@code spring.datasource.pools.<name>}. The shards are listed under {@code sharding.shards}, each with its
+ * {@code url}, optionally its {@code username} and {@code password}, and its {@code slots}; without them
+ * {@code spring.datasource} is the only shard. See {@link DatabaseShards} for the slots. The pool names tag
+ * the {@code hikaricp.*} metrics, see {@link ShardPools}. {@code @Transactional} without a transaction manager
+ * runs on the request pool.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    public static final String OUTBOX_TRANSACTION_MANAGER = "outboxTransactionManager";
+    public static final String BATCH_TRANSACTION_MANAGER = "batchTransactionManager";
+
+    /**
+     * A database shard of {@code sharding.shards}.
+     *
+     * @param url      the JDBC URL
+     * @param username the user, {@code spring.datasource.username} if not set
+     * @param password the password, {@code spring.datasource.password} if not set
+     * @param slots    the slots of the shard, see {@link DatabaseShards#DatabaseShards}
+     */
+    public record Shard(String url, String username, String password, String slots) {
+    }
+
+    @Bean
+    public DatabaseShards databaseShards(Environment environment,
+                                         @Value("${sharding.slot-count:1024}") int slotCount) {
+        List<Shard> shards = shards(environment);
+        return shards.isEmpty() ? DatabaseShards.single(slotCount)
+                : new DatabaseShards(slotCount, shards.stream().map(Shard::slots).toList());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardPools shardPools(DataSourceProperties properties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        List<Shard> shards = shards(environment);
+        if (shards.isEmpty()) {
+            shards = List.of(new Shard(null, null, null, null));
+        }
+
+        List<Map<ConnectionPool, HikariDataSource>> pools = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            Map<ConnectionPool, HikariDataSource> shardPools = new EnumMap<>(ConnectionPool.class);
+            for (ConnectionPool pool : ConnectionPool.values()) {
+                shardPools.put(pool, pool(shard, shards.get(shard), pool, properties, environment, meterRegistry));
+            }
+            pools.add(shardPools);
+        }
+        return new ShardPools(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardPools shardPools) {
+        return new ConnectionPoolRoutingDataSource(shardPools);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.liquibase", name = "enabled", matchIfMissing = true)
+    public ShardedLiquibase liquibase(ShardPools shardPools,
+                                      @Value("${spring.liquibase.change-log}") String changeLog) {
+        ShardedLiquibase liquibase = new ShardedLiquibase(shardPools);
+        liquibase.setChangeLog(changeLog);
+        return liquibase;
+    }
+
+    @Bean
+    @Primary
+    public ConnectionPoolTransactionManager transactionManager(
+            EntityManagerFactory entityManagerFactory, ObjectProvider<TransactionManagerCustomizers> customizers) {
+        return transactionManager(ConnectionPool.REQUEST, entityManagerFactory, customizers);
+    }
+
+    @Bean(OUTBOX_TRANSACTION_MANAGER)
+    public ConnectionPoolTransactionManager outboxTransactionManager(
+            EntityManagerFactory entityManagerFactory, ObjectProvider<TransactionManagerCustomizers> customizers) {
+        return transactionManager(ConnectionPool.OUTBOX, entityManagerFactory, customizers);
+    }
+
+    @Bean(BATCH_TRANSACTION_MANAGER)
+    public ConnectionPoolTransactionManager batchTransactionManager(
+            EntityManagerFactory entityManagerFactory, ObjectProvider<TransactionManagerCustomizers> customizers) {
+        return transactionManager(ConnectionPool.BATCH, entityManagerFactory, customizers);
+    }
+
+    private static List<Shard> shards(Environment environment) {
+        return Binder.get(environment).bind("sharding.shards", Bindable.listOf(Shard.class)).orElse(List.of());
+    }
+
+    private static HikariDataSource pool(int shardIndex, Shard shard, ConnectionPool pool,
+                                         DataSourceProperties properties, Environment environment,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        DataSourceBuilder<HikariDataSource> builder = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class);
+        if (shard.url() != null) {
+            builder.url(shard.url());
+        }
+        if (shard.username() != null) {
+            builder.username(shard.username());
+        }
+        if (shard.password() != null) {
+            builder.password(shard.password());
+        }
+        HikariDataSource dataSource = builder.build();
+
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        binder.bind("spring.datasource.pools." + pool.poolName(), Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(ShardPools.poolName(shardIndex, pool));
+        // the pools are no beans, so Spring Boot does not bind their metrics
+        meterRegistry.ifAvailable(registry ->
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return dataSource;
+    }
+
+    private static ConnectionPoolTransactionManager transactionManager(
+            ConnectionPool pool, EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ConnectionPoolTransactionManager transactionManager =
+                new ConnectionPoolTransactionManager(entityManagerFactory, pool);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,42 @@
+package com.katanapay.routing.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps some beans eager when {@code spring.main.lazy-initialization} is on, as it is in the {@code prod} profile.
+ * <p>
+ * Controllers are created at startup, and with them everything on the payment path, so the first payment does not
+ * pay for building the repositories, the providers and the routing tables. Beans with {@code @Scheduled} or event
+ * listener methods are created too, since nothing else would ever ask for them and the outbox would never run.
+ * Everything else, like the actuator endpoints, is created when first used.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerControllersAndBackgroundJobs() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (AnnotatedElementUtils.hasAnnotation(beanType, Controller.class) || hasCallbackMethods(beanType));
+    }
+
+    private static boolean hasCallbackMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> found.set(true), LazyInitializationConfig::isCallback);
+        return found.get();
+    }
+
+    private static boolean isCallback(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, EventListener.class);
+    }
+}
@@ -0,0 +1,23 @@
+package com.katanapay.routing.config;
+
+import com.katanapay.routing.logging.LogRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class LoggingConfig {
+
+    @Value("${provider.error-log.interval:PT10S}")
+    private Duration providerErrorLogInterval;
+
+    @Value("${provider.error-log.max-per-interval:5}")
+    private int providerErrorLogMaxPerInterval;
+
+    @Bean
+    public LogRateLimiter providerErrorLogRateLimiter() {
+        return new LogRateLimiter(providerErrorLogInterval, providerErrorLogMaxPerInterval);
+    }
+}
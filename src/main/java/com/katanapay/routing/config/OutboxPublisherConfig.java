@@ -0,0 +1,45 @@
+package com.katanapay.routing.config;
+
+import com.katanapay.routing.eventlog.SegmentedEventLog;
+import com.katanapay.routing.outbox.EventLogOutboxPublisher;
+import com.katanapay.routing.outbox.LoggingOutboxPublisher;
+import com.katanapay.routing.outbox.OutboxPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxPublisherConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "outbox.publisher", name = "type", havingValue = "event-log", matchIfMissing = true)
+    static class EventLogPublisherConfig {
+
+        @Value("${outbox.publisher.event-log.directory:./data/outbox-log}")
+        private Path directory;
+
+        @Value("${outbox.publisher.event-log.segment-size:64MB}")
+        private DataSize segmentSize;
+
+        @Bean(destroyMethod = "close")
+        public SegmentedEventLog outboxEventLog() throws IOException {
+            return new SegmentedEventLog(directory, Math.toIntExact(segmentSize.toBytes()));
+        }
+
+        @Bean
+        public OutboxPublisher eventLogOutboxPublisher(SegmentedEventLog outboxEventLog) {
+            return new EventLogOutboxPublisher(outboxEventLog);
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "outbox.publisher", name = "type", havingValue = "logging")
+    public OutboxPublisher loggingOutboxPublisher() {
+        return new LoggingOutboxPublisher();
+    }
+}
@@ -1,13 +1,25 @@
 package com.katanapay.routing.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katanapay.routing.dto.ProviderPaymentRequest;
+import com.katanapay.routing.dto.ProviderPaymentResponse;
+import com.katanapay.routing.http.CachedJsonHttpMessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 @Configuration
 public class RestTemplateConfig {
+
+    /**
+     * The provider client only exchanges the provider DTOs, so it gets their prepared codec and no other
+     * converters to negotiate between.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ObjectMapper objectMapper) {
+        return new RestTemplate(List.of(new CachedJsonHttpMessageConverter(objectMapper,
+                ProviderPaymentRequest.class, ProviderPaymentResponse.class)));
     }
 }
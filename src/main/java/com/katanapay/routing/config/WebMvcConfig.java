@@ -0,0 +1,27 @@
+package com.katanapay.routing.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.http.CachedJsonHttpMessageConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Reads and writes the payment DTOs with prepared codecs, ahead of the generic Jackson converter.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.addFirst(new CachedJsonHttpMessageConverter(objectMapper, PaymentRequest.class, PaymentResponse.class));
+    }
+}
@@ -0,0 +1,58 @@
+package com.katanapay.routing.controller;
+
+import com.katanapay.routing.dto.DeadLetterReplayResponse;
+import com.katanapay.routing.dto.DeadLetterResponse;
+import com.katanapay.routing.model.mapper.OutboxDeadLetterMapper;
+import com.katanapay.routing.outbox.OutboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/admin/outbox")
+@Tag(name = "Outbox Admin API", description = "API for inspecting and replaying outbox dead letters")
+public class OutboxAdminController {
+
+    private final OutboxService outboxService;
+    private final OutboxDeadLetterMapper outboxDeadLetterMapper;
+
+    @GetMapping("/dead-letters")
+    @Operation(summary = "List dead letters", description = "Lists the oldest outbox events that ran out of publish attempts")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Dead letters listed")
+    })
+    public ResponseEntity<List<DeadLetterResponse>> getDeadLetters(
+            @Parameter(description = "Maximum number of dead letters") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(outboxDeadLetterMapper.toResponses(outboxService.getDeadLetters(limit)));
+    }
+
+    @PostMapping("/dead-letters/replay")
+    @Operation(summary = "Replay dead letters",
+            description = "Moves the given dead letters, or the oldest ones if no IDs are given, back to the outbox")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Dead letters replayed")
+    })
+    public ResponseEntity<DeadLetterReplayResponse> replayDeadLetters(
+            @RequestBody(required = false) List<UUID> ids,
+            @Parameter(description = "Maximum number of dead letters replayed when no IDs are given")
+            @RequestParam(defaultValue = "1000") int limit) {
+        int replayed = ids == null || ids.isEmpty()
+                ? outboxService.replayDeadLetters(limit)
+                : outboxService.replayDeadLetters(ids);
+        return ResponseEntity.ok(DeadLetterReplayResponse.builder().replayed(replayed).build());
+    }
+}
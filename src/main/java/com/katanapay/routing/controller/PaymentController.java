@@ -3,6 +3,7 @@ package com.katanapay.routing.controller;
 import com.katanapay.routing.dto.PaymentRequest;
 import com.katanapay.routing.dto.PaymentResponse;
 import com.katanapay.routing.service.PaymentService;
+import com.katanapay.routing.validation.PaymentRequestValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,7 +15,9 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -30,6 +33,12 @@ import java.util.UUID;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentRequestValidator paymentRequestValidator;
+
+    @InitBinder("paymentRequest")
+    public void initPaymentRequestBinder(WebDataBinder binder) {
+        binder.setValidator(paymentRequestValidator);
+    }
 
     @PostMapping
     @Operation(summary = "Initiate a new payment", description = "Creates a new payment and routes it to the appropriate provider")
@@ -37,7 +46,8 @@ public class PaymentController {
             @ApiResponse(responseCode = "201", description = "Payment initiated successfully",
                     content = @Content(schema = @Schema(implementation = PaymentResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request"),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Service overloaded, retry after the Retry-After delay")
     })
     public ResponseEntity<PaymentResponse> initiatePayment(
             @Valid @RequestBody PaymentRequest request) {
@@ -50,7 +60,8 @@ public class PaymentController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Payment found",
                     content = @Content(schema = @Schema(implementation = PaymentResponse.class))),
-            @ApiResponse(responseCode = "404", description = "Payment not found")
+            @ApiResponse(responseCode = "404", description = "Payment not found"),
+            @ApiResponse(responseCode = "503", description = "Service overloaded, retry after the Retry-After delay")
     })
     public ResponseEntity<PaymentResponse> getPayment(
             @Parameter(description = "Payment ID", required = true) @PathVariable UUID id) {
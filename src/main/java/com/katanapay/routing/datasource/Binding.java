@@ -0,0 +1,13 @@
+package com.katanapay.routing.datasource;
+
+/**
+ * A value bound to the current thread, restored to the previous one when closed.
+ *
+ * @see ConnectionPool#bind(ConnectionPool)
+ * @see DatabaseShards#bind(int)
+ */
+public interface Binding extends AutoCloseable {
+
+    @Override
+    void close();
+}
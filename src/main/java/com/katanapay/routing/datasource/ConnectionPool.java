@@ -0,0 +1,55 @@
+package com.katanapay.routing.datasource;
+
+/**
+ * The JDBC connection pools, each sized and timed out for its own kind of work, so background work never takes
+ * the connections of the payment API.
+ * <ul>
+ *     <li>{@link #REQUEST}: the payment API, and anything that does not ask for another pool,</li>
+ *     <li>{@link #OUTBOX}: claiming and publishing outbox events and the shard heartbeat,</li>
+ *     <li>{@link #BATCH}: compaction, backlog counts and dead letter administration.</li>
+ * </ul>
+ * A connection comes from the pool bound to the thread when it is opened, on the database shard bound to the
+ * thread, see {@link ConnectionPoolRoutingDataSource} and {@link DatabaseShards}. Transactions bind their pool
+ * through their {@link ConnectionPoolTransactionManager}.
+ */
+public enum ConnectionPool {
+
+    REQUEST,
+    OUTBOX,
+    BATCH;
+
+    private static final ThreadLocal<ConnectionPool> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return the pool bound to this thread, {@link #REQUEST} if none is
+     */
+    public static ConnectionPool current() {
+        ConnectionPool pool = CURRENT.get();
+        return pool == null ? REQUEST : pool;
+    }
+
+    /**
+     * Binds a pool to this thread until the returned binding is closed, which restores the previous one.
+     *
+     * @param pool the pool connections are opened from
+     * @return the binding to close
+     */
+    public static Binding bind(ConnectionPool pool) {
+        ConnectionPool previous = CURRENT.get();
+        CURRENT.set(pool);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * The name of the pool, used for its Hikari pool name, its metrics tag and its properties.
+     */
+    public String poolName() {
+        return name().toLowerCase();
+    }
+}
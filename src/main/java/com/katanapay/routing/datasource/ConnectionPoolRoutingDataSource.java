@@ -0,0 +1,45 @@
+package com.katanapay.routing.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opens connections from the {@link ConnectionPool} bound to the current thread, on the shard of
+ * {@link DatabaseShards} bound to it.
+ * <p>
+ * JPA, Liquibase and the {@code JdbcTemplate} all work on this data source, so one persistence unit serves every
+ * pool and shard, and an outbox event still commits in the transaction of its payment, on the shard of the
+ * payment.
+ */
+public class ConnectionPoolRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final String[][] poolNames;
+
+    public ConnectionPoolRoutingDataSource(ShardPools pools) {
+        ConnectionPool[] connectionPools = ConnectionPool.values();
+        Map<Object, Object> targets = new HashMap<>();
+        poolNames = new String[pools.shardCount()][connectionPools.length];
+        for (int shard = 0; shard < pools.shardCount(); shard++) {
+            for (ConnectionPool pool : connectionPools) {
+                String poolName = ShardPools.poolName(shard, pool);
+                poolNames[shard][pool.ordinal()] = poolName;
+                targets.put(poolName, pools.get(shard, pool));
+            }
+        }
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(pools.get(0, ConnectionPool.REQUEST));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = DatabaseShards.current();
+        if (shard >= poolNames.length) {
+            throw new IllegalStateException("There is no database shard " + shard);
+        }
+        return poolNames[shard][ConnectionPool.current().ordinal()];
+    }
+}
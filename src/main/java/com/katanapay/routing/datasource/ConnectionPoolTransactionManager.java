@@ -0,0 +1,33 @@
+package com.katanapay.routing.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * A {@link JpaTransactionManager} whose transactions take their connection from one {@link ConnectionPool}.
+ * <p>
+ * Hibernate opens the connection when the transaction begins, so the pool is only bound while it does. All
+ * transaction managers share the entity manager factory, so a transaction joins one that is already running,
+ * whichever pool that one came from.
+ */
+public class ConnectionPoolTransactionManager extends JpaTransactionManager {
+
+    private final ConnectionPool pool;
+
+    public ConnectionPoolTransactionManager(EntityManagerFactory entityManagerFactory, ConnectionPool pool) {
+        super(entityManagerFactory);
+        this.pool = pool;
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        try (Binding ignored = ConnectionPool.bind(pool)) {
+            super.doBegin(transaction, definition);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.katanapay.routing.datasource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Spreads the payments over several databases, the shards, together with the outbox events of each payment.
+ * <p>
+ * The first 16 bits of a payment ID hold its slot, one of {@code sharding.slot-count} slots, and every slot
+ * belongs to one shard, so the shard of a payment follows from its ID without a lookup. IDs created before the
+ * slot was encoded have random first bits, which still map to one slot. The slot count never changes; adding a
+ * shard moves slots to it, and {@link ShardRebalancer} moves their rows.
+ * <p>
+ * Like the {@link ConnectionPool}, the shard is bound to the thread and picked up by
+ * {@link ConnectionPoolRoutingDataSource} when a connection is opened, so it must be bound before a transaction
+ * begins. Without a binding, connections come from shard 0, which also holds the node and shard lease tables of
+ * the outbox shard coordinator.
+ */
+public class DatabaseShards {
+
+    /**
+     * The most slots the first 16 bits of an ID can tell apart.
+     */
+    public static final int MAX_SLOT_COUNT = 1 << 16;
+
+    private static final int SLOT_SHIFT = 48;
+    private static final long NON_SLOT_BITS = -1L >>> 16;
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int[] shardBySlot;
+    private final int count;
+
+    /**
+     * @param slotCount the number of slots
+     * @param slots     the slots of every shard, in shard order, as comma separated slots and {@code low-high}
+     *                  ranges, e.g. {@code 0-511,768}; every slot must belong to exactly one shard
+     */
+    public DatabaseShards(int slotCount, List<String> slots) {
+        if (slotCount < 1 || slotCount > MAX_SLOT_COUNT) {
+            throw new IllegalArgumentException("The slot count must be between 1 and " + MAX_SLOT_COUNT
+                    + ": " + slotCount);
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is needed");
+        }
+
+        shardBySlot = new int[slotCount];
+        Arrays.fill(shardBySlot, -1);
+        for (int shard = 0; shard < slots.size(); shard++) {
+            assign(shard, slots.get(shard));
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (shardBySlot[slot] < 0) {
+                throw new IllegalArgumentException("Slot " + slot + " belongs to no shard");
+            }
+        }
+        count = slots.size();
+    }
+
+    /**
+     * @param slotCount the number of slots
+     * @return a single shard holding all slots
+     */
+    public static DatabaseShards single(int slotCount) {
+        return new DatabaseShards(slotCount, List.of("0-" + (slotCount - 1)));
+    }
+
+    /**
+     * @return the shard bound to this thread, 0 if none is
+     */
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    /**
+     * Binds a shard to this thread until the returned binding is closed, which restores the previous one.
+     *
+     * @param shard the shard connections are opened on
+     * @return the binding to close
+     */
+    public static Binding bind(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int slotCount() {
+        return shardBySlot.length;
+    }
+
+    /**
+     * @param paymentId the ID of a payment
+     * @return the slot of the payment
+     */
+    public int slotOf(UUID paymentId) {
+        return (int) ((paymentId.getMostSignificantBits() >>> SLOT_SHIFT) % shardBySlot.length);
+    }
+
+    /**
+     * @param paymentId the ID of a payment
+     * @return the shard holding the payment
+     */
+    public int shardOf(UUID paymentId) {
+        return shardBySlot[slotOf(paymentId)];
+    }
+
+    /**
+     * The shard of an outbox event, which is the shard of its aggregate. Aggregates without a payment ID live on
+     * shard 0.
+     *
+     * @param aggregateId the ID of the aggregate of the event
+     * @return the shard holding the event
+     */
+    public int shardOf(String aggregateId) {
+        if (count == 1) {
+            return 0;
+        }
+        try {
+            return shardOf(UUID.fromString(aggregateId));
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Creates the ID of a new payment in a random slot, which spreads new payments over the shards by the number
+     * of slots they hold.
+     *
+     * @return a random UUID with the slot in its first 16 bits
+     */
+    public UUID newPaymentId() {
+        UUID random = UUID.randomUUID();
+        long slot = ThreadLocalRandom.current().nextInt(shardBySlot.length);
+        return new UUID((slot << SLOT_SHIFT) | (random.getMostSignificantBits() & NON_SLOT_BITS),
+                random.getLeastSignificantBits());
+    }
+
+    /**
+     * Runs an action on every shard in turn, each with its shard bound.
+     *
+     * @param action the action, which begins its own transaction if it needs one
+     * @return the results in shard order
+     */
+    public <T> List<T> onEveryShard(Supplier<T> action) {
+        List<T> results = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            try (Binding ignored = bind(shard)) {
+                results.add(action.get());
+            }
+        }
+        return results;
+    }
+
+    private void assign(int shard, String slots) {
+        if (slots == null || slots.isBlank()) {
+            return;
+        }
+        for (String range : slots.split(",")) {
+            String[] bounds = range.trim().split("-", 2);
+            int low = Integer.parseInt(bounds[0].trim());
+            int high = bounds.length == 1 ? low : Integer.parseInt(bounds[1].trim());
+            if (low < 0 || high >= shardBySlot.length || low > high) {
+                throw new IllegalArgumentException("Invalid slots of shard " + shard + ": " + range);
+            }
+            for (int slot = low; slot <= high; slot++) {
+                if (shardBySlot[slot] >= 0) {
+                    throw new IllegalArgumentException("Slot " + slot + " belongs to shards " + shardBySlot[slot]
+                            + " and " + shard);
+                }
+                shardBySlot[slot] = shard;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.katanapay.routing.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Hikari pools of every database shard, one per {@link ConnectionPool}.
+ * <p>
+ * The pools of shard 0 are named after their {@link ConnectionPool}, the ones of shard {@code n} get a
+ * {@code -n} suffix, e.g. {@code request-1}. The name tags the {@code hikaricp.*} metrics of the pool.
+ */
+public class ShardPools implements AutoCloseable {
+
+    private final List<Map<ConnectionPool, HikariDataSource>> pools;
+
+    /**
+     * @param pools the pools of every shard, in shard order
+     */
+    public ShardPools(List<Map<ConnectionPool, HikariDataSource>> pools) {
+        this.pools = List.copyOf(pools);
+    }
+
+    /**
+     * @return the name of a pool of a shard
+     */
+    public static String poolName(int shard, ConnectionPool pool) {
+        return shard == 0 ? pool.poolName() : pool.poolName() + "-" + shard;
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int shardCount() {
+        return pools.size();
+    }
+
+    /**
+     * @return a pool of a shard
+     */
+    public HikariDataSource get(int shard, ConnectionPool pool) {
+        return pools.get(shard).get(pool);
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(shardPools -> shardPools.values().forEach(HikariDataSource::close));
+    }
+}
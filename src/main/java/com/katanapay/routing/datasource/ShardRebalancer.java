@@ -0,0 +1,155 @@
+package com.katanapay.routing.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Moves payments, outbox events and dead letters to the shard their slot belongs to, after slots were given to
+ * another shard, e.g. a new one.
+ * <p>
+ * Every table of every shard is read in chunks in ID order, on the batch pools. The rows of a chunk that belong to
+ * another shard are written there and then deleted here, each in its own transaction. A target row with the same
+ * ID is replaced, so a rebalance that stopped half way is completed by running it again.
+ * <p>
+ * Rows are only moved correctly while nothing writes them, so shards are added with all nodes stopped:
+ * <ol>
+ *     <li>add the database to {@code sharding.shards} and move slots to it in the configuration of all nodes,</li>
+ *     <li>start one node with {@code sharding.rebalance.enabled=true}; Liquibase creates the schema of the new
+ *     shard and the rows are moved before the node reports ready,</li>
+ *     <li>start the other nodes.</li>
+ * </ol>
+ * Outbox events claimed during the rebalance are published and moved; their lease runs out on the new shard,
+ * which publishes them again, as the outbox guarantees delivery at least once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardRebalancer implements ApplicationRunner {
+
+    private static final List<ShardedTable> TABLES = List.of(
+            new ShardedTable("payments", "id"),
+            new ShardedTable("outbox_events", "aggregate_id"),
+            new ShardedTable("outbox_dead_letters", "aggregate_id"));
+
+    private final ShardPools shardPools;
+    private final DatabaseShards databaseShards;
+
+    @Value("${sharding.rebalance.enabled:false}")
+    private boolean enabled;
+
+    @Value("${sharding.rebalance.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * A table with the column holding the payment ID that decides the shard of a row.
+     */
+    private record ShardedTable(String name, String paymentIdColumn) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        int moved = rebalance();
+        log.info("Moved {} rows to their shards in {} ms", moved, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Moves every row that is not on the shard of its slot.
+     *
+     * @return the number of rows moved
+     */
+    public int rebalance() {
+        int moved = 0;
+        for (int shard = 0; shard < databaseShards.count(); shard++) {
+            for (ShardedTable table : TABLES) {
+                int tableMoved = rebalance(shard, table);
+                if (tableMoved > 0) {
+                    log.info("Moved {} rows of {} off shard {}", tableMoved, table.name(), shard);
+                }
+                moved += tableMoved;
+            }
+        }
+        return moved;
+    }
+
+    private int rebalance(int shard, ShardedTable table) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool(shard));
+        String firstChunk = "SELECT * FROM " + table.name() + " ORDER BY id LIMIT ?";
+        String nextChunk = "SELECT * FROM " + table.name() + " WHERE id > ? ORDER BY id LIMIT ?";
+        Object lastId = null;
+        int moved = 0;
+
+        while (true) {
+            List<Map<String, Object>> rows = lastId == null
+                    ? jdbcTemplate.queryForList(firstChunk, chunkSize)
+                    : jdbcTemplate.queryForList(nextChunk, lastId, chunkSize);
+            if (rows.isEmpty()) {
+                return moved;
+            }
+            lastId = rows.getLast().get("id");
+
+            Map<Integer, List<Map<String, Object>>> rowsByTarget = new LinkedHashMap<>();
+            for (Map<String, Object> row : rows) {
+                int target = databaseShards.shardOf(String.valueOf(row.get(table.paymentIdColumn())));
+                if (target != shard) {
+                    rowsByTarget.computeIfAbsent(target, key -> new ArrayList<>()).add(row);
+                }
+            }
+            for (Map.Entry<Integer, List<Map<String, Object>>> entry : rowsByTarget.entrySet()) {
+                move(table, entry.getValue(), shard, entry.getKey());
+                moved += entry.getValue().size();
+            }
+
+            if (rows.size() < chunkSize) {
+                return moved;
+            }
+        }
+    }
+
+    private void move(ShardedTable table, List<Map<String, Object>> rows, int source, int target) {
+        List<Object> ids = rows.stream().map(row -> row.get("id")).toList();
+        String deleteByIds = "DELETE FROM " + table.name() + " WHERE id IN ("
+                + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        List<String> columns = new ArrayList<>(rows.getFirst().keySet());
+        String insert = "INSERT INTO " + table.name() + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        List<Object[]> values = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .toList();
+
+        inTransaction(target, jdbcTemplate -> {
+            jdbcTemplate.update(deleteByIds, ids.toArray());
+            jdbcTemplate.batchUpdate(insert, values);
+        });
+        inTransaction(source, jdbcTemplate -> jdbcTemplate.update(deleteByIds, ids.toArray()));
+    }
+
+    private void inTransaction(int shard, Consumer<JdbcTemplate> work) {
+        DataSource pool = pool(shard);
+        new TransactionTemplate(new DataSourceTransactionManager(pool))
+                .executeWithoutResult(status -> work.accept(new JdbcTemplate(pool)));
+    }
+
+    private DataSource pool(int shard) {
+        return shardPools.get(shard, ConnectionPool.BATCH);
+    }
+}
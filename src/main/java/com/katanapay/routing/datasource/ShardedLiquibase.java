@@ -0,0 +1,27 @@
+package com.katanapay.routing.datasource;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * Migrates the schema of every database shard, shard 0 first, through its request pool.
+ * <p>
+ * Being a {@link SpringLiquibase}, it replaces the one of Spring Boot and the entity manager factory still waits
+ * for it.
+ */
+public class ShardedLiquibase extends SpringLiquibase {
+
+    private final ShardPools pools;
+
+    public ShardedLiquibase(ShardPools pools) {
+        this.pools = pools;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        for (int shard = 0; shard < pools.shardCount(); shard++) {
+            setDataSource(pools.get(shard, ConnectionPool.REQUEST));
+            super.afterPropertiesSet();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.katanapay.routing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterResponse {
+
+    private UUID id;
+    private String aggregateType;
+    private String aggregateId;
+    private String eventType;
+    private int attemptCount;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime failedAt;
+}
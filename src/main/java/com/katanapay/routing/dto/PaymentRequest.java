@@ -1,37 +1,32 @@
 package com.katanapay.routing.dto;
 
-import jakarta.validation.constraints.DecimalMin;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
-import jakarta.validation.constraints.Size;
+import com.katanapay.routing.validation.PaymentRequestValidator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 
+/**
+ * A payment as submitted by a client, validated by the {@link PaymentRequestValidator}.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class PaymentRequest {
 
-    @NotNull(message = "Amount is required")
-    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
     private BigDecimal amount;
 
-    @NotBlank(message = "Currency is required")
-    @Size(min = 3, max = 3, message = "Currency must be 3 characters")
-    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be in ISO 4217 format")
     private String currency;
 
-    @NotBlank(message = "Card number is required")
-    @Pattern(regexp = "\\d{16}", message = "Card number must be 16 digits")
+    // the full card number must never reach a log line
+    @ToString.Exclude
     private String cardNumber;
 
     public String getBin() {
         return cardNumber != null && cardNumber.length() >= 6 ? cardNumber.substring(0, 6) : "";
     }
-}
\ No newline at end of file
+}
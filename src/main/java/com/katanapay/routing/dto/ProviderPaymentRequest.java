@@ -1,9 +1,11 @@
 package com.katanapay.routing.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -19,6 +21,9 @@ public class ProviderPaymentRequest {
     private BigDecimal amount;
     private String currency;
 
+    @ToString.Exclude
     private String cardNumber;
+    @JsonIgnore
+    private String maskedCardNumber;
     private String bin;
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.katanapay.routing.event;
+
+import com.katanapay.routing.model.entity.Payment;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding. Schema version 1 layout:
+ * <pre>
+ * type          1  ordinal of {@link PaymentEventType}
+ * paymentId    16
+ * amount        8  unscaled value
+ * amount scale  1
+ * currency      3  ISO 4217 code, ASCII
+ * status        1  ordinal of {@link Payment.Status}, 0xFF if unknown
+ * createdAt     8  epoch microseconds, UTC
+ * updatedAt     8  epoch microseconds, UTC, Long.MIN_VALUE if unknown
+ * bin, cardLast4, provider, providerReference  strings as unsigned short length + UTF-8, 0xFFFF for null
+ * </pre>
+ */
+final class BinaryPaymentEventCodec implements PaymentEventCodec {
+
+    static final byte FORMAT = 1;
+
+    private static final int NO_VALUE = 0xFF;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final PaymentEventType[] TYPES = PaymentEventType.values();
+    private static final Payment.Status[] STATUSES = Payment.Status.values();
+
+    @Override
+    public byte format() {
+        return FORMAT;
+    }
+
+    @Override
+    public void encode(PaymentEvent event, PayloadBuffer buffer) {
+        buffer.write(event.type().ordinal());
+        buffer.writeLong(event.paymentId().getMostSignificantBits());
+        buffer.writeLong(event.paymentId().getLeastSignificantBits());
+        buffer.writeLong(event.amount().unscaledValue().longValueExact());
+        buffer.write(event.amount().scale());
+        writeCurrency(event.currency(), buffer);
+        buffer.write(event.status() != null ? event.status().ordinal() : NO_VALUE);
+        buffer.writeLong(toEpochMicros(event.createdAt()));
+        buffer.writeLong(toEpochMicros(event.updatedAt()));
+        buffer.writeString(event.bin());
+        buffer.writeString(event.cardLast4());
+        buffer.writeString(event.provider());
+        buffer.writeString(event.providerReference());
+    }
+
+    @Override
+    public PaymentEvent decode(ByteBuffer body, int schemaVersion) {
+        if (schemaVersion != 1) {
+            throw new IllegalArgumentException("Unsupported payment event schema version: " + schemaVersion);
+        }
+
+        PaymentEventType type = TYPES[body.get()];
+        UUID paymentId = new UUID(body.getLong(), body.getLong());
+        long unscaledAmount = body.getLong();
+        BigDecimal amount = new BigDecimal(BigInteger.valueOf(unscaledAmount), body.get());
+        String currency = readAscii(body, 3);
+        int status = Byte.toUnsignedInt(body.get());
+        LocalDateTime createdAt = fromEpochMicros(body.getLong());
+        LocalDateTime updatedAt = fromEpochMicros(body.getLong());
+
+        return new PaymentEvent(type, paymentId, amount, currency,
+                readString(body), readString(body), readString(body),
+                status != NO_VALUE ? STATUSES[status] : null,
+                readString(body), createdAt, updatedAt);
+    }
+
+    private static void writeCurrency(String currency, PayloadBuffer buffer) {
+        if (currency == null || currency.length() != 3) {
+            throw new IllegalArgumentException("Currency must be a 3-letter code: " + currency);
+        }
+        for (int i = 0; i < 3; i++) {
+            buffer.write(currency.charAt(i));
+        }
+    }
+
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return Long.MIN_VALUE;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long epochMicros) {
+        if (epochMicros == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000),
+                (int) Math.floorMod(epochMicros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static String readString(ByteBuffer body) {
+        int length = Short.toUnsignedInt(body.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        return readUtf8(body, length);
+    }
+
+    private static String readAscii(ByteBuffer body, int length) {
+        String value = new String(body.array(), body.arrayOffset() + body.position(), length, StandardCharsets.US_ASCII);
+        body.position(body.position() + length);
+        return value;
+    }
+
+    private static String readUtf8(ByteBuffer body, int length) {
+        String value = new String(body.array(), body.arrayOffset() + body.position(), length, StandardCharsets.UTF_8);
+        body.position(body.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package com.katanapay.routing.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * JSON encoding of the event record, for consumers that cannot decode the binary format.
+ */
+final class JsonPaymentEventCodec implements PaymentEventCodec {
+
+    static final byte FORMAT = 2;
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    JsonPaymentEventCodec(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(PaymentEvent.class);
+        this.reader = objectMapper.readerFor(PaymentEvent.class);
+    }
+
+    @Override
+    public byte format() {
+        return FORMAT;
+    }
+
+    @Override
+    public void encode(PaymentEvent event, PayloadBuffer buffer) {
+        try {
+            writer.writeValue(buffer, event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write payment event " + event.paymentId(), e);
+        }
+    }
+
+    @Override
+    public PaymentEvent decode(ByteBuffer body, int schemaVersion) {
+        if (schemaVersion != 1) {
+            throw new IllegalArgumentException("Unsupported payment event schema version: " + schemaVersion);
+        }
+
+        try {
+            return reader.readValue(body.array(), body.arrayOffset() + body.position(), body.remaining());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read payment event", e);
+        }
+    }
+}
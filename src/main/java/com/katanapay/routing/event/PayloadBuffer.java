@@ -0,0 +1,119 @@
+package com.katanapay.routing.event;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable, reusable byte buffer the codecs encode into.
+ * Unlike {@link java.io.ByteArrayOutputStream} it is unsynchronized and exposes its backing array,
+ * so one instance per thread can be reset and reused for every event. Multibyte values are big-endian.
+ */
+final class PayloadBuffer extends OutputStream {
+
+    private byte[] bytes;
+    private int size;
+
+    PayloadBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    void ensureCapacity(int additional) {
+        if (size + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+        }
+    }
+
+    /**
+     * Marks bytes written directly into {@link #array()} as used.
+     */
+    void advance(int count) {
+        size += count;
+    }
+
+    @Override
+    public void write(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(source, offset, bytes, size, length);
+        size += length;
+    }
+
+    void writeShort(int value) {
+        ensureCapacity(2);
+        bytes[size++] = (byte) (value >>> 8);
+        bytes[size++] = (byte) value;
+    }
+
+    void writeInt(int value) {
+        ensureCapacity(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            bytes[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            bytes[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    /**
+     * Writes a string as an unsigned short byte length and its UTF-8 bytes, or {@code 0xFFFF} for null.
+     * ASCII strings are copied without an intermediate array.
+     */
+    void writeString(String value) {
+        if (value == null) {
+            writeShort(0xFFFF);
+            return;
+        }
+
+        int length = value.length();
+        if (isAscii(value) && length < 0xFFFF) {
+            writeShort(length);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                bytes[size++] = (byte) value.charAt(i);
+            }
+            return;
+        }
+
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= 0xFFFF) {
+            throw new IllegalArgumentException("String too long for the payment event encoding: " + utf8.length);
+        }
+        writeShort(utf8.length);
+        write(utf8, 0, utf8.length);
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.katanapay.routing.event;
+
+import com.katanapay.routing.model.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Payment event published through the outbox, schema version {@value #SCHEMA_VERSION}.
+ * The card is represented by its BIN and last four digits only; the full card number never leaves
+ * the payments table.
+ * <p>
+ * Adding a field requires a new schema version, and the codecs must keep decoding the older ones.
+ */
+public record PaymentEvent(
+        PaymentEventType type,
+        UUID paymentId,
+        BigDecimal amount,
+        String currency,
+        String bin,
+        String cardLast4,
+        String provider,
+        Payment.Status status,
+        String providerReference,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    /**
+     * Creates an event from the current state of a payment.
+     *
+     * @param type    the event type
+     * @param payment the payment
+     * @return the event
+     */
+    public static PaymentEvent of(PaymentEventType type, Payment payment) {
+        String cardNumber = payment.getCardNumber();
+        String cardLast4 = cardNumber != null && cardNumber.length() >= 4
+                ? cardNumber.substring(cardNumber.length() - 4)
+                : null;
+
+        return new PaymentEvent(type, payment.getId(), payment.getAmount(), payment.getCurrency(),
+                payment.getBin(), cardLast4, payment.getProvider(), payment.getStatus(),
+                payment.getProviderReference(), payment.getCreatedAt(), payment.getUpdatedAt());
+    }
+}
@@ -0,0 +1,19 @@
+package com.katanapay.routing.event;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encoding of the payment event body. The framing (format, schema version, compression) is
+ * handled by {@link PaymentEventSerializer}.
+ */
+interface PaymentEventCodec {
+
+    /**
+     * @return the format ID written to the payload header
+     */
+    byte format();
+
+    void encode(PaymentEvent event, PayloadBuffer buffer);
+
+    PaymentEvent decode(ByteBuffer body, int schemaVersion);
+}
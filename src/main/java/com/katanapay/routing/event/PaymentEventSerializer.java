@@ -0,0 +1,165 @@
+package com.katanapay.routing.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Serializes payment events to outbox payloads.
+ * <p>
+ * A payload starts with a two-byte header: the format ID of the codec, with the high bit set if the
+ * body is compressed, followed by the schema version. A compressed body is prefixed with its inflated
+ * length. Payloads are decoded according to their header, so the write format can be changed at any time.
+ * <p>
+ * Bodies are encoded into per-thread buffers that are reused for every event; the only allocation
+ * per event is the returned payload.
+ */
+@Component
+public class PaymentEventSerializer {
+
+    private static final int COMPRESSED = 0x80;
+    private static final int HEADER_SIZE = 2;
+
+    private final PaymentEventCodec writeCodec;
+    private final PaymentEventCodec binaryCodec;
+    private final PaymentEventCodec jsonCodec;
+    private final int compressionThreshold;
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * @param objectMapper         the mapper used by the JSON format
+     * @param format               the format events are written in, {@code binary} or {@code json}
+     * @param compressionThreshold the body size in bytes above which bodies are compressed; negative disables compression
+     */
+    public PaymentEventSerializer(ObjectMapper objectMapper,
+                                  @Value("${outbox.serialization.format:binary}") String format,
+                                  @Value("${outbox.serialization.compression-threshold:512}") int compressionThreshold) {
+        this.binaryCodec = new BinaryPaymentEventCodec();
+        this.jsonCodec = new JsonPaymentEventCodec(objectMapper);
+        this.writeCodec = switch (format) {
+            case "binary" -> binaryCodec;
+            case "json" -> jsonCodec;
+            default -> throw new IllegalArgumentException("Unknown outbox serialization format: " + format);
+        };
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Serializes an event in the configured format.
+     *
+     * @param event the event
+     * @return the payload
+     */
+    public byte[] serialize(PaymentEvent event) {
+        Buffers threadBuffers = buffers.get();
+        PayloadBuffer body = threadBuffers.body;
+        body.reset();
+        writeCodec.encode(event, body);
+
+        if (compressionThreshold < 0 || body.size() <= compressionThreshold) {
+            byte[] payload = new byte[HEADER_SIZE + body.size()];
+            payload[0] = writeCodec.format();
+            payload[1] = (byte) PaymentEvent.SCHEMA_VERSION;
+            System.arraycopy(body.array(), 0, payload, HEADER_SIZE, body.size());
+            return payload;
+        }
+
+        PayloadBuffer compressed = threadBuffers.compressed;
+        compressed.reset();
+        compressed.write(writeCodec.format() | COMPRESSED);
+        compressed.write(PaymentEvent.SCHEMA_VERSION);
+        compressed.writeInt(body.size());
+
+        Deflater deflater = threadBuffers.deflater();
+        deflater.reset();
+        deflater.setInput(body.array(), 0, body.size());
+        deflater.finish();
+        while (!deflater.finished()) {
+            compressed.ensureCapacity(Math.max(64, body.size() / 2));
+            compressed.advance(deflater.deflate(compressed.array(), compressed.size(),
+                    compressed.array().length - compressed.size()));
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Deserializes a payload written in any supported format and schema version.
+     *
+     * @param payload the payload
+     * @return the event
+     * @throws IllegalArgumentException if the payload format or schema version is not supported
+     */
+    public PaymentEvent deserialize(byte[] payload) {
+        if (payload == null || payload.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Not a payment event payload");
+        }
+
+        int header = Byte.toUnsignedInt(payload[0]);
+        int schemaVersion = Byte.toUnsignedInt(payload[1]);
+        PaymentEventCodec codec = switch ((byte) (header & ~COMPRESSED)) {
+            case BinaryPaymentEventCodec.FORMAT -> binaryCodec;
+            case JsonPaymentEventCodec.FORMAT -> jsonCodec;
+            default -> throw new IllegalArgumentException("Unknown payment event format: " + header);
+        };
+
+        ByteBuffer body = ByteBuffer.wrap(payload, HEADER_SIZE, payload.length - HEADER_SIZE);
+        if ((header & COMPRESSED) != 0) {
+            body = inflate(body);
+        }
+        return codec.decode(body, schemaVersion);
+    }
+
+    private ByteBuffer inflate(ByteBuffer compressedBody) {
+        byte[] inflated = new byte[compressedBody.getInt()];
+        Inflater inflater = buffers.get().inflater();
+        inflater.reset();
+        inflater.setInput(compressedBody);
+        try {
+            int length = 0;
+            while (length < inflated.length && !inflater.finished()) {
+                int inflatedBytes = inflater.inflate(inflated, length, inflated.length - length);
+                if (inflatedBytes == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflatedBytes;
+            }
+            if (length != inflated.length) {
+                throw new IllegalArgumentException("Truncated compressed payment event payload");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed payment event payload", e);
+        }
+        return ByteBuffer.wrap(inflated);
+    }
+
+    /**
+     * Per-thread encoding state. The zlib streams hold native memory, so they are only created on
+     * threads that actually compress or inflate.
+     */
+    private static final class Buffers {
+
+        private final PayloadBuffer body = new PayloadBuffer(256);
+        private final PayloadBuffer compressed = new PayloadBuffer(256);
+        private Deflater deflater;
+        private Inflater inflater;
+
+        private Deflater deflater() {
+            if (deflater == null) {
+                deflater = new Deflater(Deflater.BEST_SPEED);
+            }
+            return deflater;
+        }
+
+        private Inflater inflater() {
+            if (inflater == null) {
+                inflater = new Inflater();
+            }
+            return inflater;
+        }
+    }
+}
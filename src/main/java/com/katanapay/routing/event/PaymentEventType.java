@@ -0,0 +1,9 @@
+package com.katanapay.routing.event;
+
+/**
+ * Types of payment events. The binary encoding stores the ordinal, so constants may only be appended.
+ */
+public enum PaymentEventType {
+    PAYMENT_PROCESSED,
+    PAYMENT_STATUS_CHANGED
+}
@@ -0,0 +1,36 @@
+package com.katanapay.routing.eventlog;
+
+import java.util.List;
+
+/**
+ * Sequential reader of a {@link SegmentedEventLog}.
+ * The position is kept in memory only; a consumer that needs to resume after a restart stores the
+ * offset of the last record it handled and starts a new consumer after it.
+ * Instances are not thread-safe.
+ */
+public class EventLogConsumer {
+
+    private final SegmentedEventLog eventLog;
+    private long position;
+
+    EventLogConsumer(SegmentedEventLog eventLog, long position) {
+        this.eventLog = eventLog;
+        this.position = position;
+    }
+
+    /**
+     * Returns the next committed records and advances past them.
+     *
+     * @param maxRecords the maximum number of records to return
+     * @return the records; empty if the consumer has caught up with the log
+     */
+    public List<LogRecord> poll(int maxRecords) {
+        List<LogRecord> records = eventLog.read(position, maxRecords);
+        position += records.size();
+        return records;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+}
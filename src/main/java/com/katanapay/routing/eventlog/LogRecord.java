@@ -0,0 +1,10 @@
+package com.katanapay.routing.eventlog;
+
+/**
+ * A record read from a {@link SegmentedEventLog}.
+ *
+ * @param offset  the offset of the record in the log
+ * @param payload the record payload
+ */
+public record LogRecord(long offset, byte[] payload) {
+}
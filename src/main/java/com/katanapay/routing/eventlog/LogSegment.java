@@ -0,0 +1,177 @@
+package com.katanapay.routing.eventlog;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * A single memory-mapped segment of a {@link SegmentedEventLog}.
+ * <p>
+ * The log file holds records as {@code [int length][int crc32c][payload]} and ends at the first zero length.
+ * The index file holds one {@code int} file position per record, so the record with a given relative
+ * offset is found with a single index read. Both files are pre-allocated to their full size when created.
+ * <p>
+ * Appends are serialized by the owning log; reads of records below the log's committed offset are safe
+ * from any thread.
+ */
+final class LogSegment {
+
+    static final int RECORD_HEADER_SIZE = 8;
+    private static final int INDEX_ENTRY_SIZE = 4;
+
+    private final long baseOffset;
+    private final int capacity;
+    private final int indexCapacity;
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer logBuffer;
+    private final MappedByteBuffer indexBuffer;
+
+    private int position;
+    private int recordCount;
+    private int forcedPosition;
+    private int forcedRecordCount;
+
+    private LogSegment(Path directory, long baseOffset, int capacity, int indexCapacity) throws IOException {
+        this.baseOffset = baseOffset;
+        this.capacity = capacity;
+        this.indexCapacity = indexCapacity;
+        this.logChannel = FileChannel.open(directory.resolve(fileName(baseOffset, "log")),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(directory.resolve(fileName(baseOffset, "index")),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.logBuffer = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.indexBuffer = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) indexCapacity * INDEX_ENTRY_SIZE);
+    }
+
+    /**
+     * Creates a new, empty segment.
+     */
+    static LogSegment create(Path directory, long baseOffset, int capacity, int indexCapacity) throws IOException {
+        return new LogSegment(directory, baseOffset, capacity, indexCapacity);
+    }
+
+    /**
+     * Opens a sealed segment whose record count is known from the base offset of the following segment.
+     */
+    static LogSegment openSealed(Path directory, long baseOffset, int capacity, int indexCapacity,
+                                 int recordCount) throws IOException {
+        LogSegment segment = new LogSegment(directory, baseOffset, capacity, indexCapacity);
+        segment.recordCount = recordCount;
+        segment.forcedRecordCount = recordCount;
+        return segment;
+    }
+
+    /**
+     * Opens the last segment of a log, rebuilding its index from the records that pass the checksum.
+     * Anything after the first torn or corrupt record is discarded.
+     */
+    static LogSegment recover(Path directory, long baseOffset, int capacity, int indexCapacity) throws IOException {
+        LogSegment segment = new LogSegment(directory, baseOffset, capacity, indexCapacity);
+        segment.rebuildIndex();
+        return segment;
+    }
+
+    static String fileName(long baseOffset, String extension) {
+        return "%020d.%s".formatted(baseOffset, extension);
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    int recordCount() {
+        return recordCount;
+    }
+
+    boolean hasRoomFor(int payloadLength) {
+        return recordCount < indexCapacity && (long) position + RECORD_HEADER_SIZE + payloadLength <= capacity;
+    }
+
+    void append(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        logBuffer.put(position + RECORD_HEADER_SIZE, payload);
+        logBuffer.putInt(position + 4, (int) crc.getValue());
+        logBuffer.putInt(position, payload.length);
+        indexBuffer.putInt(recordCount * INDEX_ENTRY_SIZE, position);
+
+        position += RECORD_HEADER_SIZE + payload.length;
+        recordCount++;
+    }
+
+    byte[] read(int relativeOffset) {
+        int recordPosition = indexBuffer.getInt(relativeOffset * INDEX_ENTRY_SIZE);
+        byte[] payload = new byte[logBuffer.getInt(recordPosition)];
+        logBuffer.get(recordPosition + RECORD_HEADER_SIZE, payload);
+        return payload;
+    }
+
+    int position() {
+        return position;
+    }
+
+    /**
+     * Flushes all appended records to the storage device. Must be called by the appending thread.
+     */
+    void force() {
+        force(position, recordCount);
+    }
+
+    /**
+     * Flushes the records up to the given write position to the storage device, skipping the part
+     * that was already flushed. May be called concurrently with appends.
+     */
+    synchronized void force(int upToPosition, int upToRecordCount) {
+        if (upToPosition > forcedPosition) {
+            logBuffer.force(forcedPosition, upToPosition - forcedPosition);
+            indexBuffer.force(forcedRecordCount * INDEX_ENTRY_SIZE,
+                    (upToRecordCount - forcedRecordCount) * INDEX_ENTRY_SIZE);
+            forcedPosition = upToPosition;
+            forcedRecordCount = upToRecordCount;
+        }
+    }
+
+    void close() throws IOException {
+        logChannel.close();
+        indexChannel.close();
+    }
+
+    private void rebuildIndex() {
+        CRC32C crc = new CRC32C();
+        while (position + RECORD_HEADER_SIZE <= capacity && recordCount < indexCapacity) {
+            int length = logBuffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > capacity) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            logBuffer.get(position + RECORD_HEADER_SIZE, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != logBuffer.getInt(position + 4)) {
+                break;
+            }
+
+            indexBuffer.putInt(recordCount * INDEX_ENTRY_SIZE, position);
+            position += RECORD_HEADER_SIZE + length;
+            recordCount++;
+        }
+
+        // Wipe a torn tail, so it cannot be mistaken for records once new ones are appended in front of it
+        for (int i = position; i < capacity; i++) {
+            if (logBuffer.get(i) != 0) {
+                logBuffer.put(i, (byte) 0);
+            }
+        }
+
+        forcedPosition = position;
+        forcedRecordCount = recordCount;
+        logBuffer.force();
+        indexBuffer.force();
+    }
+}
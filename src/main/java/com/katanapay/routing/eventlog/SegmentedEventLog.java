@@ -0,0 +1,267 @@
+package com.katanapay.routing.eventlog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Durable append-only log stored as a sequence of memory-mapped segment files in one directory.
+ * <p>
+ * Every record gets a sequential offset. Segments are named after the offset of their first record and
+ * a new segment is rolled once the active one is full. Appends return once their records have been
+ * forced to disk; concurrent appenders share a single force (group commit). Only forced records are
+ * visible to readers, so a reader never observes a record that could be lost by a crash.
+ * <p>
+ * On open, the last segment is scanned and truncated after the last record with a valid checksum.
+ * The directory is locked for the lifetime of the log, so only one process appends to it.
+ */
+@Slf4j
+public class SegmentedEventLog implements AutoCloseable {
+
+    private static final String LOG_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int indexCapacity;
+    private final FileChannel lockChannel;
+    private final FileLock directoryLock;
+    private final ConcurrentSkipListMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object commitMonitor = new Object();
+
+    private LogSegment activeSegment;
+    private long nextOffset;
+    private volatile long committedOffset;
+
+    /**
+     * Opens the log in the given directory, creating it if needed.
+     *
+     * @param directory   the directory holding the segment files
+     * @param segmentSize the size of a segment file in bytes
+     * @throws IOException if the directory cannot be opened or is locked by another process
+     */
+    public SegmentedEventLog(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("Segment size must be at least 1024 bytes: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        // Every record takes at least its header plus one byte, so the index never fills up before the log
+        this.indexCapacity = segmentSize / (LogSegment.RECORD_HEADER_SIZE + 1);
+
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.directoryLock = tryLock(lockChannel);
+        if (directoryLock == null) {
+            lockChannel.close();
+            throw new IOException("Event log directory is locked by another writer: " + directory);
+        }
+
+        openSegments();
+        this.committedOffset = nextOffset;
+        log.info("Opened event log in {} with {} segments, next offset {}", directory, segments.size(), nextOffset);
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Already locked by another log in this JVM
+            return null;
+        }
+    }
+
+    private void openSegments() throws IOException {
+        List<Long> baseOffsets;
+        try (Stream<Path> files = Files.list(directory)) {
+            baseOffsets = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(LOG_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - LOG_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+
+        if (baseOffsets.isEmpty()) {
+            activeSegment = LogSegment.create(directory, 0, segmentSize, indexCapacity);
+            segments.put(0L, activeSegment);
+            return;
+        }
+
+        for (int i = 0; i < baseOffsets.size() - 1; i++) {
+            long baseOffset = baseOffsets.get(i);
+            int recordCount = Math.toIntExact(baseOffsets.get(i + 1) - baseOffset);
+            segments.put(baseOffset, LogSegment.openSealed(directory, baseOffset, segmentSize, indexCapacity, recordCount));
+        }
+
+        long lastBaseOffset = baseOffsets.get(baseOffsets.size() - 1);
+        activeSegment = LogSegment.recover(directory, lastBaseOffset, segmentSize, indexCapacity);
+        segments.put(lastBaseOffset, activeSegment);
+        nextOffset = lastBaseOffset + activeSegment.recordCount();
+    }
+
+    /**
+     * Appends a single record.
+     *
+     * @param payload the record payload
+     * @return the offset of the record
+     */
+    public long append(byte[] payload) {
+        return append(List.of(payload));
+    }
+
+    /**
+     * Appends records in order and waits until they are durable.
+     *
+     * @param payloads the record payloads, none of them empty
+     * @return the offset of the first record
+     * @throws UncheckedIOException if a new segment cannot be created
+     */
+    public long append(List<byte[]> payloads) {
+        for (byte[] payload : payloads) {
+            if (payload.length == 0 || LogSegment.RECORD_HEADER_SIZE + payload.length > segmentSize) {
+                throw new IllegalArgumentException("Record size not supported: " + payload.length);
+            }
+        }
+
+        long firstOffset;
+        long endOffset;
+
+        appendLock.lock();
+        try {
+            firstOffset = nextOffset;
+            for (byte[] payload : payloads) {
+                if (!activeSegment.hasRoomFor(payload.length)) {
+                    roll();
+                }
+                activeSegment.append(payload);
+                nextOffset++;
+            }
+            endOffset = nextOffset;
+        } finally {
+            appendLock.unlock();
+        }
+
+        commit(endOffset);
+        return firstOffset;
+    }
+
+    /**
+     * Forces appended records to disk unless a concurrent commit already covered them.
+     * Appenders queue up on the commit monitor while a force is running, and the next force
+     * then covers all of their records at once.
+     */
+    private void commit(long endOffset) {
+        synchronized (commitMonitor) {
+            if (committedOffset >= endOffset) {
+                return;
+            }
+
+            long appendedOffset;
+            LogSegment segment;
+            int position;
+            int recordCount;
+            appendLock.lock();
+            try {
+                appendedOffset = nextOffset;
+                segment = activeSegment;
+                position = segment.position();
+                recordCount = segment.recordCount();
+            } finally {
+                appendLock.unlock();
+            }
+
+            // Segments rolled before were forced when they were sealed
+            segment.force(position, recordCount);
+            committedOffset = appendedOffset;
+        }
+    }
+
+    private void roll() {
+        activeSegment.force();
+        try {
+            activeSegment = LogSegment.create(directory, nextOffset, segmentSize, indexCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create event log segment at offset " + nextOffset, e);
+        }
+        segments.put(nextOffset, activeSegment);
+        log.debug("Rolled event log segment at offset {}", nextOffset);
+    }
+
+    /**
+     * Reads committed records starting at the given offset.
+     *
+     * @param offset     the offset of the first record to read
+     * @param maxRecords the maximum number of records to return
+     * @return the records in offset order; empty if there are no committed records at the offset yet
+     */
+    public List<LogRecord> read(long offset, int maxRecords) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + offset);
+        }
+
+        long endOffset = Math.min(committedOffset, offset + maxRecords);
+        List<LogRecord> records = new ArrayList<>((int) Math.max(0, endOffset - offset));
+        LogSegment segment = null;
+        for (long current = offset; current < endOffset; current++) {
+            if (segment == null || current - segment.baseOffset() >= segment.recordCount()) {
+                Map.Entry<Long, LogSegment> entry = segments.floorEntry(current);
+                segment = entry.getValue();
+            }
+            records.add(new LogRecord(current, segment.read((int) (current - segment.baseOffset()))));
+        }
+        return records;
+    }
+
+    /**
+     * Creates a consumer that reads the log sequentially from the given offset.
+     *
+     * @param offset the offset to start reading at
+     * @return the consumer
+     */
+    public EventLogConsumer consumer(long offset) {
+        return new EventLogConsumer(this, offset);
+    }
+
+    /**
+     * Returns the offset after the last durable record, which is the upper bound for readers.
+     *
+     * @return the committed offset
+     */
+    public long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            activeSegment.force();
+            for (LogSegment segment : segments.values()) {
+                segment.close();
+            }
+            segments.clear();
+        } finally {
+            appendLock.unlock();
+        }
+        directoryLock.release();
+        lockChannel.close();
+    }
+}
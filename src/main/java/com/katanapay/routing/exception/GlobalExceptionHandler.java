@@ -1,5 +1,10 @@
 package com.katanapay.routing.exception;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.katanapay.routing.limiter.ConcurrencyLimitFilter;
+import com.katanapay.routing.logging.LogRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,17 +18,38 @@ import java.util.Map;
 
 @Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final LogRateLimiter providerErrorLogRateLimiter;
+
+    /**
+     * Answers with 503. During a provider outage every payment fails the same way, so the errors are logged
+     * a few times per interval for each error code and provider, each with the number of errors left out
+     * since the previous one. Expected errors are logged without a stack trace. The error is marked as a
+     * provider failure, so it does not back off the concurrency limit of this instance.
+     */
     @ExceptionHandler(ProviderException.class)
-    public ResponseEntity<ErrorResponse> handleProviderException(ProviderException ex) {
-        log.error("Provider exception: {}", ex.getMessage(), ex);
+    public ResponseEntity<ErrorResponse> handleProviderException(ProviderException ex, HttpServletRequest request) {
+        ConcurrencyLimitFilter.markProviderFailure(request);
+
+        long suppressed = providerErrorLogRateLimiter.acquire(new ProviderErrorKey(ex.getCode(), ex.getProvider()));
+        if (suppressed >= 0) {
+            if (ex.isExpected()) {
+                log.warn("Provider error {} from {}: {} ({} similar errors suppressed)",
+                        ex.getCode(), ex.getProvider(), ex.getMessage(), suppressed);
+            } else {
+                log.error("Provider exception from {}: {} ({} similar errors suppressed)",
+                        ex.getProvider(), ex.getMessage(), suppressed, ex);
+            }
+        }
 
         ErrorResponse errorResponse = new ErrorResponse(
                 LocalDateTime.now(),
                 HttpStatus.SERVICE_UNAVAILABLE.value(),
                 "Provider Error",
-                ex.getMessage()
+                ex.getMessage(),
+                ex.getCode().name()
         );
 
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
@@ -77,10 +103,20 @@ public class GlobalExceptionHandler {
     }
 
     // Inner class for structured error responses
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public record ErrorResponse(
             LocalDateTime timestamp,
             int status,
             String error,
-            String message
-    ) {}
+            String message,
+            String code
+    ) {
+
+        public ErrorResponse(LocalDateTime timestamp, int status, String error, String message) {
+            this(timestamp, status, error, message, null);
+        }
+    }
+
+    private record ProviderErrorKey(ProviderErrorCode code, String provider) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.katanapay.routing.exception;
+
+/**
+ * Why a call to a payment provider failed.
+ */
+public enum ProviderErrorCode {
+
+    SERVER_ERROR("Provider returned a server error"),
+    CONNECTION_ERROR("Provider could not be reached"),
+    INVALID_RESPONSE("Provider returned an unsuccessful response"),
+    UNEXPECTED_ERROR("Unexpected provider error");
+
+    private final String description;
+
+    ProviderErrorCode(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -2,14 +2,93 @@ package com.katanapay.routing.exception;
 
 /**
  * Exception thrown when there is an issue with a payment provider.
+ * <p>
+ * Expected failures, such as a provider that is down, are created with {@link #of(ProviderErrorCode, int, Throwable)}:
+ * they carry an error code instead of a message and skip capturing the stack trace, which would otherwise dominate
+ * the cost of failing a payment during a provider outage. Their message is only built when it is read.
  */
 public class ProviderException extends RuntimeException {
 
+    private final ProviderErrorCode code;
+    private final int statusCode;
+    private final boolean expected;
+    private String provider;
+
     public ProviderException(String message) {
-        super(message);
+        this(message, null);
     }
 
     public ProviderException(String message, Throwable cause) {
         super(message, cause);
+        this.code = ProviderErrorCode.UNEXPECTED_ERROR;
+        this.statusCode = 0;
+        this.expected = false;
+    }
+
+    protected ProviderException(ProviderErrorCode code, int statusCode, Throwable cause) {
+        super(null, cause, false, false);
+        this.code = code;
+        this.statusCode = statusCode;
+        this.expected = true;
+    }
+
+    /**
+     * Creates an exception for an expected failure, without a stack trace.
+     *
+     * @param code       why the call failed
+     * @param statusCode the HTTP status of the provider response, or 0 without a response
+     * @param cause      the underlying error, or null
+     * @return the exception
+     */
+    public static ProviderException of(ProviderErrorCode code, int statusCode, Throwable cause) {
+        return new ProviderException(code, statusCode, cause);
+    }
+
+    /**
+     * Records the provider that failed, unless it is already known.
+     *
+     * @param provider the name of the provider
+     * @return this exception
+     */
+    public ProviderException withProvider(String provider) {
+        if (this.provider == null) {
+            this.provider = provider;
+        }
+        return this;
+    }
+
+    public ProviderErrorCode getCode() {
+        return code;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    /**
+     * Returns whether this is an expected failure created without a stack trace.
+     */
+    public boolean isExpected() {
+        return expected;
+    }
+
+    @Override
+    public String getMessage() {
+        if (!expected) {
+            return super.getMessage();
+        }
+
+        StringBuilder builder = new StringBuilder(code.getDescription());
+        if (provider != null) {
+            builder.append(" (").append(provider).append(')');
+        }
+        if (statusCode > 0) {
+            builder.append(": HTTP ").append(statusCode);
+        }
+        return builder.toString();
     }
-}
\ No newline at end of file
+}
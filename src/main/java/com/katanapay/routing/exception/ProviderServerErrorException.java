@@ -0,0 +1,11 @@
+package com.katanapay.routing.exception;
+
+/**
+ * A provider answered with a 5xx status. Provider calls are retried on this exception.
+ */
+public class ProviderServerErrorException extends ProviderException {
+
+    public ProviderServerErrorException(int statusCode) {
+        super(ProviderErrorCode.SERVER_ERROR, statusCode, null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.katanapay.routing.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes a fixed set of DTO classes as JSON with an {@link ObjectReader} and {@link ObjectWriter} built
+ * once per class.
+ * <p>
+ * The generic Jackson converter resolves the Java type, the serialization view and the encoding and creates a
+ * reader or writer for every message. Here the root (de)serializers are resolved up front, and messages are
+ * streamed straight from and into the body, through the buffers Jackson recycles. Like the generic converter it
+ * writes UTF-8 without a charset parameter and detects the UTF encoding of what it reads. Registered in front of
+ * the generic converter; every other type falls through to it.
+ */
+public class CachedJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final Map<Class<?>, ObjectReader> readers = new HashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+
+    /**
+     * @param objectMapper the mapper to build the readers and writers from
+     * @param classes      the classes to read and write
+     */
+    public CachedJsonHttpMessageConverter(ObjectMapper objectMapper, Class<?>... classes) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        for (Class<?> clazz : classes) {
+            readers.put(clazz, objectMapper.readerFor(clazz));
+            writers.put(clazz, objectMapper.writerFor(clazz));
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return readers.containsKey(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return readers.get(clazz).readValue(inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        try {
+            writers.get(value.getClass()).writeValue(outputMessage.getBody(), value);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+}
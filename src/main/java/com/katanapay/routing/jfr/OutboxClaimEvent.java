@@ -0,0 +1,44 @@
+package com.katanapay.routing.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Claiming of a batch of outbox events and handing it to the dispatcher, including the time spent waiting for
+ * space in the dispatcher queues.
+ */
+@Name("com.katanapay.routing.OutboxClaim")
+@Label("Outbox Claim")
+@Category({"KatanaPay", "Outbox"})
+@Description("Claiming and dispatching of a batch of outbox events")
+@StackTrace(false)
+public class OutboxClaimEvent extends jdk.jfr.Event {
+
+    @Label("Limit")
+    int limit;
+
+    @Label("Claimed")
+    int claimedCount;
+
+    @Label("Shards")
+    int shardCount;
+
+    public static OutboxClaimEvent start() {
+        OutboxClaimEvent event = new OutboxClaimEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(int limit, int claimedCount, int shardCount) {
+        end();
+        if (shouldCommit()) {
+            this.limit = limit;
+            this.claimedCount = claimedCount;
+            this.shardCount = shardCount;
+            commit();
+        }
+    }
+}
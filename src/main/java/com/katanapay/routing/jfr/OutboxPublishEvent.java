@@ -0,0 +1,45 @@
+package com.katanapay.routing.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Publishing of a chunk of outbox events by a dispatcher worker, including marking them as processed.
+ */
+@Name("com.katanapay.routing.OutboxPublish")
+@Label("Outbox Publish")
+@Category({"KatanaPay", "Outbox"})
+@Description("Publishing of a chunk of outbox events")
+@StackTrace(false)
+public class OutboxPublishEvent extends jdk.jfr.Event {
+
+    @Label("Events")
+    int eventCount;
+
+    @Label("Completed")
+    @Description("Events marked as processed, the published ones and the ones of unknown types")
+    int completedCount;
+
+    @Label("Published One by One")
+    @Description("The batch was rejected and its events were published individually")
+    boolean publishedIndividually;
+
+    public static OutboxPublishEvent start() {
+        OutboxPublishEvent event = new OutboxPublishEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(int eventCount, int completedCount, boolean publishedIndividually) {
+        end();
+        if (shouldCommit()) {
+            this.eventCount = eventCount;
+            this.completedCount = completedCount;
+            this.publishedIndividually = publishedIndividually;
+            commit();
+        }
+    }
+}
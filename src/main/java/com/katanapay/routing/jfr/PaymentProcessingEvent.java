@@ -0,0 +1,50 @@
+package com.katanapay.routing.jfr;
+
+import com.katanapay.routing.model.entity.Payment;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Processing of one payment, from routing to writing its outbox event. Slow payments are found by the duration
+ * of this event and broken down by the {@link PaymentStageEvent}s with the same payment ID.
+ */
+@Name("com.katanapay.routing.PaymentProcessing")
+@Label("Payment Processing")
+@Category({"KatanaPay", "Payments"})
+@Description("Processing of a payment")
+@StackTrace(false)
+public class PaymentProcessingEvent extends jdk.jfr.Event {
+
+    @Label("Payment ID")
+    String paymentId;
+
+    @Label("Provider")
+    String provider;
+
+    @Label("Status")
+    String status;
+
+    public static PaymentProcessingEvent start() {
+        PaymentProcessingEvent event = new PaymentProcessingEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if it lasted longer than the configured threshold.
+     *
+     * @param payment the processed payment
+     */
+    public void complete(Payment payment) {
+        end();
+        if (shouldCommit()) {
+            this.paymentId = String.valueOf(payment.getId());
+            this.provider = payment.getProvider();
+            this.status = payment.getStatus() == null ? null : payment.getStatus().name();
+            commit();
+        }
+    }
+}
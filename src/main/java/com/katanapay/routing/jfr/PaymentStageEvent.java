@@ -0,0 +1,55 @@
+package com.katanapay.routing.jfr;
+
+import com.katanapay.routing.metrics.PaymentMetrics;
+import com.katanapay.routing.model.entity.Payment;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A stage of processing a payment, such as routing or the provider call. The stages of one payment share its
+ * ID with its {@link PaymentProcessingEvent}.
+ * <p>
+ * Created and committed on every payment; while the event is disabled, {@link #start()} and
+ * {@link #complete(PaymentMetrics.Stage, Payment)} do nothing and the JIT compiler removes the allocation.
+ */
+@Name("com.katanapay.routing.PaymentStage")
+@Label("Payment Stage")
+@Category({"KatanaPay", "Payments"})
+@Description("A stage of processing a payment")
+@StackTrace(false)
+public class PaymentStageEvent extends jdk.jfr.Event {
+
+    @Label("Payment ID")
+    String paymentId;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Provider")
+    String provider;
+
+    public static PaymentStageEvent start() {
+        PaymentStageEvent event = new PaymentStageEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the stage and commits the event if it lasted longer than the configured threshold.
+     *
+     * @param stage   the stage that ended
+     * @param payment the payment being processed
+     */
+    public void complete(PaymentMetrics.Stage stage, Payment payment) {
+        end();
+        if (shouldCommit()) {
+            this.paymentId = String.valueOf(payment.getId());
+            this.stage = stage.name();
+            this.provider = payment.getProvider();
+            commit();
+        }
+    }
+}
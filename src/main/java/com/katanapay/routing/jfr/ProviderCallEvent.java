@@ -0,0 +1,58 @@
+package com.katanapay.routing.jfr;
+
+import com.katanapay.routing.metrics.ProviderMetrics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * One HTTP call to a payment provider. A retried payment has one event per attempt.
+ */
+@Name("com.katanapay.routing.ProviderCall")
+@Label("Provider Call")
+@Category({"KatanaPay", "Providers"})
+@Description("An HTTP call to a payment provider")
+@StackTrace(false)
+public class ProviderCallEvent extends jdk.jfr.Event {
+
+    @Label("Payment ID")
+    String paymentId;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("HTTP Status")
+    int statusCode;
+
+    public static ProviderCallEvent start() {
+        ProviderCallEvent event = new ProviderCallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the call and commits the event if it lasted longer than the configured threshold.
+     *
+     * @param paymentId  the ID of the payment
+     * @param endpoint   the called endpoint
+     * @param outcome    how the call ended
+     * @param statusCode the HTTP status of the response, or 0 without a response
+     */
+    public void complete(UUID paymentId, String endpoint, ProviderMetrics.Outcome outcome, int statusCode) {
+        end();
+        if (shouldCommit()) {
+            this.paymentId = String.valueOf(paymentId);
+            this.endpoint = endpoint;
+            this.outcome = outcome.name();
+            this.statusCode = statusCode;
+            commit();
+        }
+    }
+}
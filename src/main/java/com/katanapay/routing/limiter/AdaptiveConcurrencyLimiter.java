@@ -0,0 +1,136 @@
+package com.katanapay.routing.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-based adaptive concurrency limiter.
+ * Tracks a short and a long exponential average of the observed latency and shrinks the
+ * allowed concurrency when the short-term latency grows above the long-term baseline,
+ * growing it by a square-root queue allowance while latency stays flat.
+ * Dropped requests (server errors, timeouts) cut the limit multiplicatively (AIMD).
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_RTT_ALPHA = 0.2;
+    private static final int LONG_RTT_WINDOW = 600;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // guarded by this
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": initial=" + initialLimit
+                    + ", min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Tries to reserve a concurrency slot.
+     * Every successful call must be paired with one of {@link #onSuccess(long)},
+     * {@link #onDropped()} or {@link #onIgnored()}.
+     *
+     * @return true if the request may proceed, false if it must be rejected
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot and feeds the observed latency into the limit estimation.
+     *
+     * @param rttNanos latency of the completed request in nanoseconds
+     */
+    public void onSuccess(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        updateLimit(rttNanos, inFlightAtCompletion);
+    }
+
+    /**
+     * Releases a slot of a request that failed because of overload and backs the limit off.
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * DROP_BACKOFF_RATIO);
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    /**
+     * Releases a slot without affecting the limit, e.g. for client errors.
+     */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void updateLimit(long rttNanos, int inFlightAtCompletion) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_ALPHA;
+            longRttNanos += (rttNanos - longRttNanos) / LONG_RTT_WINDOW;
+        }
+
+        // Let the baseline recover faster once a latency spike is over
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+        // Do not grow the limit while the traffic does not even use half of it
+        if (newLimit > estimatedLimit && inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,103 @@
+package com.katanapay.routing.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katanapay.routing.exception.GlobalExceptionHandler.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Sheds load at the API edge before a request reaches the controller.
+ * Payment submissions and status queries are guarded by separate limiters,
+ * so heavy status polling cannot starve new payments and vice versa.
+ * <p>
+ * A server error backs the limit off only when this instance caused it. Errors passed through from a payment
+ * provider, marked with {@link #markProviderFailure}, leave the limit alone like client errors, so a provider
+ * outage does not shrink the limit of the instance.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String PROVIDER_FAILURE_ATTRIBUTE = ConcurrencyLimitFilter.class.getName() + ".PROVIDER_FAILURE";
+
+    private final AdaptiveConcurrencyLimiter submissionLimiter;
+    private final AdaptiveConcurrencyLimiter queryLimiter;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = selectLimiter(request.getMethod());
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            reject(response, limiter);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            int status = response.getStatus();
+            if (!completed || status >= HttpStatus.INTERNAL_SERVER_ERROR.value()
+                    && request.getAttribute(PROVIDER_FAILURE_ATTRIBUTE) == null) {
+                limiter.onDropped();
+            } else if (status >= HttpStatus.BAD_REQUEST.value()) {
+                limiter.onIgnored();
+            } else {
+                limiter.onSuccess(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * Marks the response of a request as the error of a payment provider rather than of this instance.
+     *
+     * @param request the request that failed
+     */
+    public static void markProviderFailure(HttpServletRequest request) {
+        request.setAttribute(PROVIDER_FAILURE_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    private AdaptiveConcurrencyLimiter selectLimiter(String method) {
+        return switch (method) {
+            case "POST" -> submissionLimiter;
+            case "GET" -> queryLimiter;
+            default -> null;
+        };
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter) throws IOException {
+        log.debug("Rejecting request, concurrency limit {} reached for {}", limiter.getLimit(), limiter.getName());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Overloaded",
+                "Too many concurrent requests, retry later"
+        );
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,75 @@
+package com.katanapay.routing.logging;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often a kind of message is logged, so a flood of identical errors cannot turn logging into the
+ * bottleneck. Every key may log a fixed number of messages per interval; the rest are counted and the count is
+ * handed to the next message that may be logged, to be reported as a summary:
+ * <pre>{@code
+ * long suppressed = limiter.acquire(errorCode);
+ * if (suppressed >= 0) {
+ *     log.warn("Provider error {} ({} similar errors suppressed)", errorCode, suppressed);
+ * }
+ * }</pre>
+ * Keys are kept forever, so they must come from a small, fixed set such as error codes.
+ */
+public class LogRateLimiter {
+
+    private final long intervalNanos;
+    private final int maxPerInterval;
+    private final Map<Object, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * @param interval       the length of an interval
+     * @param maxPerInterval how many messages of a key may be logged per interval
+     */
+    public LogRateLimiter(Duration interval, int maxPerInterval) {
+        if (interval.isNegative() || interval.isZero() || maxPerInterval < 1) {
+            throw new IllegalArgumentException("Invalid log rate limit: " + maxPerInterval + " per " + interval);
+        }
+        this.intervalNanos = interval.toNanos();
+        this.maxPerInterval = maxPerInterval;
+    }
+
+    /**
+     * Asks to log a message.
+     *
+     * @param key the kind of message
+     * @return -1 if the message must be dropped, otherwise the number of messages of the key dropped since the
+     * last one that was logged
+     */
+    public long acquire(Object key) {
+        Window window = windows.get(key);
+        if (window == null) {
+            window = windows.computeIfAbsent(key, k -> new Window(System.nanoTime()));
+        }
+
+        long now = System.nanoTime();
+        long start = window.start.get();
+        if (now - start >= intervalNanos && window.start.compareAndSet(start, now)) {
+            window.logged.set(0);
+        }
+
+        if (window.logged.incrementAndGet() <= maxPerInterval) {
+            return window.suppressed.getAndSet(0);
+        }
+        window.suppressed.incrementAndGet();
+        return -1;
+    }
+
+    private static final class Window {
+
+        private final AtomicLong start;
+        private final AtomicInteger logged = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private Window(long start) {
+            this.start = new AtomicLong(start);
+        }
+    }
+}
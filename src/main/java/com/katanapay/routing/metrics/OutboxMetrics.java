@@ -0,0 +1,104 @@
+package com.katanapay.routing.metrics;
+
+import com.katanapay.routing.outbox.OutboxBacklog;
+import com.katanapay.routing.outbox.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox throughput, publish lag and backlog.
+ * <p>
+ * The backlog is counted in the database at a fixed interval and the gauges report the last count, so scraping
+ * the metrics never runs a query.
+ */
+@Slf4j
+@Component
+public class OutboxMetrics {
+
+    private final OutboxService outboxService;
+    private final Counter published;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Timer publishLag;
+    private final AtomicLong backlogSize = new AtomicLong();
+    private final AtomicLong backlogOldestCreatedAtMillis = new AtomicLong();
+
+    public OutboxMetrics(MeterRegistry meterRegistry, OutboxService outboxService) {
+        this.outboxService = outboxService;
+        this.published = eventCounter(meterRegistry, "published");
+        this.retried = eventCounter(meterRegistry, "retried");
+        this.deadLettered = eventCounter(meterRegistry, "dead_lettered");
+        this.publishLag = Timer.builder("outbox.publish.lag")
+                .description("Time from writing an outbox event to publishing it")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry);
+        Gauge.builder("outbox.backlog.size", backlogSize, AtomicLong::get)
+                .description("Unprocessed outbox events, including the ones waiting for a retry")
+                .register(meterRegistry);
+        Gauge.builder("outbox.backlog.age", this, OutboxMetrics::backlogAgeSeconds)
+                .description("Age of the oldest unprocessed outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records an event that was published.
+     *
+     * @param createdAt the time the event was written
+     * @param now       the time it was published
+     */
+    public void recordPublished(LocalDateTime createdAt, LocalDateTime now) {
+        published.increment();
+        if (createdAt != null) {
+            publishLag.record(Math.max(0, ChronoUnit.NANOS.between(createdAt, now)), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordRetried() {
+        retried.increment();
+    }
+
+    public void recordDeadLettered() {
+        deadLettered.increment();
+    }
+
+    /**
+     * Counts the backlog at the interval defined in application properties.
+     */
+    @Scheduled(fixedDelayString = "${outbox.metrics.backlog-refresh-interval:15000}")
+    public void refreshBacklog() {
+        try {
+            OutboxBacklog backlog = outboxService.getBacklog();
+            backlogSize.set(backlog.size());
+            backlogOldestCreatedAtMillis.set(backlog.oldestCreatedAt() == null ? 0
+                    : backlog.oldestCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        } catch (Exception e) {
+            log.warn("Failed to count the outbox backlog", e);
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("outbox.events")
+                .description("Outbox events by what happened to them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private double backlogAgeSeconds() {
+        long oldestCreatedAtMillis = backlogOldestCreatedAtMillis.get();
+        return oldestCreatedAtMillis == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldestCreatedAtMillis) / 1000.0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.katanapay.routing.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms and outcome counts of the calls to the payment providers, one timer per provider and
+ * outcome. Every attempt is recorded, so retried calls show up once per attempt.
+ * <p>
+ * The timers are registered up front for the configured endpoints, so recording a call only looks up an
+ * array and builds no tags.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderMetrics {
+
+    public enum Outcome {
+        SUCCESS,
+        CLIENT_ERROR,
+        SERVER_ERROR,
+        CONNECTION_ERROR,
+        ERROR
+    }
+
+    private static final String UNKNOWN_PROVIDER = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${provider.endpoints.provider-a}")
+    private String providerAEndpoint;
+
+    @Value("${provider.endpoints.provider-b}")
+    private String providerBEndpoint;
+
+    private Map<String, Timer[]> timersByEndpoint;
+    private Timer[] unknownProviderTimers;
+
+    @PostConstruct
+    void registerMeters() {
+        timersByEndpoint = new HashMap<>();
+        timersByEndpoint.put(providerAEndpoint, registerTimers("PROVIDER_A"));
+        timersByEndpoint.putIfAbsent(providerBEndpoint, registerTimers("PROVIDER_B"));
+        unknownProviderTimers = registerTimers(UNKNOWN_PROVIDER);
+    }
+
+    /**
+     * Records a provider call.
+     *
+     * @param endpoint      the endpoint that was called
+     * @param outcome       how the call ended
+     * @param durationNanos how long the call took
+     */
+    public void record(String endpoint, Outcome outcome, long durationNanos) {
+        Timer[] timers = timersByEndpoint.getOrDefault(endpoint, unknownProviderTimers);
+        timers[outcome.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] registerTimers(String provider) {
+        Outcome[] outcomes = Outcome.values();
+        Timer[] timers = new Timer[outcomes.length];
+        for (Outcome outcome : outcomes) {
+            timers[outcome.ordinal()] = Timer.builder("payments.provider.requests")
+                    .description("Calls to the payment providers")
+                    .tag("provider", provider)
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+        return timers;
+    }
+}
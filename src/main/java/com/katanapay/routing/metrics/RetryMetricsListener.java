@@ -0,0 +1,86 @@
+package com.katanapay.routing.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.policy.CircuitBreakerRetryPolicy;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the events of the {@code @Retryable} and {@code @CircuitBreaker} methods: failed attempts, calls that
+ * gave up after their last attempt and calls short-circuited by an open circuit. Every {@link RetryListener}
+ * bean is applied to all of these methods.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetryMetricsListener implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter[]> countersByName = new ConcurrentHashMap<>();
+
+    private enum Event {
+        FAILED_ATTEMPT,
+        EXHAUSTED,
+        CIRCUIT_OPEN
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        increment(context, Event.FAILED_ATTEMPT);
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        if (Boolean.TRUE.equals(context.getAttribute(CircuitBreakerRetryPolicy.CIRCUIT_OPEN))) {
+            increment(context, Event.CIRCUIT_OPEN);
+        } else if (throwable != null) {
+            increment(context, Event.EXHAUSTED);
+        }
+    }
+
+    private void increment(RetryContext context, Event event) {
+        Object name = context.getAttribute(RetryContext.NAME);
+        String label = name == null ? "unknown" : name.toString();
+        Counter[] counters = countersByName.get(label);
+        if (counters == null) {
+            counters = countersByName.computeIfAbsent(label, this::registerCounters);
+        }
+        counters[event.ordinal()].increment();
+    }
+
+    private Counter[] registerCounters(String label) {
+        String method = methodName(label);
+        Event[] events = Event.values();
+        Counter[] counters = new Counter[events.length];
+        for (Event event : events) {
+            counters[event.ordinal()] = Counter.builder("payments.retry.events")
+                    .description("Failed attempts, exhausted retries and open-circuit rejections")
+                    .tag("method", method)
+                    .tag("event", event.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        return counters;
+    }
+
+    /**
+     * Shortens a retry label such as {@code public ProviderPaymentResponse com.katanapay...MainProviderClient
+     * .sendPaymentRequest(java.lang.String,...)} to {@code MainProviderClient.sendPaymentRequest}.
+     */
+    private static String methodName(String label) {
+        int parameters = label.indexOf('(');
+        String qualifiedName = parameters < 0 ? label : label.substring(0, parameters);
+        qualifiedName = qualifiedName.substring(qualifiedName.lastIndexOf(' ') + 1);
+        int method = qualifiedName.lastIndexOf('.');
+        return method < 0 ? qualifiedName : qualifiedName.substring(qualifiedName.lastIndexOf('.', method - 1) + 1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.katanapay.routing.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Counts the routing decisions by the rule that made them.
+ */
+@Component
+public class RoutingMetrics {
+
+    public enum Rule {
+        VISA_BIN("PROVIDER_A"),
+        MASTERCARD_BIN("PROVIDER_B"),
+        HIGH_AMOUNT_USD("PROVIDER_B"),
+        HIGH_AMOUNT_NON_USD("PROVIDER_A"),
+        DEFAULT("PROVIDER_A");
+
+        private final String provider;
+
+        Rule(String provider) {
+            this.provider = provider;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+    }
+
+    private final Counter[] decisions;
+
+    public RoutingMetrics(MeterRegistry meterRegistry) {
+        Rule[] rules = Rule.values();
+        decisions = new Counter[rules.length];
+        for (Rule rule : rules) {
+            decisions[rule.ordinal()] = Counter.builder("payments.routing.decisions")
+                    .description("Payments routed, by the rule that chose the provider")
+                    .tag("rule", rule.name().toLowerCase(Locale.ROOT))
+                    .tag("provider", rule.getProvider())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Counts a decision.
+     *
+     * @param rule the rule that chose the provider
+     * @return the provider chosen by the rule
+     */
+    public String record(Rule rule) {
+        decisions[rule.ordinal()].increment();
+        return rule.getProvider();
+    }
+}
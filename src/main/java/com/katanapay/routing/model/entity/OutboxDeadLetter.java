@@ -0,0 +1,77 @@
+package com.katanapay.routing.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox event that ran out of publish attempts. Keeps the ID of the original event,
+ * so a replayed event is the same event for consumers.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_dead_letters")
+public class OutboxDeadLetter implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    private String aggregateType;
+
+    private String aggregateId;
+
+    private String eventType;
+
+    @Column(name = "payload_data")
+    private byte[] payload;
+
+    private int attemptCount;
+
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime failedAt;
+
+    /**
+     * New until persisted or loaded, like {@link OutboxEvent}, whose ID it keeps.
+     */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        isNew = false;
+    }
+}
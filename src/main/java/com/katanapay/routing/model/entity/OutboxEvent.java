@@ -1,13 +1,22 @@
 package com.katanapay.routing.model.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -18,7 +27,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "outbox_events")
-public class OutboxEvent {
+public class OutboxEvent implements Persistable<UUID> {
 
     @Id
     private UUID id;
@@ -27,10 +36,19 @@ public class OutboxEvent {
 
     private String aggregateId;
 
+    /**
+     * Shard of the aggregate, see {@link com.katanapay.routing.outbox.OutboxShardCoordinator#shardOf}.
+     */
+    private int shard;
+
     private String eventType;
 
-    @Lob
-    private String payload;
+    /**
+     * Serialized event, see {@link com.katanapay.routing.event.PaymentEventSerializer}.
+     * The legacy text {@code payload} column is no longer written.
+     */
+    @Column(name = "payload_data")
+    private byte[] payload;
 
     private int attemptCount;
 
@@ -40,7 +58,32 @@ public class OutboxEvent {
 
     private LocalDateTime lockExpiry;
 
+    private LocalDateTime nextAttemptAt;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    /**
+     * Events are created with their ID, so Spring Data cannot tell a new event from a stored one by its ID and
+     * would merge it, reading the row before inserting it. An event is new until it is persisted or loaded.
+     */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        isNew = false;
+    }
 }
\ No newline at end of file
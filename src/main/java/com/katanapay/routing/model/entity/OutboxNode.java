@@ -0,0 +1,28 @@
+package com.katanapay.routing.model.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Heartbeat of a node processing the outbox. Nodes with a recent heartbeat share the outbox shards.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_nodes")
+public class OutboxNode {
+
+    @Id
+    private String nodeId;
+
+    private LocalDateTime heartbeatAt;
+}
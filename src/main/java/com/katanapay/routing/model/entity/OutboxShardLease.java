@@ -0,0 +1,33 @@
+package com.katanapay.routing.model.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-bound lease of one outbox shard. Only the owner claims events of the shard while the lease is valid;
+ * a shard without an owner or with an expired lease can be taken by any node.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_shard_leases")
+public class OutboxShardLease {
+
+    @Id
+    private Integer shard;
+
+    private String owner;
+
+    private LocalDateTime leaseExpiry;
+
+    private LocalDateTime updatedAt;
+}
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,7 +27,9 @@ public class Payment {
     private UUID id;
     private BigDecimal amount;
     private String currency;
+    @ToString.Exclude
     private String cardNumber;
+    private String maskedCardNumber;
     private String bin;
     private String provider;
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,15 @@
+package com.katanapay.routing.model.mapper;
+
+import com.katanapay.routing.dto.DeadLetterResponse;
+import com.katanapay.routing.model.entity.OutboxDeadLetter;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface OutboxDeadLetterMapper {
+
+    DeadLetterResponse toResponse(OutboxDeadLetter deadLetter);
+
+    List<DeadLetterResponse> toResponses(List<OutboxDeadLetter> deadLetters);
+}
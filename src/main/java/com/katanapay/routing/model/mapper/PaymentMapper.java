@@ -4,6 +4,7 @@ import com.katanapay.routing.dto.PaymentRequest;
 import com.katanapay.routing.dto.PaymentResponse;
 import com.katanapay.routing.dto.ProviderPaymentRequest;
 import com.katanapay.routing.model.entity.Payment;
+import com.katanapay.routing.validation.CardNumbers;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -17,9 +18,9 @@ public interface PaymentMapper {
     @Mapping(target = "providerReference", ignore = true)
     @Mapping(target = "createdAt", expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "updatedAt", expression = "java(java.time.LocalDateTime.now())")
+    @Mapping(source = "cardNumber", target = "maskedCardNumber", qualifiedByName = "maskCardNumber")
     Payment toEntity(PaymentRequest request);
 
-    @Mapping(source = "cardNumber", target = "maskedCardNumber", qualifiedByName = "maskCardNumber")
     PaymentResponse toResponse(Payment payment);
 
     @Mapping(source = "id", target = "paymentId")
@@ -27,9 +28,6 @@ public interface PaymentMapper {
 
     @Named("maskCardNumber")
     default String maskCardNumber(String cardNumber) {
-        if (cardNumber == null || cardNumber.length() < 16) {
-            return cardNumber;
-        }
-        return "*".repeat(12) + cardNumber.substring(12);
+        return CardNumbers.mask(cardNumber);
     }
 }
\ No newline at end of file
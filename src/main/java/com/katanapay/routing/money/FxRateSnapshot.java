@@ -0,0 +1,108 @@
+package com.katanapay.routing.money;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable set of exchange rates into one base currency.
+ * <p>
+ * Rates are kept as base-currency minor units per minor unit of each currency, in an array indexed by
+ * {@link IsoCurrencies#indexOf}, so converting an amount is one array lookup and one multiplication.
+ * The rates are only precise enough for threshold decisions, not for settling amounts.
+ */
+public final class FxRateSnapshot {
+
+    private final String baseCurrency;
+    private final double baseMinorUnitsPerMajorUnit;
+    private final double[] baseMinorUnitsPerMinorUnit;
+    private final int rateCount;
+    private final Instant loadedAt;
+
+    private FxRateSnapshot(String baseCurrency, double[] baseMinorUnitsPerMinorUnit, int rateCount, Instant loadedAt) {
+        this.baseCurrency = baseCurrency;
+        this.baseMinorUnitsPerMajorUnit = Math.pow(10, IsoCurrencies.exponentOf(baseCurrency));
+        this.baseMinorUnitsPerMinorUnit = baseMinorUnitsPerMinorUnit;
+        this.rateCount = rateCount;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Creates a snapshot from rates given in major units.
+     *
+     * @param baseCurrency the ISO 4217 code of the base currency
+     * @param ratesToBase  the value of one major unit of each currency in major units of the base currency
+     * @param loadedAt     the time the rates were loaded
+     * @return the snapshot
+     * @throws IllegalArgumentException if a currency is unknown or a rate is not positive
+     */
+    public static FxRateSnapshot of(String baseCurrency, Map<String, BigDecimal> ratesToBase, Instant loadedAt) {
+        if (IsoCurrencies.indexOf(baseCurrency) < 0) {
+            throw new IllegalArgumentException("Unknown base currency: " + baseCurrency);
+        }
+
+        double[] rates = new double[IsoCurrencies.count()];
+        Arrays.fill(rates, Double.NaN);
+        int baseExponent = IsoCurrencies.exponentOf(baseCurrency);
+        rates[IsoCurrencies.indexOf(baseCurrency)] = 1.0;
+
+        ratesToBase.forEach((currency, rate) -> {
+            int index = IsoCurrencies.indexOf(currency);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown currency: " + currency);
+            }
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("Rate of " + currency + " must be positive: " + rate);
+            }
+            rates[index] = rate.movePointRight(baseExponent - IsoCurrencies.exponentOf(currency)).doubleValue();
+        });
+
+        int rateCount = (int) Arrays.stream(rates).filter(rate -> !Double.isNaN(rate)).count();
+        return new FxRateSnapshot(baseCurrency, rates, rateCount, loadedAt);
+    }
+
+    /**
+     * Converts an amount into minor units of the base currency.
+     *
+     * @param money the amount
+     * @return the converted amount, or {@code NaN} if there is no rate for its currency
+     */
+    public double toBaseMinorUnits(Money money) {
+        int index = IsoCurrencies.indexOf(money.currency());
+        return index >= 0 ? money.minorUnits() * baseMinorUnitsPerMinorUnit[index] : Double.NaN;
+    }
+
+    /**
+     * Compares an amount with a whole number of major units of the base currency. An amount in a currency
+     * without a rate is compared in its own major units instead.
+     *
+     * @param money      the amount
+     * @param majorUnits the threshold in major units of the base currency
+     * @return true if the amount is strictly greater
+     */
+    public boolean exceedsBaseMajorUnits(Money money, long majorUnits) {
+        double baseMinorUnits = toBaseMinorUnits(money);
+        if (Double.isNaN(baseMinorUnits)) {
+            return money.exceedsMajorUnits(majorUnits);
+        }
+        return baseMinorUnits > majorUnits * baseMinorUnitsPerMajorUnit;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * Returns the number of currencies with a rate, including the base currency.
+     *
+     * @return the number of rates
+     */
+    public int getRateCount() {
+        return rateCount;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
@@ -0,0 +1,95 @@
+package com.katanapay.routing.money;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * ISO 4217 currency data looked up without allocating: the minor unit exponent and a dense index
+ * that currency-keyed arrays are addressed by.
+ * <p>
+ * The tables are built once from the ISO 4217 data shipped with the JDK and addressed by the three letters
+ * of the currency code. Codes without a minor unit (precious metals, testing codes) and unknown codes
+ * fall back to {@value #DEFAULT_EXPONENT} decimals, the precision of the stored amounts.
+ */
+public final class IsoCurrencies {
+
+    public static final int DEFAULT_EXPONENT = 2;
+
+    private static final int LETTERS = 26;
+    private static final byte[] EXPONENTS = new byte[LETTERS * LETTERS * LETTERS];
+    private static final short[] INDEXES = new short[LETTERS * LETTERS * LETTERS];
+    private static final int COUNT;
+
+    static {
+        Arrays.fill(EXPONENTS, (byte) DEFAULT_EXPONENT);
+        Arrays.fill(INDEXES, (short) -1);
+
+        List<Currency> currencies = Currency.getAvailableCurrencies().stream()
+                .sorted(Comparator.comparing(Currency::getCurrencyCode))
+                .toList();
+        int count = 0;
+        for (Currency currency : currencies) {
+            int letters = letters(currency.getCurrencyCode());
+            if (letters < 0) {
+                continue;
+            }
+            INDEXES[letters] = (short) count++;
+            int fractionDigits = currency.getDefaultFractionDigits();
+            if (fractionDigits >= 0) {
+                EXPONENTS[letters] = (byte) fractionDigits;
+            }
+        }
+        COUNT = count;
+    }
+
+    private IsoCurrencies() {
+    }
+
+    /**
+     * Returns the number of decimals of the minor unit of a currency, e.g. 2 for USD, 0 for JPY and 3 for KWD.
+     *
+     * @param currencyCode the ISO 4217 alphabetic code
+     * @return the exponent
+     */
+    public static int exponentOf(String currencyCode) {
+        int letters = letters(currencyCode);
+        return letters >= 0 ? EXPONENTS[letters] : DEFAULT_EXPONENT;
+    }
+
+    /**
+     * Returns the position of a currency in arrays of {@link #count()} elements keyed by currency.
+     *
+     * @param currencyCode the ISO 4217 alphabetic code
+     * @return the index, or -1 for an unknown code
+     */
+    public static int indexOf(String currencyCode) {
+        int letters = letters(currencyCode);
+        return letters >= 0 ? INDEXES[letters] : -1;
+    }
+
+    /**
+     * Returns the number of known currencies.
+     *
+     * @return the size of arrays keyed by currency
+     */
+    public static int count() {
+        return COUNT;
+    }
+
+    private static int letters(String currencyCode) {
+        if (currencyCode == null || currencyCode.length() != 3) {
+            return -1;
+        }
+        int letters = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = currencyCode.charAt(i) - 'A';
+            if (letter < 0 || letter >= LETTERS) {
+                return -1;
+            }
+            letters = letters * LETTERS + letter;
+        }
+        return letters;
+    }
+}
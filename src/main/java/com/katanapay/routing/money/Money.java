@@ -0,0 +1,73 @@
+package com.katanapay.routing.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money as a {@code long} of minor units of its currency, e.g. 1050 for USD 10.50 or 1050 for JPY 1050.
+ * <p>
+ * Used for amount arithmetic and comparisons on the payment hot path. Amounts enter and leave as {@link BigDecimal}
+ * only at the edges: request and provider JSON, and the payments table.
+ *
+ * @param minorUnits the amount in minor units
+ * @param currency   the ISO 4217 alphabetic code
+ */
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    /**
+     * Converts a decimal amount, rounding half up to the minor unit of the currency.
+     *
+     * @param amount   the amount in major units
+     * @param currency the ISO 4217 alphabetic code
+     * @return the money
+     * @throws ArithmeticException if the amount does not fit into a {@code long} of minor units
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        int exponent = IsoCurrencies.exponentOf(currency);
+        // setScale returns the amount itself when it already has the scale of the currency
+        long minorUnits = amount.setScale(exponent, RoundingMode.HALF_UP).movePointRight(exponent).longValueExact();
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public int exponent() {
+        return IsoCurrencies.exponentOf(currency);
+    }
+
+    /**
+     * Compares the amount with a whole number of major units of the same currency.
+     *
+     * @param majorUnits the threshold in major units, e.g. 1000 for USD 1000.00
+     * @return true if this amount is strictly greater
+     */
+    public boolean exceedsMajorUnits(long majorUnits) {
+        return minorUnits > Math.multiplyExact(majorUnits, POWERS_OF_TEN[exponent()]);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, exponent());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the currencies differ
+     */
+    @Override
+    public int compareTo(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot compare " + currency + " with " + other.currency);
+        }
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
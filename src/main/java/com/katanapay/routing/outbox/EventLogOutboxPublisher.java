@@ -0,0 +1,37 @@
+package com.katanapay.routing.outbox;
+
+import com.katanapay.routing.eventlog.SegmentedEventLog;
+import com.katanapay.routing.model.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publisher that appends events to a local {@link SegmentedEventLog}.
+ * A batch is appended with a single group commit, so it is acknowledged only once it is on disk.
+ * Downstream consumers read the log with {@link SegmentedEventLog#consumer(long)} and decode
+ * the records with {@link OutboxEventEnvelope#decode(byte[])}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class EventLogOutboxPublisher implements OutboxPublisher {
+
+    private final SegmentedEventLog eventLog;
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<byte[]> records = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            records.add(OutboxEventEnvelope.encode(event));
+        }
+
+        long firstOffset = eventLog.append(records);
+        log.debug("Appended {} outbox events to the event log at offset {}", events.size(), firstOffset);
+    }
+}
@@ -0,0 +1,21 @@
+package com.katanapay.routing.outbox;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Publisher that only logs the events. Useful for local development without a durable destination.
+ */
+@Slf4j
+public class LoggingOutboxPublisher implements OutboxPublisher {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.debug("Publishing payment event: {}, aggregateId: {}",
+                    event.getEventType(), event.getAggregateId());
+        }
+    }
+}
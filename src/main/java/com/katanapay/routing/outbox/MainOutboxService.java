@@ -1,102 +1,244 @@
 package com.katanapay.routing.outbox;
 
+import com.katanapay.routing.config.DataSourceConfig;
+import com.katanapay.routing.datasource.Binding;
+import com.katanapay.routing.datasource.DatabaseShards;
+import com.katanapay.routing.model.entity.OutboxDeadLetter;
 import com.katanapay.routing.model.entity.OutboxEvent;
+import com.katanapay.routing.repository.OutboxDeadLetterRepository;
 import com.katanapay.routing.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MainOutboxService implements OutboxService {
 
+    private static final int MAX_ERROR_LENGTH = 1000;
+
     private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DatabaseShards databaseShards;
+
+    @Qualifier(DataSourceConfig.BATCH_TRANSACTION_MANAGER)
+    private final PlatformTransactionManager batchTransactionManager;
+
+    @Value("${outbox.processing.lease-duration:PT5M}")
+    private Duration leaseDuration;
+
+    @Value("${outbox.sharding.shard-count:16}")
+    private int shardCount;
 
     @Override
     @Transactional
-    public OutboxEvent createOutboxEvent(String aggregateType, String aggregateId, String eventType, String payload) {
+    public OutboxEvent createOutboxEvent(String aggregateType, String aggregateId, String eventType, byte[] payload) {
+        LocalDateTime now = LocalDateTime.now();
         OutboxEvent outboxEvent = OutboxEvent.builder()
                 .id(UUID.randomUUID())
                 .aggregateType(aggregateType)
                 .aggregateId(aggregateId)
+                .shard(OutboxShardCoordinator.shardOf(aggregateId, shardCount))
                 .eventType(eventType)
                 .payload(payload)
                 .attemptCount(0)
                 .processed(false)
                 .locked(false)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
                 .build();
 
-        return outboxEventRepository.save(outboxEvent);
+        outboxEvent = outboxEventRepository.save(outboxEvent);
+        eventPublisher.publishEvent(new OutboxEventCreated(outboxEvent.getId()));
+
+        return outboxEvent;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<OutboxEvent> getUnprocessedEvents(int limit) {
-        return outboxEventRepository.findUnprocessedEvents(limit);
+    public OutboxBacklog getBacklog() {
+        TransactionTemplate transactionTemplate = batchTransactionTemplate(true);
+        long size = 0;
+        LocalDateTime oldestCreatedAt = null;
+        for (OutboxBacklog backlog : databaseShards.onEveryShard(
+                () -> transactionTemplate.execute(status -> outboxEventRepository.findBacklog()))) {
+            size += backlog.size();
+            if (oldestCreatedAt == null || backlog.oldestCreatedAt() != null
+                    && backlog.oldestCreatedAt().isBefore(oldestCreatedAt)) {
+                oldestCreatedAt = backlog.oldestCreatedAt();
+            }
+        }
+        return new OutboxBacklog(size, oldestCreatedAt);
     }
 
     @Override
-    @Transactional
-    public void markAsProcessed(UUID id) {
-        OutboxEvent event = outboxEventRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Outbox event not found: " + id));
+    @Transactional(transactionManager = DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    public List<OutboxEvent> claimEvents(int limit) {
+        return claimEvents(limit, IntStream.range(0, shardCount).boxed().toList());
+    }
 
-        event.setProcessed(true);
-        event.setLocked(false);
-        event.setUpdatedAt(LocalDateTime.now());
+    @Override
+    @Transactional(transactionManager = DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    public List<OutboxEvent> claimEvents(int limit, Collection<Integer> shards) {
+        LocalDateTime now = LocalDateTime.now();
 
-        outboxEventRepository.save(event);
-        log.debug("Marked outbox event as processed: {}", id);
+        List<OutboxEvent> events = outboxEventRepository.claimBatch(limit, shards, now.plus(leaseDuration), now);
+        log.debug("Claimed {} outbox events", events.size());
+
+        return events;
     }
 
     @Override
-    @Transactional
-    public void updateAttemptCount(UUID id, int attemptCount) {
-        OutboxEvent event = outboxEventRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Outbox event not found: " + id));
-
-        event.setAttemptCount(attemptCount);
-        event.setUpdatedAt(LocalDateTime.now());
+    @Transactional(transactionManager = DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    public void markAsProcessed(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
 
-        outboxEventRepository.save(event);
-        log.debug("Updated outbox event attempt count: {}, count: {}", id, attemptCount);
+        int updatedRows = outboxEventRepository.markAsProcessed(ids, LocalDateTime.now());
+        log.debug("Marked {} outbox events as processed", updatedRows);
     }
 
     @Override
-    @Transactional
-    public boolean acquireLock(UUID id) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime lockExpiry = now.plusMinutes(5); // todo with May 8, 2026 end-date: move to props
+    @Transactional(transactionManager = DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    public void releaseLeases(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
 
-        int updatedRows = outboxEventRepository.acquireLock(id, lockExpiry, now);
+        int updatedRows = outboxEventRepository.releaseLeases(ids, LocalDateTime.now());
+        log.debug("Released leases of {} outbox events", updatedRows);
+    }
 
-        boolean acquired = updatedRows > 0;
-        if (acquired) {
-            log.debug("Acquired lock on outbox event: {}", id);
+    @Override
+    @Transactional(transactionManager = DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    public void scheduleRetry(UUID id, int attemptCount, LocalDateTime nextAttemptAt) {
+        outboxEventRepository.scheduleRetry(id, attemptCount, nextAttemptAt, LocalDateTime.now());
+        log.debug("Scheduled outbox event retry: {}, attempt: {}, at: {}", id, attemptCount, nextAttemptAt);
+    }
+
+    @Override
+    @Transactional(transactionManager = DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    public void deferEvents(Collection<UUID> ids, LocalDateTime nextAttemptAt) {
+        if (ids.isEmpty()) {
+            return;
         }
 
-        return acquired;
+        int updatedRows = outboxEventRepository.deferEvents(ids, nextAttemptAt, LocalDateTime.now());
+        log.debug("Deferred {} outbox events until {}", updatedRows, nextAttemptAt);
     }
 
     @Override
-    @Transactional
-    public void releaseLock(UUID id) {
-        OutboxEvent event = outboxEventRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Outbox event not found: " + id));
+    @Transactional(transactionManager = DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    public void moveToDeadLetter(OutboxEvent event, int attemptCount, String lastError) {
+        OutboxDeadLetter deadLetter = OutboxDeadLetter.builder()
+                .id(event.getId())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .eventType(event.getEventType())
+                .payload(event.getPayload())
+                .attemptCount(attemptCount)
+                .lastError(StringUtils.truncate(lastError, MAX_ERROR_LENGTH))
+                .createdAt(event.getCreatedAt())
+                .failedAt(LocalDateTime.now())
+                .build();
+
+        outboxDeadLetterRepository.save(deadLetter);
+        outboxEventRepository.deleteById(event.getId());
+        log.debug("Moved outbox event to dead letters: {}", event.getId());
+    }
+
+    @Override
+    public List<OutboxDeadLetter> getDeadLetters(int limit) {
+        TransactionTemplate transactionTemplate = batchTransactionTemplate(true);
+        return databaseShards.onEveryShard(
+                        () -> transactionTemplate.execute(status -> outboxDeadLetterRepository.findOldest(limit)))
+                .stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(OutboxDeadLetter::getFailedAt))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public int replayDeadLetters(Collection<UUID> ids) {
+        TransactionTemplate transactionTemplate = batchTransactionTemplate(false);
+        return databaseShards.onEveryShard(
+                        () -> transactionTemplate.execute(status -> replay(outboxDeadLetterRepository.findAllById(ids))))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    @Override
+    public int replayDeadLetters(int limit) {
+        TransactionTemplate transactionTemplate = batchTransactionTemplate(false);
+        int replayed = 0;
+        for (int shard = 0; shard < databaseShards.count() && replayed < limit; shard++) {
+            int shardLimit = limit - replayed;
+            try (Binding ignored = DatabaseShards.bind(shard)) {
+                replayed += transactionTemplate.execute(
+                        status -> replay(outboxDeadLetterRepository.findOldest(shardLimit)));
+            }
+        }
+        return replayed;
+    }
 
-        event.setLocked(false);
-        event.setLockExpiry(null);
-        event.setUpdatedAt(LocalDateTime.now());
+    /**
+     * Backlog and dead letters span all shards, so they run a transaction per shard instead of being
+     * {@code @Transactional}.
+     */
+    private TransactionTemplate batchTransactionTemplate(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(batchTransactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate;
+    }
 
-        outboxEventRepository.save(event);
-        log.debug("Released lock on outbox event: {}", id);
+    private int replay(List<OutboxDeadLetter> deadLetters) {
+        if (deadLetters.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = deadLetters.stream()
+                .map(deadLetter -> OutboxEvent.builder()
+                        .id(deadLetter.getId())
+                        .aggregateType(deadLetter.getAggregateType())
+                        .aggregateId(deadLetter.getAggregateId())
+                        .shard(OutboxShardCoordinator.shardOf(deadLetter.getAggregateId(), shardCount))
+                        .eventType(deadLetter.getEventType())
+                        .payload(deadLetter.getPayload())
+                        .attemptCount(0)
+                        .processed(false)
+                        .locked(false)
+                        .nextAttemptAt(now)
+                        .createdAt(deadLetter.getCreatedAt())
+                        .updatedAt(now)
+                        .build())
+                .toList();
+
+        outboxDeadLetterRepository.deleteAllInBatch(deadLetters);
+        outboxEventRepository.saveAll(events);
+        eventPublisher.publishEvent(new OutboxEventCreated(events.getFirst().getId()));
+
+        log.info("Replayed {} outbox dead letters", events.size());
+        return events.size();
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.katanapay.routing.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * The unprocessed outbox events at a point in time.
+ *
+ * @param size            the number of unprocessed events
+ * @param oldestCreatedAt the creation time of the oldest unprocessed event, or null if there are none
+ */
+public record OutboxBacklog(long size, LocalDateTime oldestCreatedAt) {
+}
@@ -0,0 +1,102 @@
+package com.katanapay.routing.outbox;
+
+import com.katanapay.routing.config.DataSourceConfig;
+import com.katanapay.routing.datasource.Binding;
+import com.katanapay.routing.datasource.DatabaseShards;
+import com.katanapay.routing.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Removes processed outbox events once they are older than the retention period.
+ * Rows are deleted in bounded chunks, each in its own short transaction, with a pause between chunks,
+ * so compaction never holds long locks or saturates the database while payments are being written.
+ * A single run deletes at most {@code max-chunks-per-run} chunks; a larger backlog is worked off by later runs.
+ * The chunks run on the batch connection pool, so a long compaction never holds a connection payments wait for.
+ * Every database shard is compacted in turn, each up to {@code max-chunks-per-run} chunks.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxCompactionJob {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final DatabaseShards databaseShards;
+
+    @Qualifier(DataSourceConfig.BATCH_TRANSACTION_MANAGER)
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.compaction.enabled:true}")
+    private boolean compactionEnabled;
+
+    @Value("${outbox.compaction.retention:PT24H}")
+    private Duration retention;
+
+    @Value("${outbox.compaction.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${outbox.compaction.pause:PT0.1S}")
+    private Duration pause;
+
+    @Value("${outbox.compaction.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    /**
+     * Deletes processed events older than the retention period at a fixed interval defined in application properties.
+     *
+     * @return the number of deleted events
+     */
+    @Scheduled(fixedDelayString = "${outbox.compaction.fixed-delay:60000}",
+            initialDelayString = "${outbox.compaction.initial-delay:60000}")
+    public int compact() {
+        if (!compactionEnabled) {
+            return 0;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long startNanos = System.nanoTime();
+        int totalDeleted = 0;
+
+        try {
+            for (int shard = 0; shard < databaseShards.count(); shard++) {
+                try (Binding ignored = DatabaseShards.bind(shard)) {
+                    totalDeleted += compact(transactionTemplate, cutoff);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while compacting the outbox");
+        }
+
+        if (totalDeleted > 0) {
+            log.info("Deleted {} processed outbox events created before {} in {} ms",
+                    totalDeleted, cutoff, Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        }
+        return totalDeleted;
+    }
+
+    private int compact(TransactionTemplate transactionTemplate, LocalDateTime cutoff) throws InterruptedException {
+        int totalDeleted = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int deleted = transactionTemplate.execute(
+                    status -> outboxEventRepository.deleteProcessedBefore(cutoff, chunkSize));
+            totalDeleted += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+            Thread.sleep(pause.toMillis());
+        }
+        return totalDeleted;
+    }
+}
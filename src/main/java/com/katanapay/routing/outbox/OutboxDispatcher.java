@@ -0,0 +1,134 @@
+package com.katanapay.routing.outbox;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Fans claimed outbox events out to a fixed pool of workers.
+ * Events are partitioned by the hash of their aggregate ID and every partition is served by a single
+ * worker through a bounded FIFO queue, so events of the same aggregate are handled in claim order while
+ * events of unrelated aggregates are handled in parallel.
+ * A full partition queue blocks {@link #dispatch(List)}, which back-pressures the claiming thread.
+ */
+@Slf4j
+public class OutboxDispatcher implements AutoCloseable {
+
+    private final List<BlockingQueue<OutboxEvent>> queues;
+    private final List<Thread> workers;
+    private final int maxChunkSize;
+    private final Consumer<List<OutboxEvent>> chunkHandler;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param workerCount   the number of workers (and partitions)
+     * @param queueCapacity the capacity of each partition queue
+     * @param maxChunkSize  the maximum number of queued events a worker hands to the handler at once
+     * @param chunkHandler  handles a chunk of events of one partition, in queue order
+     */
+    public OutboxDispatcher(int workerCount, int queueCapacity, int maxChunkSize,
+                            Consumer<List<OutboxEvent>> chunkHandler) {
+        if (workerCount < 1 || queueCapacity < 1 || maxChunkSize < 1) {
+            throw new IllegalArgumentException("Invalid dispatcher settings: workers=" + workerCount
+                    + ", queueCapacity=" + queueCapacity + ", maxChunkSize=" + maxChunkSize);
+        }
+        this.maxChunkSize = maxChunkSize;
+        this.chunkHandler = chunkHandler;
+        this.queues = new ArrayList<>(workerCount);
+        this.workers = new ArrayList<>(workerCount);
+
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<OutboxEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            workers.add(Thread.ofPlatform()
+                    .name("outbox-worker-" + i)
+                    .daemon(true)
+                    .start(() -> runWorker(queue)));
+        }
+    }
+
+    /**
+     * Returns how many events can be dispatched without blocking if they spread evenly over the partitions.
+     *
+     * @return the free capacity over all partition queues
+     */
+    public int availableCapacity() {
+        int capacity = 0;
+        for (BlockingQueue<OutboxEvent> queue : queues) {
+            capacity += queue.remainingCapacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * Queues events to their partitions, blocking while a target partition queue is full.
+     *
+     * @param events the events to dispatch, in claim order
+     * @throws InterruptedException if interrupted while waiting for queue space
+     */
+    public void dispatch(List<OutboxEvent> events) throws InterruptedException {
+        for (OutboxEvent event : events) {
+            queues.get(partitionOf(event)).put(event);
+        }
+    }
+
+    private int partitionOf(OutboxEvent event) {
+        return Math.floorMod(event.getAggregateId().hashCode(), queues.size());
+    }
+
+    private void runWorker(BlockingQueue<OutboxEvent> queue) {
+        List<OutboxEvent> chunk = new ArrayList<>(maxChunkSize);
+        while (running) {
+            try {
+                chunk.add(queue.take());
+                queue.drainTo(chunk, maxChunkSize - 1);
+                chunkHandler.accept(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Events of the chunk stay leased and are claimed again once the lease expires
+                log.error("Error handling chunk of {} outbox events", chunk.size(), e);
+            } finally {
+                chunk.clear();
+            }
+        }
+    }
+
+    /**
+     * Stops the workers and drains the events that were never handed to them.
+     *
+     * @return the IDs of the drained events, which are still leased
+     */
+    public List<UUID> shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<OutboxEvent> queued = new ArrayList<>();
+        queues.forEach(queue -> queue.drainTo(queued));
+        return queued.stream().map(OutboxEvent::getId).toList();
+    }
+
+    /**
+     * Stops the workers. Events still queued stay leased and are claimed again once their lease expires.
+     */
+    @Override
+    public void close() {
+        shutdown();
+    }
+}
@@ -0,0 +1,12 @@
+package com.katanapay.routing.outbox;
+
+import java.util.UUID;
+
+/**
+ * Application event published when an outbox event is written.
+ * Delivered to listeners after the writing transaction commits.
+ *
+ * @param id the ID of the created outbox event
+ */
+public record OutboxEventCreated(UUID id) {
+}
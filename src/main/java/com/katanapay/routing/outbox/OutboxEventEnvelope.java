@@ -0,0 +1,75 @@
+package com.katanapay.routing.outbox;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Binary envelope of an outbox event written to the event log:
+ * {@code [id: 16][createdAt: epoch second 8, nanos 4][aggregateType][aggregateId][eventType][payload]},
+ * where strings are an {@code int} byte length followed by UTF-8 bytes and the payload is an {@code int}
+ * length followed by the serialized event as stored in the outbox.
+ */
+public final class OutboxEventEnvelope {
+
+    private static final int FIXED_SIZE = 16 + 12 + 4 * 4;
+
+    private OutboxEventEnvelope() {
+    }
+
+    public static byte[] encode(OutboxEvent event) {
+        byte[] aggregateType = bytes(event.getAggregateType());
+        byte[] aggregateId = bytes(event.getAggregateId());
+        byte[] eventType = bytes(event.getEventType());
+        byte[] payload = event.getPayload() != null ? event.getPayload() : new byte[0];
+        LocalDateTime createdAt = event.getCreatedAt();
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE
+                + aggregateType.length + aggregateId.length + eventType.length + payload.length);
+        buffer.putLong(event.getId().getMostSignificantBits())
+                .putLong(event.getId().getLeastSignificantBits())
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano());
+        putBytes(buffer, aggregateType);
+        putBytes(buffer, aggregateId);
+        putBytes(buffer, eventType);
+        putBytes(buffer, payload);
+        return buffer.array();
+    }
+
+    public static OutboxEvent decode(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        return OutboxEvent.builder()
+                .id(id)
+                .createdAt(createdAt)
+                .aggregateType(getString(buffer))
+                .aggregateId(getString(buffer))
+                .eventType(getString(buffer))
+                .payload(getBytes(buffer))
+                .build();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        buffer.putInt(value.length).put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        return new String(getBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        byte[] value = new byte[buffer.getInt()];
+        buffer.get(value);
+        return value;
+    }
+}
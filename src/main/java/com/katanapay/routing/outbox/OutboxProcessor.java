@@ -1,36 +1,193 @@
 package com.katanapay.routing.outbox;
 
+import com.katanapay.routing.datasource.Binding;
+import com.katanapay.routing.datasource.DatabaseShards;
+import com.katanapay.routing.jfr.OutboxClaimEvent;
+import com.katanapay.routing.jfr.OutboxPublishEvent;
+import com.katanapay.routing.metrics.OutboxMetrics;
 import com.katanapay.routing.model.entity.OutboxEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Processes outbox events from the database and publishes them to the appropriate destination.
- * Implements reliable event delivery with retry logic.
+ * Processes outbox events from the database and publishes them through the configured {@link OutboxPublisher}.
+ * Implements reliable event delivery with retry logic: failed events are retried with exponential backoff
+ * and moved to the dead letters once they run out of attempts.
+ * Claimed batches are handed to an {@link OutboxDispatcher}, which publishes events of different
+ * aggregates in parallel while keeping the order of events within one aggregate.
+ * Claiming runs on a dedicated thread that is woken up right after a transaction writing outbox events
+ * commits; bursts of commits coalesce into a single wake-up. The scheduled poll picks up events written
+ * by other nodes or left behind by a restart.
+ * Only events of the shards leased by the {@link OutboxShardCoordinator} are claimed, so nodes sharing the
+ * outbox work on disjoint sets of aggregates instead of competing for the same rows.
+ * Every claim round claims from each database shard in turn, starting with a different one each round, and
+ * events are completed on the database shard they were claimed from; the outbox shards leased by a node are
+ * the same on every database shard.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OutboxProcessor {
 
+    private static final Set<String> PUBLISHED_EVENT_TYPES = Set.of(
+            "PAYMENT_PROCESSED", "PAYMENT_STATUS_CHANGED",
+            "payment_created", "payment_updated", "payment_completed", "payment_failed");
+
     private final OutboxService outboxService;
 
+    private final OutboxPublisher outboxPublisher;
+
+    private final OutboxShardCoordinator shardCoordinator;
+
+    private final OutboxMetrics outboxMetrics;
+
+    private final DatabaseShards databaseShards;
+
     @Value("${outbox.processing.enabled:true}")
     private boolean processingEnabled;
 
     @Value("${outbox.processing.max-attempts:5}")
     private int maxAttempts;
 
+    @Value("${outbox.processing.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.processing.notify-on-commit:true}")
+    private boolean notifyOnCommit;
+
+    @Value("${outbox.retry.initial-backoff:PT1S}")
+    private Duration retryInitialBackoff;
+
+    @Value("${outbox.retry.multiplier:2.0}")
+    private double retryMultiplier;
+
+    @Value("${outbox.retry.max-backoff:PT10M}")
+    private Duration retryMaxBackoff;
+
+    @Value("${outbox.dispatcher.workers:4}")
+    private int dispatcherWorkers;
+
+    @Value("${outbox.dispatcher.queue-capacity:1000}")
+    private int dispatcherQueueCapacity;
+
+    @Value("${outbox.dispatcher.max-chunk-size:100}")
+    private int dispatcherMaxChunkSize;
+
+    private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
+    private final AtomicBoolean claimDeferred = new AtomicBoolean();
+
+    private OutboxRetryPolicy retryPolicy;
+    private OutboxDispatcher dispatcher;
+    private Thread claimer;
+    private volatile boolean running;
+    private int firstDatabaseShard;
+
+    @PostConstruct
+    void start() {
+        retryPolicy = new OutboxRetryPolicy(retryInitialBackoff, retryMultiplier, retryMaxBackoff);
+        dispatcher = new OutboxDispatcher(dispatcherWorkers, dispatcherQueueCapacity,
+                dispatcherMaxChunkSize, this::processChunk);
+        running = true;
+        claimer = Thread.ofPlatform()
+                .name("outbox-claimer")
+                .daemon(true)
+                .start(this::runClaimer);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        claimer.interrupt();
+        claimer.join(5000);
+        List<UUID> queuedIds = dispatcher.shutdown();
+        if (!queuedIds.isEmpty()) {
+            log.info("Releasing leases of {} queued outbox events", queuedIds.size());
+            // a shard that does not hold an event leaves it alone
+            databaseShards.onEveryShard(() -> {
+                outboxService.releaseLeases(queuedIds);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Safety-net poll that wakes up the claimer at a fixed interval defined in application properties.
+     */
+    @Scheduled(fixedDelayString = "${outbox.processing.fixed-delay:1000}")
+    public void pollOutboxEvents() {
+        wakeUp();
+    }
+
+    /**
+     * Wakes up the claimer once the transaction that wrote an outbox event has committed.
+     *
+     * @param event the created outbox event notification
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOutboxEventCreated(OutboxEventCreated event) {
+        if (notifyOnCommit) {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Wakes up the claimer once this node took over shards, which may hold events waiting for a new owner.
+     *
+     * @param event the assigned shards notification
+     */
+    @EventListener
+    public void onOutboxShardsAssigned(OutboxShardsAssigned event) {
+        wakeUp();
+    }
+
     /**
-     * Scheduled method that processes pending outbox events.
-     * Runs at a fixed interval defined in application properties.
+     * Requests a claim round. Requests arriving while one is already pending are coalesced.
+     */
+    public void wakeUp() {
+        if (wakeUpRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(claimer);
+        }
+    }
+
+    private void runClaimer() {
+        while (running) {
+            if (!wakeUpRequested.getAndSet(false)) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            try {
+                processOutboxEvents();
+            } catch (Exception e) {
+                log.error("Error claiming outbox events", e);
+            }
+        }
+    }
+
+    /**
+     * Processes pending outbox events.
+     * Keeps claiming batches until the backlog is drained or the dispatcher queues are full.
      */
-    @Scheduled(fixedDelayString = "${outbox.processing.fixed-delay:5000}")
     public void processOutboxEvents() {
         if (!processingEnabled) {
             log.debug("Outbox processing is disabled");
@@ -38,80 +195,203 @@ public class OutboxProcessor {
         }
 
         log.debug("Starting outbox event processing");
-        List<OutboxEvent> events = outboxService.getUnprocessedEvents(10);
+        try {
+            while (claimAndDispatch()) {
+                log.debug("Outbox batch was full, claiming the next one");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while dispatching outbox events");
+        }
+    }
+
+    /**
+     * Claims a batch from every database shard, each sized to the free dispatcher capacity, and dispatches them.
+     *
+     * @return true if a batch was full and more events are likely waiting
+     */
+    private boolean claimAndDispatch() throws InterruptedException {
+        Set<Integer> shards = shardCoordinator.getClaimableShards();
+        if (shards.isEmpty()) {
+            log.debug("No outbox shards leased by this node");
+            return false;
+        }
+
+        int databaseShardCount = databaseShards.count();
+        int first = firstDatabaseShard;
+        firstDatabaseShard = (first + 1) % databaseShardCount;
+        boolean full = false;
+        for (int i = 0; i < databaseShardCount; i++) {
+            try (Binding ignored = DatabaseShards.bind((first + i) % databaseShardCount)) {
+                full |= claimAndDispatch(shards);
+            }
+            if (claimDeferred.get()) {
+                break;
+            }
+        }
+        return full;
+    }
+
+    /**
+     * Claims a single batch of the bound database shard sized to the free dispatcher capacity and dispatches it.
+     *
+     * @return true if the batch was full
+     */
+    private boolean claimAndDispatch(Set<Integer> shards) throws InterruptedException {
+        int limit = Math.min(batchSize, dispatcher.availableCapacity());
+        if (limit == 0) {
+            log.debug("Outbox dispatcher queues are full, deferring claim");
+            claimDeferred.set(true);
+            // a worker that freed capacity before the flag was set did not see it, so check again before parking
+            if (dispatcher.availableCapacity() > 0 && claimDeferred.compareAndSet(true, false)) {
+                wakeUp();
+            }
+            return false;
+        }
+
+        OutboxClaimEvent claimEvent = OutboxClaimEvent.start();
+        List<OutboxEvent> events = outboxService.claimEvents(limit, shards);
 
         if (events.isEmpty()) {
             log.debug("No outbox events to process");
-            return;
+            claimEvent.complete(limit, 0, shards.size());
+            return false;
         }
 
-        log.info("Processing {} outbox events", events.size());
+        log.debug("Dispatching {} outbox events", events.size());
+        dispatcher.dispatch(events);
+        claimEvent.complete(limit, events.size(), shards.size());
 
-        for (OutboxEvent event : events) {
-            if (!outboxService.acquireLock(event.getId())) {
-                log.debug("Could not acquire lock for event: {}", event.getId());
-                continue;
-            }
+        return events.size() == limit;
+    }
 
-            try {
-                processEvent(event);
-            } catch (Exception e) {
-                log.error("Error processing outbox event: {}", event.getId(), e);
-                handleEventProcessingFailure(event);
-            } finally {
-                outboxService.releaseLock(event.getId());
+    /**
+     * Processes a chunk of events of one dispatcher partition, the events of each database shard with that shard
+     * bound. A partition holds the events of several aggregates, which may live on different shards.
+     *
+     * @param events the events of the chunk, in claim order
+     */
+    private void processChunk(List<OutboxEvent> events) {
+        if (databaseShards.count() == 1) {
+            publishChunk(events);
+        } else {
+            Map<Integer, List<OutboxEvent>> eventsByShard = new TreeMap<>();
+            for (OutboxEvent event : events) {
+                eventsByShard.computeIfAbsent(databaseShards.shardOf(event.getAggregateId()),
+                        shard -> new ArrayList<>()).add(event);
             }
+            eventsByShard.forEach((shard, shardEvents) -> {
+                try (Binding ignored = DatabaseShards.bind(shard)) {
+                    publishChunk(shardEvents);
+                }
+            });
+        }
+
+        if (claimDeferred.compareAndSet(true, false)) {
+            wakeUp();
         }
     }
 
     /**
-     * Process a single outbox event.
+     * Publishes the events of a chunk as a single batch and completes the acknowledged events with one bulk update.
+     * If the batch is rejected, its events are published one by one to isolate the failing ones.
      *
-     * @param event the outbox event to process
+     * @param events the events of the chunk on one database shard, in claim order
      */
-    private void processEvent(OutboxEvent event) {
-        log.info("Processing outbox event: {}, type: {}", event.getId(), event.getEventType());
+    private void publishChunk(List<OutboxEvent> events) {
+        OutboxPublishEvent publishEvent = OutboxPublishEvent.start();
+        boolean publishedIndividually = false;
+        List<OutboxEvent> publishable = new ArrayList<>(events.size());
+        List<UUID> completedIds = new ArrayList<>(events.size());
 
-        try {
-            switch (event.getEventType()) {
-                case "payment_created", "payment_updated", "payment_completed", "payment_failed" -> publishPaymentEvent(event);
-                default -> log.warn("Unknown event type: {}", event.getEventType());
+        for (OutboxEvent event : events) {
+            if (PUBLISHED_EVENT_TYPES.contains(event.getEventType())) {
+                publishable.add(event);
+            } else {
+                log.warn("Unknown event type: {}", event.getEventType());
+                completedIds.add(event.getId());
             }
+        }
 
-            outboxService.markAsProcessed(event.getId());
-            log.info("Successfully processed outbox event: {}", event.getId());
+        try {
+            outboxPublisher.publish(publishable);
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxEvent event : publishable) {
+                completedIds.add(event.getId());
+                outboxMetrics.recordPublished(event.getCreatedAt(), now);
+            }
         } catch (Exception e) {
-            throw new RuntimeException("Failed to process outbox event: " + event.getId(), e);
+            if (publishable.size() == 1) {
+                handlePublishFailure(publishable.getFirst(), e);
+            } else {
+                log.warn("Error publishing {} outbox events as a batch, publishing them one by one",
+                        publishable.size(), e);
+                publishIndividually(publishable, completedIds);
+                publishedIndividually = true;
+            }
         }
+
+        outboxService.markAsProcessed(completedIds);
+        publishEvent.complete(events.size(), completedIds.size(), publishedIndividually);
     }
 
     /**
-     * Handles failure in processing an outbox event.
-     * Implements retry logic with exponential backoff.
+     * Publishes events one at a time. Once an event of an aggregate fails, later events of the same
+     * aggregate are deferred to its retry time, so they are not published ahead of it.
      *
-     * @param event the failed outbox event
+     * @param events       the events, in claim order
+     * @param completedIds collects the IDs of the published events
      */
-    private void handleEventProcessingFailure(OutboxEvent event) {
-        int newAttemptCount = event.getAttemptCount() + 1;
+    private void publishIndividually(List<OutboxEvent> events, List<UUID> completedIds) {
+        Map<String, LocalDateTime> retryTimeByAggregate = new HashMap<>();
+        Map<LocalDateTime, List<UUID>> deferredIds = new HashMap<>();
 
-        if (newAttemptCount >= maxAttempts) {
-            log.warn("Max retry attempts reached for event: {}. Marking as processed with failure.", event.getId());
-            outboxService.markAsProcessed(event.getId());
-        } else {
-            log.info("Incrementing attempt count for event: {} to {}", event.getId(), newAttemptCount);
-            outboxService.updateAttemptCount(event.getId(), newAttemptCount);
+        for (OutboxEvent event : events) {
+            LocalDateTime retryTime = retryTimeByAggregate.get(event.getAggregateId());
+            if (retryTime != null) {
+                deferredIds.computeIfAbsent(retryTime, time -> new ArrayList<>()).add(event.getId());
+                continue;
+            }
+
+            try {
+                outboxPublisher.publish(List.of(event));
+                completedIds.add(event.getId());
+                outboxMetrics.recordPublished(event.getCreatedAt(), LocalDateTime.now());
+            } catch (Exception e) {
+                LocalDateTime nextAttemptAt = handlePublishFailure(event, e);
+                if (nextAttemptAt != null) {
+                    retryTimeByAggregate.put(event.getAggregateId(), nextAttemptAt);
+                }
+            }
         }
+
+        deferredIds.forEach((nextAttemptAt, ids) -> outboxService.deferEvents(ids, nextAttemptAt));
     }
 
     /**
-     * Publishes a payment-related event to the appropriate destination.
+     * Handles failure in publishing an outbox event.
+     * Schedules the next attempt with exponential backoff, or moves the event to the dead letters
+     * once it runs out of attempts, so a poison event stops taking dispatcher capacity.
      *
-     * @param event the payment event to publish
+     * @param event the failed outbox event
+     * @param error the publish error
+     * @return the time of the next attempt, or null if the event was dead-lettered
      */
-    private void publishPaymentEvent(OutboxEvent event) {
-        // In a real implementation, this would publish to a message broker
-        // For this example, we'll just log the event
-        log.info("Publishing payment event: {}, aggregateId: {}",
-                event.getEventType(), event.getAggregateId());
+    private LocalDateTime handlePublishFailure(OutboxEvent event, Exception error) {
+        int newAttemptCount = event.getAttemptCount() + 1;
+
+        if (newAttemptCount >= maxAttempts) {
+            log.error("Max retry attempts reached for event: {}. Moving it to the dead letters.", event.getId(), error);
+            outboxService.moveToDeadLetter(event, newAttemptCount, String.valueOf(error));
+            outboxMetrics.recordDeadLettered();
+            return null;
+        }
+
+        LocalDateTime nextAttemptAt = retryPolicy.nextAttemptAt(newAttemptCount, LocalDateTime.now());
+        log.info("Error publishing event: {}, attempt {} of {}, retrying at {}: {}",
+                event.getId(), newAttemptCount, maxAttempts, nextAttemptAt, error.toString());
+        outboxService.scheduleRetry(event.getId(), newAttemptCount, nextAttemptAt);
+        outboxMetrics.recordRetried();
+        return nextAttemptAt;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.katanapay.routing.outbox;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination outbox events are published to.
+ * The implementation is selected with {@code outbox.publisher.type}.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publishes a batch of events as a whole.
+     * Returning normally acknowledges every event of the batch, after which the events are marked as processed.
+     * Events of the same aggregate must be published in list order.
+     *
+     * @param events the events to publish, in claim order
+     * @throws RuntimeException if the batch was not accepted; none of its events is acknowledged
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,49 @@
+package com.katanapay.routing.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff between publish attempts of an outbox event.
+ * The delay doubles (by {@code multiplier}) with every failed attempt up to {@code maxBackoff}, and a random
+ * half of it is jittered away, so events that failed together do not come back together.
+ */
+public class OutboxRetryPolicy {
+
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double multiplier;
+
+    public OutboxRetryPolicy(Duration initialBackoff, double multiplier, Duration maxBackoff) {
+        if (initialBackoff.isNegative() || initialBackoff.isZero() || multiplier < 1 || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Invalid outbox retry settings: initialBackoff=" + initialBackoff
+                    + ", multiplier=" + multiplier + ", maxBackoff=" + maxBackoff);
+        }
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Returns the delay before the attempt following the given failed one.
+     *
+     * @param failedAttempts the number of failed attempts so far, at least 1
+     * @return a delay between half and all of the exponential backoff
+     */
+    public Duration backoff(int failedAttempts) {
+        double exponential = initialBackoffMillis * Math.pow(multiplier, Math.max(0, failedAttempts - 1));
+        long backoffMillis = (long) Math.min(exponential, maxBackoffMillis);
+        long halfMillis = backoffMillis / 2;
+        return Duration.ofMillis(backoffMillis - halfMillis + ThreadLocalRandom.current().nextLong(halfMillis + 1));
+    }
+
+    /**
+     * @param failedAttempts the number of failed attempts so far, at least 1
+     * @param now            the current time
+     * @return the earliest time of the next attempt
+     */
+    public LocalDateTime nextAttemptAt(int failedAttempts, LocalDateTime now) {
+        return now.plus(backoff(failedAttempts));
+    }
+}
@@ -1,13 +1,20 @@
 package com.katanapay.routing.outbox;
 
+import com.katanapay.routing.model.entity.OutboxDeadLetter;
 import com.katanapay.routing.model.entity.OutboxEvent;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Service interface for managing outbox events.
  * Implements the transactional outbox pattern for reliable event publishing.
+ * <p>
+ * An event lives on the database shard of its aggregate, written in the transaction of the aggregate. Claiming
+ * and updating events works on the shard bound to the thread, see
+ * {@link com.katanapay.routing.datasource.DatabaseShards}; the backlog and the dead letters span all shards.
  */
 public interface OutboxService {
 
@@ -17,47 +24,100 @@ public interface OutboxService {
      * @param aggregateType the type of the aggregate (e.g., "payment")
      * @param aggregateId   the ID of the aggregate
      * @param eventType     the type of the event (e.g., "payment_created")
-     * @param payload       the JSON payload of the event
+     * @param payload       the serialized event
      * @return the created outbox event
      */
     @SuppressWarnings("UnusedReturnValue")
-    OutboxEvent createOutboxEvent(String aggregateType, String aggregateId, String eventType, String payload);
+    OutboxEvent createOutboxEvent(String aggregateType, String aggregateId, String eventType, byte[] payload);
 
     /**
-     * Retrieves a list of unprocessed outbox events that are ready for processing.
+     * Counts the unprocessed outbox events, including the ones waiting for a retry.
      *
-     * @param limit the maximum number of events to retrieve
-     * @return list of outbox events
+     * @return the size and age of the backlog
      */
-    List<OutboxEvent> getUnprocessedEvents(int limit);
+    OutboxBacklog getBacklog();
 
     /**
-     * Marks an outbox event as processed.
+     * Claims a batch of unprocessed outbox events of all shards for processing.
+     * Claimed events are leased to the caller and skipped by other claims until the lease expires.
      *
-     * @param id the ID of the outbox event
+     * @param limit the maximum number of events to claim
+     * @return the claimed events ordered by creation time
      */
-    void markAsProcessed(UUID id);
+    List<OutboxEvent> claimEvents(int limit);
 
     /**
-     * Updates the attempts count for an outbox event.
+     * Claims a batch of unprocessed outbox events of the given shards for processing.
      *
-     * @param id           the ID of the outbox event
-     * @param attemptCount the new attempt count
+     * @param limit  the maximum number of events to claim
+     * @param shards the shards to claim from, see {@link OutboxShardCoordinator}
+     * @return the claimed events ordered by creation time
      */
-    void updateAttemptCount(UUID id, int attemptCount);
+    List<OutboxEvent> claimEvents(int limit, Collection<Integer> shards);
 
     /**
-     * Acquires a lock on an outbox event for processing.
+     * Marks outbox events as processed and releases their leases in a single update.
      *
-     * @param id the ID of the outbox event
-     * @return true if the lock was acquired, false otherwise
+     * @param ids the IDs of the outbox events
      */
-    boolean acquireLock(UUID id);
+    void markAsProcessed(Collection<UUID> ids);
 
     /**
-     * Releases a lock on an outbox event.
+     * Releases the leases of claimed outbox events without changing them, so they can be claimed again.
      *
-     * @param id the ID of the outbox event
+     * @param ids the IDs of the outbox events
      */
-    void releaseLock(UUID id);
+    void releaseLeases(Collection<UUID> ids);
+
+    /**
+     * Records a failed attempt of an outbox event and releases its lease. The event is not claimed again
+     * before {@code nextAttemptAt}.
+     *
+     * @param id            the ID of the outbox event
+     * @param attemptCount  the new attempt count
+     * @param nextAttemptAt the earliest time of the next attempt
+     */
+    void scheduleRetry(UUID id, int attemptCount, LocalDateTime nextAttemptAt);
+
+    /**
+     * Releases the leases of outbox events and postpones them without counting an attempt, e.g. to keep
+     * them behind a failed event of the same aggregate.
+     *
+     * @param ids           the IDs of the outbox events
+     * @param nextAttemptAt the earliest time of the next attempt
+     */
+    void deferEvents(Collection<UUID> ids, LocalDateTime nextAttemptAt);
+
+    /**
+     * Moves an outbox event that ran out of attempts to the dead letters.
+     *
+     * @param event        the outbox event
+     * @param attemptCount the number of attempts made
+     * @param lastError    the error of the last attempt
+     */
+    void moveToDeadLetter(OutboxEvent event, int attemptCount, String lastError);
+
+    /**
+     * Retrieves the oldest dead letters.
+     *
+     * @param limit the maximum number of dead letters to retrieve
+     * @return the dead letters ordered by failure time
+     */
+    List<OutboxDeadLetter> getDeadLetters(int limit);
+
+    /**
+     * Moves dead letters back to the outbox with a fresh attempt budget. Unknown IDs are ignored.
+     *
+     * @param ids the IDs of the dead letters
+     * @return the number of replayed events
+     */
+    int replayDeadLetters(Collection<UUID> ids);
+
+    /**
+     * Moves the oldest dead letters back to the outbox with a fresh attempt budget.
+     *
+     * @param limit the maximum number of dead letters to replay
+     * @return the number of replayed events
+     */
+    int replayDeadLetters(int limit);
 }
\ No newline at end of file
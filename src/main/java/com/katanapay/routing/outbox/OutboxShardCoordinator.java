@@ -0,0 +1,306 @@
+package com.katanapay.routing.outbox;
+
+import com.katanapay.routing.config.DataSourceConfig;
+import com.katanapay.routing.datasource.DatabaseShards;
+import com.katanapay.routing.model.entity.OutboxNode;
+import com.katanapay.routing.repository.OutboxEventRepository;
+import com.katanapay.routing.repository.OutboxNodeRepository;
+import com.katanapay.routing.repository.OutboxShardLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Splits the outbox into a fixed number of shards by aggregate and keeps this node's share of them leased.
+ * <p>
+ * Every node heartbeats into {@code outbox_nodes}. On each heartbeat it renews its shard leases and moves
+ * towards an even split of the shards over the live nodes: missing shards are taken from the free or expired
+ * ones, and surplus shards stop being claimed right away but are only released from the next heartbeat on,
+ * once none of their events is in flight. Shards of a node that stopped heartbeating are taken over as soon as
+ * its leases expire.
+ * <p>
+ * All events of an aggregate share a shard, so they are only ever published by one node at a time and keep
+ * their order. The shard count must be the same on all nodes. The leases live on database shard 0, while the
+ * events of an outbox shard are spread over all database shards, which are all checked for events in flight.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxShardCoordinator {
+
+    private final OutboxShardLeaseRepository shardLeaseRepository;
+
+    private final OutboxNodeRepository nodeRepository;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final DatabaseShards databaseShards;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Qualifier(DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.processing.enabled:true}")
+    private boolean processingEnabled;
+
+    @Value("${outbox.sharding.shard-count:16}")
+    private int shardCount;
+
+    @Value("${outbox.sharding.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${outbox.sharding.lease-duration:PT10S}")
+    private Duration leaseDuration;
+
+    /**
+     * Surplus shards that are no longer claimed and wait to be released. Only touched by the heartbeat.
+     */
+    private final Set<Integer> drainingShards = new HashSet<>();
+
+    private TransactionTemplate transactionTemplate;
+    private String nodeId;
+    private boolean shardsCreated;
+    private boolean running;
+    private volatile ShardAssignment assignment = ShardAssignment.NONE;
+
+    /**
+     * Maps an aggregate to its shard. Uses {@link String#hashCode()}, which is the same on every JVM.
+     *
+     * @param aggregateId the ID of the aggregate
+     * @param shardCount  the number of shards
+     * @return the shard, between 0 and {@code shardCount - 1}
+     */
+    public static int shardOf(String aggregateId, int shardCount) {
+        return Math.floorMod(aggregateId.hashCode(), shardCount);
+    }
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        nodeId = StringUtils.hasText(configuredNodeId) ? configuredNodeId : UUID.randomUUID().toString();
+        running = processingEnabled;
+        log.info("Outbox node {} with {} shards, processing {}", nodeId, shardCount,
+                processingEnabled ? "enabled" : "disabled");
+    }
+
+    /**
+     * Gives up this node's shards, so the remaining nodes take them over without waiting for the leases to expire.
+     * Shards with events still in flight are left to expire.
+     */
+    @PreDestroy
+    synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        assignment = ShardAssignment.NONE;
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Integer> ownedShards = transactionTemplate.execute(
+                    status -> shardLeaseRepository.findShardsOwnedBy(nodeId));
+            Set<Integer> releasableShards = new TreeSet<>(ownedShards);
+            releasableShards.removeAll(findShardsWithEventsInFlight(releasableShards, now));
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!releasableShards.isEmpty()) {
+                    shardLeaseRepository.release(releasableShards, nodeId, now);
+                }
+                nodeRepository.deleteById(nodeId);
+            });
+            log.info("Outbox node {} left", nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to release the outbox shards of node {}, they are taken over once their leases expire",
+                    nodeId, e);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Returns the shards this node may claim events from. Empty once the leases were not renewed in time,
+     * as other nodes may have taken the shards over by then.
+     *
+     * @return the shard numbers
+     */
+    public Set<Integer> getClaimableShards() {
+        ShardAssignment current = assignment;
+        return System.nanoTime() - current.validUntilNanos() < 0 ? current.shards() : Set.of();
+    }
+
+    /**
+     * Heartbeat at a fixed interval defined in application properties, which must be well below the lease duration.
+     * Publishes {@link OutboxShardsAssigned} when this node gained shards.
+     */
+    @Scheduled(fixedDelayString = "${outbox.sharding.heartbeat-interval:2000}")
+    public synchronized void heartbeat() {
+        if (!running) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            if (!shardsCreated) {
+                createMissingShards();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Set<Integer> busyShards = findShardsWithEventsInFlight(drainingShards, now);
+            Set<Integer> claimableShards = transactionTemplate.execute(status -> rebalance(now, busyShards));
+
+            Set<Integer> gainedShards = new TreeSet<>(claimableShards);
+            gainedShards.removeAll(assignment.shards());
+            assignment = new ShardAssignment(claimableShards, startNanos + leaseDuration.toNanos());
+
+            if (!gainedShards.isEmpty()) {
+                log.info("Outbox node {} took over shards {}, claiming from {}", nodeId, gainedShards, claimableShards);
+                eventPublisher.publishEvent(new OutboxShardsAssigned(gainedShards));
+            }
+        } catch (Exception e) {
+            log.warn("Outbox node {} failed to renew its shard leases", nodeId, e);
+        }
+    }
+
+    private void createMissingShards() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                Set<Integer> existingShards = new HashSet<>(shardLeaseRepository.findAllShards());
+                for (int shard = 0; shard < shardCount; shard++) {
+                    if (!existingShards.contains(shard)) {
+                        shardLeaseRepository.insert(shard, now);
+                    }
+                }
+            });
+            shardsCreated = true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created them at the same time
+            log.debug("Outbox shards were created concurrently, retrying on the next heartbeat");
+        }
+    }
+
+    /**
+     * Records the heartbeat, renews the leases and moves this node's share of the shards towards its target.
+     *
+     * @param busyShards drained shards with events still in flight, which are not released yet
+     * @return the shards to claim from until the next heartbeat
+     */
+    private Set<Integer> rebalance(LocalDateTime now, Set<Integer> busyShards) {
+        LocalDateTime leaseExpiry = now.plus(leaseDuration);
+
+        nodeRepository.save(new OutboxNode(nodeId, now));
+        nodeRepository.deleteStale(now.minus(leaseDuration));
+        List<String> liveNodeIds = nodeRepository.findLiveNodeIds(now.minus(leaseDuration));
+        int targetShards = targetShards(liveNodeIds);
+
+        shardLeaseRepository.renew(nodeId, leaseExpiry, now);
+        List<Integer> ownedShards = shardLeaseRepository.findShardsOwnedBy(nodeId);
+        drainingShards.retainAll(ownedShards);
+
+        // Shards drained on an earlier heartbeat have not been claimed from since then
+        List<Integer> releasableShards = new ArrayList<>(drainingShards);
+
+        int activeShards = ownedShards.size() - drainingShards.size();
+        if (activeShards < targetShards) {
+            activeShards += keepDrainingShards(targetShards - activeShards);
+        }
+        if (activeShards < targetShards) {
+            acquireShards(targetShards - activeShards, leaseExpiry, now);
+        } else if (activeShards > targetShards) {
+            drainShards(ownedShards, activeShards - targetShards);
+        }
+
+        releasableShards.retainAll(drainingShards);
+        releasableShards.removeAll(busyShards);
+        if (!releasableShards.isEmpty()) {
+            int released = shardLeaseRepository.release(releasableShards, nodeId, now);
+            log.debug("Outbox node {} released {} of the drained shards {}", nodeId, released, releasableShards);
+        }
+
+        Set<Integer> claimableShards = new TreeSet<>(shardLeaseRepository.findShardsOwnedBy(nodeId));
+        drainingShards.retainAll(claimableShards);
+        claimableShards.removeAll(drainingShards);
+        return Collections.unmodifiableSet(claimableShards);
+    }
+
+    /**
+     * Looks for leased, unprocessed events of the given outbox shards on every database shard, each in its own
+     * transaction outside the one on the lease table.
+     *
+     * @return the outbox shards with events in flight
+     */
+    private Set<Integer> findShardsWithEventsInFlight(Collection<Integer> shards, LocalDateTime now) {
+        if (shards.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Integer> busyShards = new HashSet<>();
+        databaseShards.onEveryShard(() -> transactionTemplate.execute(
+                        status -> outboxEventRepository.findShardsWithEventsInFlight(shards, now)))
+                .forEach(busyShards::addAll);
+        return busyShards;
+    }
+
+    /**
+     * Spreads the shards evenly over the live nodes; the first {@code shardCount % nodes} nodes get one more.
+     */
+    private int targetShards(List<String> liveNodeIds) {
+        int nodeIndex = liveNodeIds.indexOf(nodeId);
+        int nodes = liveNodeIds.size();
+        return shardCount / nodes + (nodeIndex < shardCount % nodes ? 1 : 0);
+    }
+
+    private int keepDrainingShards(int count) {
+        List<Integer> kept = drainingShards.stream().sorted().limit(count).toList();
+        kept.forEach(drainingShards::remove);
+        return kept.size();
+    }
+
+    private void acquireShards(int count, LocalDateTime leaseExpiry, LocalDateTime now) {
+        int acquired = 0;
+        for (Integer shard : shardLeaseRepository.findAvailableShards(shardCount, now)) {
+            if (acquired == count) {
+                break;
+            }
+            // Loses the race if another node took the shard since it was read
+            acquired += shardLeaseRepository.acquire(shard, nodeId, leaseExpiry, now);
+        }
+    }
+
+    private void drainShards(List<Integer> ownedShards, int count) {
+        int drained = 0;
+        for (int i = ownedShards.size() - 1; i >= 0 && drained < count; i--) {
+            if (drainingShards.add(ownedShards.get(i))) {
+                drained++;
+            }
+        }
+        log.info("Outbox node {} hands over shards, draining {}", nodeId, drainingShards);
+    }
+
+    private record ShardAssignment(Set<Integer> shards, long validUntilNanos) {
+
+        static final ShardAssignment NONE = new ShardAssignment(Set.of(), System.nanoTime());
+    }
+}
@@ -0,0 +1,11 @@
+package com.katanapay.routing.outbox;
+
+import java.util.Set;
+
+/**
+ * Application event published when this node took over outbox shards, which may already hold pending events.
+ *
+ * @param shards the shards this node gained
+ */
+public record OutboxShardsAssigned(Set<Integer> shards) {
+}
@@ -54,9 +54,13 @@ public class ProviderA implements PaymentProvider {
             log.info("Provider A successfully processed payment: {}", request.getPaymentId());
 
             return response;
+        } catch (ProviderException e) {
+            // Logged once, rate-limited, where the payment fails
+            throw e.withProvider(PROVIDER_NAME);
         } catch (Exception e) {
             log.error("Provider A failed to process payment: {}", request.getPaymentId(), e);
-            throw new ProviderException("Provider A payment processing failed: " + e.getMessage(), e);
+            throw new ProviderException("Provider A payment processing failed: " + e.getMessage(), e)
+                    .withProvider(PROVIDER_NAME);
         }
     }
 
@@ -73,14 +77,9 @@ public class ProviderA implements PaymentProvider {
                 .amount(request.getAmount())
                 .currency(request.getCurrency())
                 .bin(request.getBin())
+                .cardNumber(request.getMaskedCardNumber())
                 .build();
 
-        String maskedCardNumber = request.getCardNumber();
-        if (maskedCardNumber != null && maskedCardNumber.length() >= 4) {
-            maskedCardNumber = "*".repeat(12) + maskedCardNumber.substring(maskedCardNumber.length() - 4);
-        }
-        modifiedRequest.setCardNumber(maskedCardNumber);
-
         return modifiedRequest;
     }
 }
\ No newline at end of file
@@ -9,7 +9,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.math.RoundingMode;
 
 /**
@@ -57,9 +56,13 @@ public class ProviderB implements PaymentProvider {
             log.info("Provider B successfully processed payment: {}", request.getPaymentId());
 
             return response;
+        } catch (ProviderException e) {
+            // Logged once, rate-limited, where the payment fails
+            throw e.withProvider(PROVIDER_NAME);
         } catch (Exception e) {
             log.error("Provider B failed to process payment: {}", request.getPaymentId(), e);
-            throw new ProviderException("Provider B payment processing failed: " + e.getMessage(), e);
+            throw new ProviderException("Provider B payment processing failed: " + e.getMessage(), e)
+                    .withProvider(PROVIDER_NAME);
         }
     }
 
@@ -78,12 +81,9 @@ public class ProviderB implements PaymentProvider {
                 .currency(request.getCurrency())
                 .build();
 
-        // Provider B expects the amount in cents (multiply by 100)
+        // Provider B expects the amount in cents (multiply by 100) whatever the currency, rounded half up
         if (request.getAmount() != null) {
-            BigDecimal amountInCents = request.getAmount()
-                    .multiply(new BigDecimal("100"))
-                    .setScale(0, RoundingMode.HALF_UP);
-            modifiedRequest.setAmount(amountInCents);
+            modifiedRequest.setAmount(request.getAmount().movePointRight(2).setScale(0, RoundingMode.HALF_UP));
         }
 
         return modifiedRequest;
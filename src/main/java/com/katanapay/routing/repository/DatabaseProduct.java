@@ -0,0 +1,39 @@
+package com.katanapay.routing.repository;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * The database behind a {@link DataSource}, read from the connection metadata on first use, so the repositories
+ * that pick their statements by database can be created before a connection is available, e.g. while the class
+ * data sharing archive is trained during the build.
+ */
+final class DatabaseProduct {
+
+    private final DataSource dataSource;
+    private volatile String name;
+
+    DatabaseProduct(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    boolean isPostgres() {
+        return "PostgreSQL".equals(name());
+    }
+
+    String name() {
+        String detected = name;
+        if (detected == null) {
+            try {
+                detected = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Failed to detect the database", e);
+            }
+            name = detected;
+        }
+        return detected;
+    }
+}
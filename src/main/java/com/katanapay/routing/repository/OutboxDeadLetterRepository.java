@@ -0,0 +1,22 @@
+package com.katanapay.routing.repository;
+
+import com.katanapay.routing.model.entity.OutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, UUID> {
+
+    @Query("""
+            SELECT d
+            FROM OutboxDeadLetter d
+            ORDER BY d.failedAt ASC
+            LIMIT :limit
+            """)
+    List<OutboxDeadLetter> findOldest(@Param("limit") int limit);
+}
@@ -0,0 +1,26 @@
+package com.katanapay.routing.repository;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom repository fragment for claiming outbox events in batches.
+ */
+public interface OutboxEventClaimRepository {
+
+    /**
+     * Atomically selects up to {@code limit} claimable events of the given shards and leases them until
+     * {@code leaseExpiry} in a single statement. Rows locked by a concurrent claim are skipped instead of waited for,
+     * and so are events whose next attempt is not due yet.
+     *
+     * @param limit       the maximum number of events to claim
+     * @param shards      the shards to claim from
+     * @param leaseExpiry the time until the claimed events stay leased
+     * @param now         the current time
+     * @return the claimed events ordered by creation time
+     */
+    List<OutboxEvent> claimBatch(int limit, Collection<Integer> shards, LocalDateTime leaseExpiry, LocalDateTime now);
+}
@@ -0,0 +1,180 @@
+package com.katanapay.routing.repository;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the batch claim.
+ * PostgreSQL leases the batch with a single {@code UPDATE ... RETURNING} over a {@code FOR UPDATE SKIP LOCKED}
+ * sub-select. H2 re-evaluates such a sub-select for every updated row, so there the candidate rows are read
+ * first, locked by primary key with a {@code SELECT ... FOR UPDATE SKIP LOCKED} and leased in a third statement
+ * within the same transaction.
+ * <p>
+ * Both claim paths read the due unprocessed events in {@code next_attempt_at} order from an index that only
+ * the unprocessed rows are looked up in, so the claim cost does not grow with the processed rows awaiting
+ * compaction. Events of one aggregate are claimed in creation order: none is claimed while an earlier one of
+ * the same aggregate is still leased or waiting for its retry.
+ */
+public class OutboxEventClaimRepositoryImpl implements OutboxEventClaimRepository {
+
+    // An event is held back while an earlier event of its aggregate is leased or due after it, so a retried
+    // event is never overtaken by a later one. An earlier event due no later than the candidate sorts ahead
+    // of it and is claimed with it, or instead of it when the limit falls between them
+    private static final String NO_EARLIER_PENDING_EVENT = """
+            NOT EXISTS (SELECT 1
+                        FROM outbox_events earlier
+                        WHERE earlier.aggregate_id = candidate.aggregate_id
+                          AND earlier.processed = false
+                          AND earlier.created_at < candidate.created_at
+                          AND (earlier.next_attempt_at > candidate.next_attempt_at
+                               OR (earlier.locked = true AND earlier.lock_expiry >= ?)))""";
+
+    private static final String POSTGRES_CANDIDATES = """
+            SELECT id
+            FROM outbox_events candidate
+            WHERE processed = false
+              AND shard = ANY(?)
+              AND next_attempt_at <= ?
+              AND (locked = false OR lock_expiry < ?)
+              AND %s
+            ORDER BY processed, next_attempt_at, created_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """.formatted(NO_EARLIER_PENDING_EVENT);
+
+    // H2 locks every row matching a FOR UPDATE query before applying the limit, and re-runs a sub-select of
+    // a FOR UPDATE query whenever another transaction wrote in between, so the ordered limit is read on its
+    // own and only its rows are locked by primary key
+    private static final String H2_CANDIDATES = """
+            SELECT id
+            FROM outbox_events candidate
+            WHERE processed = false
+              AND shard = ANY(?)
+              AND next_attempt_at <= ?
+              AND (locked = false OR lock_expiry < ?)
+              AND %s
+            ORDER BY processed, next_attempt_at, created_at
+            LIMIT ?
+            """.formatted(NO_EARLIER_PENDING_EVENT);
+
+    // The predicates are re-checked against the locked row, which drops rows a concurrent claim leased after
+    // the candidates were read
+    private static final String H2_LOCK = """
+            SELECT id
+            FROM outbox_events
+            WHERE id = ANY(?)
+              AND processed = false
+              AND (locked = false OR lock_expiry < ?)
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String POSTGRES_CLAIM = """
+            UPDATE outbox_events
+            SET locked = true,
+                lock_expiry = ?,
+                updated_at = ?
+            WHERE id IN (%s)
+            RETURNING *
+            """.formatted(POSTGRES_CANDIDATES);
+
+    private static final String H2_CLAIM = """
+            SELECT *
+            FROM FINAL TABLE (UPDATE outbox_events
+                              SET locked = true,
+                                  lock_expiry = ?,
+                                  updated_at = ?
+                              WHERE id = ANY(?))
+            """;
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp lockExpiry = rs.getTimestamp("lock_expiry");
+        return OutboxEvent.builder()
+                .id(rs.getObject("id", UUID.class))
+                .aggregateType(rs.getString("aggregate_type"))
+                .aggregateId(rs.getString("aggregate_id"))
+                .shard(rs.getInt("shard"))
+                .eventType(rs.getString("event_type"))
+                .payload(rs.getBytes("payload_data"))
+                .attemptCount(rs.getInt("attempt_count"))
+                .processed(rs.getBoolean("processed"))
+                .locked(rs.getBoolean("locked"))
+                .lockExpiry(lockExpiry != null ? lockExpiry.toLocalDateTime() : null)
+                .nextAttemptAt(rs.getTimestamp("next_attempt_at").toLocalDateTime())
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseProduct databaseProduct;
+
+    public OutboxEventClaimRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProduct = new DatabaseProduct(jdbcTemplate.getDataSource());
+    }
+
+    @Override
+    public List<OutboxEvent> claimBatch(int limit, Collection<Integer> shards, LocalDateTime leaseExpiry,
+                                        LocalDateTime now) {
+        if (shards.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Integer[] shardArray = shards.toArray(Integer[]::new);
+        List<OutboxEvent> events = databaseProduct.isPostgres()
+                ? claimWithReturning(limit, shardArray, Timestamp.valueOf(leaseExpiry), Timestamp.valueOf(now))
+                : claimWithFinalTable(limit, shardArray, Timestamp.valueOf(leaseExpiry), Timestamp.valueOf(now));
+
+        // Neither RETURNING nor FINAL TABLE keep the order of the candidate select
+        events.sort(Comparator.comparing(OutboxEvent::getCreatedAt));
+        return events;
+    }
+
+    private List<OutboxEvent> claimWithReturning(int limit, Integer[] shards, Timestamp leaseExpiry, Timestamp now) {
+        return jdbcTemplate.query(POSTGRES_CLAIM, ps -> {
+            ps.setTimestamp(1, leaseExpiry);
+            ps.setTimestamp(2, now);
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", shards));
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+            ps.setInt(7, limit);
+        }, ROW_MAPPER);
+    }
+
+    private List<OutboxEvent> claimWithFinalTable(int limit, Integer[] shards, Timestamp leaseExpiry, Timestamp now) {
+        List<UUID> candidates = jdbcTemplate.query(H2_CANDIDATES, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("INTEGER", shards));
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+            ps.setInt(5, limit);
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UUID> ids = jdbcTemplate.query(H2_LOCK, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("UUID", candidates.toArray()));
+            ps.setTimestamp(2, now);
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return jdbcTemplate.query(H2_CLAIM, ps -> {
+            ps.setTimestamp(1, leaseExpiry);
+            ps.setTimestamp(2, now);
+            ps.setArray(3, ps.getConnection().createArrayOf("UUID", ids.toArray()));
+        }, ROW_MAPPER);
+    }
+}
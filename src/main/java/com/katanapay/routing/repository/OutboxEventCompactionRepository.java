@@ -0,0 +1,19 @@
+package com.katanapay.routing.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Custom repository fragment for removing processed outbox events.
+ */
+public interface OutboxEventCompactionRepository {
+
+    /**
+     * Deletes up to {@code limit} processed events created before {@code cutoff}.
+     * Runs as a single short statement, so it is meant to be called repeatedly, each call in its own transaction.
+     *
+     * @param cutoff the creation time before which processed events are deleted
+     * @param limit  the maximum number of events to delete
+     * @return the number of deleted events
+     */
+    int deleteProcessedBefore(LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,44 @@
+package com.katanapay.routing.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * JDBC implementation of the chunked delete.
+ * PostgreSQL has no {@code DELETE ... LIMIT}, so the chunk is selected by a sub-select on the primary key.
+ * H2 limits the delete directly, which avoids re-evaluating a sub-select for every deleted row.
+ */
+public class OutboxEventCompactionRepositoryImpl implements OutboxEventCompactionRepository {
+
+    private static final String POSTGRES_DELETE = """
+            DELETE FROM outbox_events
+            WHERE id IN (SELECT id
+                         FROM outbox_events
+                         WHERE processed = true
+                           AND created_at < ?
+                         LIMIT ?)
+            """;
+
+    private static final String H2_DELETE = """
+            DELETE FROM outbox_events
+            WHERE processed = true
+              AND created_at < ?
+            FETCH FIRST ? ROWS ONLY
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseProduct databaseProduct;
+
+    public OutboxEventCompactionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProduct = new DatabaseProduct(jdbcTemplate.getDataSource());
+    }
+
+    @Override
+    public int deleteProcessedBefore(LocalDateTime cutoff, int limit) {
+        String deleteStatement = databaseProduct.isPostgres() ? POSTGRES_DELETE : H2_DELETE;
+        return jdbcTemplate.update(deleteStatement, Timestamp.valueOf(cutoff), limit);
+    }
+}
@@ -1,42 +1,88 @@
 package com.katanapay.routing.repository;
 
 import com.katanapay.routing.model.entity.OutboxEvent;
+import com.katanapay.routing.outbox.OutboxBacklog;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID>, OutboxEventClaimRepository,
+        OutboxEventCompactionRepository {
 
     @Query("""
-            SELECT o
+            SELECT new com.katanapay.routing.outbox.OutboxBacklog(COUNT(o), MIN(o.createdAt))
             FROM OutboxEvent o
             WHERE o.processed = false
-                AND (o.locked = false
-                            OR o.lockExpiry < NOW())
-            ORDER BY o.createdAt ASC
-            LIMIT :limit
             """)
-    List<OutboxEvent> findUnprocessedEvents(@Param("limit") int limit);
+    OutboxBacklog findBacklog();
+
+    @Query("""
+            SELECT DISTINCT o.shard
+            FROM OutboxEvent o
+            WHERE o.shard IN :shards
+                AND o.processed = false
+                AND o.locked = true
+                AND o.lockExpiry > :now
+            """)
+    List<Integer> findShardsWithEventsInFlight(@Param("shards") Collection<Integer> shards,
+                                               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent o
+            SET o.processed = true,
+                o.locked = false,
+                o.lockExpiry = null,
+                o.updatedAt = :now
+            WHERE o.id IN :ids
+            """)
+    int markAsProcessed(@Param("ids") Collection<UUID> ids,
+                        @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent o
+            SET o.locked = false,
+                o.lockExpiry = null,
+                o.updatedAt = :now
+            WHERE o.id IN :ids
+            """)
+    int releaseLeases(@Param("ids") Collection<UUID> ids,
+                      @Param("now") LocalDateTime now);
 
     @Modifying
-    @Transactional
     @Query("""
             UPDATE OutboxEvent o
-            SET o.locked = true,
-                o.lockExpiry = :lockExpiry,
+            SET o.attemptCount = :attemptCount,
+                o.nextAttemptAt = :nextAttemptAt,
+                o.locked = false,
+                o.lockExpiry = null,
                 o.updatedAt = :now
             WHERE o.id = :id
-              AND (o.locked = false OR o.lockExpiry < :now)
             """)
-    int acquireLock(@Param("id") UUID id,
-                    @Param("lockExpiry") LocalDateTime lockExpiry,
+    int scheduleRetry(@Param("id") UUID id,
+                      @Param("attemptCount") int attemptCount,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent o
+            SET o.nextAttemptAt = :nextAttemptAt,
+                o.locked = false,
+                o.lockExpiry = null,
+                o.updatedAt = :now
+            WHERE o.id IN :ids
+            """)
+    int deferEvents(@Param("ids") Collection<UUID> ids,
+                    @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
                     @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,30 @@
+package com.katanapay.routing.repository;
+
+import com.katanapay.routing.model.entity.OutboxNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxNodeRepository extends JpaRepository<OutboxNode, String> {
+
+    @Query("""
+            SELECT n.nodeId
+            FROM OutboxNode n
+            WHERE n.heartbeatAt >= :since
+            ORDER BY n.nodeId ASC
+            """)
+    List<String> findLiveNodeIds(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("""
+            DELETE FROM OutboxNode n
+            WHERE n.heartbeatAt < :before
+            """)
+    int deleteStale(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,93 @@
+package com.katanapay.routing.repository;
+
+import com.katanapay.routing.model.entity.OutboxShardLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxShardLeaseRepository extends JpaRepository<OutboxShardLease, Integer> {
+
+    @Query("""
+            SELECT l.shard
+            FROM OutboxShardLease l
+            """)
+    List<Integer> findAllShards();
+
+    /**
+     * Inserts a shard without an owner. Fails instead of overwriting a shard another node created concurrently.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO outbox_shard_leases (shard, updated_at) VALUES (:shard, :now)", nativeQuery = true)
+    int insert(@Param("shard") int shard,
+               @Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT l.shard
+            FROM OutboxShardLease l
+            WHERE l.owner = :owner
+            ORDER BY l.shard ASC
+            """)
+    List<Integer> findShardsOwnedBy(@Param("owner") String owner);
+
+    @Query("""
+            SELECT l.shard
+            FROM OutboxShardLease l
+            WHERE l.shard < :shardCount
+                AND (l.owner IS NULL
+                            OR l.leaseExpiry < :now)
+            ORDER BY l.shard ASC
+            """)
+    List<Integer> findAvailableShards(@Param("shardCount") int shardCount,
+                                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxShardLease l
+            SET l.leaseExpiry = :leaseExpiry,
+                l.updatedAt = :now
+            WHERE l.owner = :owner
+            """)
+    int renew(@Param("owner") String owner,
+              @Param("leaseExpiry") LocalDateTime leaseExpiry,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxShardLease l
+            SET l.owner = :owner,
+                l.leaseExpiry = :leaseExpiry,
+                l.updatedAt = :now
+            WHERE l.shard = :shard
+                AND (l.owner IS NULL
+                            OR l.leaseExpiry < :now)
+            """)
+    int acquire(@Param("shard") int shard,
+                @Param("owner") String owner,
+                @Param("leaseExpiry") LocalDateTime leaseExpiry,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Gives up shards of the owner. Their events live on every database shard, so the caller checks there that
+     * none is still in flight; otherwise the next owner could publish an event ahead of an earlier event of the
+     * same aggregate.
+     */
+    @Modifying
+    @Query("""
+            UPDATE OutboxShardLease l
+            SET l.owner = null,
+                l.leaseExpiry = null,
+                l.updatedAt = :now
+            WHERE l.shard IN :shards
+                AND l.owner = :owner
+            """)
+    int release(@Param("shards") Collection<Integer> shards,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
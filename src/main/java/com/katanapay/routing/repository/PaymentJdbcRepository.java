@@ -0,0 +1,35 @@
+package com.katanapay.routing.repository;
+
+import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.model.entity.Payment;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Custom repository fragment for the hot payment queries, in plain JDBC without the persistence context.
+ */
+public interface PaymentJdbcRepository {
+
+    /**
+     * Reads a payment straight into its response, without loading the entity.
+     *
+     * @param id the ID of the payment
+     * @return the payment, empty if there is none with this ID
+     */
+    Optional<PaymentResponse> findResponseById(UUID id);
+
+    /**
+     * Sets the status and provider reference of a payment in a single statement and returns the updated row.
+     * The update bypasses the persistence context, so an instance of the payment already loaded in the current
+     * transaction is not updated with it.
+     *
+     * @param id                the ID of the payment
+     * @param status            the new status
+     * @param providerReference the new provider reference
+     * @param updatedAt         the time of the update
+     * @return the updated payment, not managed by JPA, empty if there is none with this ID
+     */
+    Optional<Payment> updateStatus(UUID id, Payment.Status status, String providerReference, LocalDateTime updatedAt);
+}
@@ -0,0 +1,106 @@
+package com.katanapay.routing.repository;
+
+import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.model.entity.Payment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the hot payment queries.
+ * A payment is read straight into its {@link PaymentResponse}, and a status change is a single {@code UPDATE}
+ * that returns the updated row: {@code UPDATE ... RETURNING} on PostgreSQL, {@code FINAL TABLE} on H2. Neither
+ * creates a managed entity, a snapshot for dirty checking or a flush.
+ * <p>
+ * The statements are constants, so the PostgreSQL driver keeps them prepared on the server per connection once
+ * they were run {@code prepareThreshold} times.
+ */
+public class PaymentJdbcRepositoryImpl implements PaymentJdbcRepository {
+
+    private static final String FIND_RESPONSE = """
+            SELECT id, amount, currency, masked_card_number, provider, status, provider_reference, created_at
+            FROM payments
+            WHERE id = ?
+            """;
+
+    private static final String UPDATE_STATUS = """
+            UPDATE payments
+            SET status = ?,
+                provider_reference = ?,
+                updated_at = ?
+            WHERE id = ?
+            """;
+
+    private static final String POSTGRES_UPDATE_STATUS = UPDATE_STATUS + "RETURNING *";
+
+    private static final String H2_UPDATE_STATUS = """
+            SELECT *
+            FROM FINAL TABLE (%s)
+            """.formatted(UPDATE_STATUS);
+
+    private static final ResultSetExtractor<Optional<PaymentResponse>> RESPONSE_EXTRACTOR =
+            rs -> rs.next() ? Optional.of(toResponse(rs)) : Optional.empty();
+
+    private static final ResultSetExtractor<Optional<Payment>> PAYMENT_EXTRACTOR =
+            rs -> rs.next() ? Optional.of(toPayment(rs)) : Optional.empty();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseProduct databaseProduct;
+
+    public PaymentJdbcRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProduct = new DatabaseProduct(jdbcTemplate.getDataSource());
+    }
+
+    @Override
+    public Optional<PaymentResponse> findResponseById(UUID id) {
+        return jdbcTemplate.query(FIND_RESPONSE, ps -> ps.setObject(1, id), RESPONSE_EXTRACTOR);
+    }
+
+    @Override
+    public Optional<Payment> updateStatus(UUID id, Payment.Status status, String providerReference,
+                                          LocalDateTime updatedAt) {
+        String updateStatement = databaseProduct.isPostgres() ? POSTGRES_UPDATE_STATUS : H2_UPDATE_STATUS;
+        return jdbcTemplate.query(updateStatement, ps -> {
+            ps.setString(1, status.name());
+            ps.setString(2, providerReference);
+            ps.setTimestamp(3, Timestamp.valueOf(updatedAt));
+            ps.setObject(4, id);
+        }, PAYMENT_EXTRACTOR);
+    }
+
+    private static PaymentResponse toResponse(ResultSet rs) throws SQLException {
+        return PaymentResponse.builder()
+                .id(rs.getObject("id", UUID.class))
+                .amount(rs.getBigDecimal("amount"))
+                .currency(rs.getString("currency"))
+                .maskedCardNumber(rs.getString("masked_card_number"))
+                .provider(rs.getString("provider"))
+                .status(rs.getString("status"))
+                .providerReference(rs.getString("provider_reference"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+
+    private static Payment toPayment(ResultSet rs) throws SQLException {
+        return Payment.builder()
+                .id(rs.getObject("id", UUID.class))
+                .amount(rs.getBigDecimal("amount"))
+                .currency(rs.getString("currency"))
+                .cardNumber(rs.getString("card_number"))
+                .maskedCardNumber(rs.getString("masked_card_number"))
+                .bin(rs.getString("bin"))
+                .provider(rs.getString("provider"))
+                .status(Payment.Status.valueOf(rs.getString("status")))
+                .providerReference(rs.getString("provider_reference"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .build();
+    }
+}
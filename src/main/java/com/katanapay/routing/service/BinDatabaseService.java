@@ -0,0 +1,17 @@
+package com.katanapay.routing.service;
+
+import com.katanapay.routing.bin.BinDatabase;
+
+/**
+ * Service interface for BIN range metadata.
+ * Provides the current memory-mapped BIN database; a database is never modified, only replaced.
+ */
+public interface BinDatabaseService {
+
+    /**
+     * Returns the most recently loaded BIN database.
+     *
+     * @return the current database
+     */
+    BinDatabase getDatabase();
+}
@@ -0,0 +1,17 @@
+package com.katanapay.routing.service;
+
+import com.katanapay.routing.money.FxRateSnapshot;
+
+/**
+ * Service interface for exchange rates.
+ * Provides the current rates as an immutable snapshot that callers can use without further synchronization.
+ */
+public interface FxRateService {
+
+    /**
+     * Returns the most recently loaded exchange rates.
+     *
+     * @return the current snapshot
+     */
+    FxRateSnapshot getSnapshot();
+}
@@ -0,0 +1,94 @@
+package com.katanapay.routing.service;
+
+import com.katanapay.routing.bin.BinDatabase;
+import com.katanapay.routing.bin.BinDatabaseCompiler;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Maps the BIN database compiled from a BIN range file and replaces it when the range file changes.
+ * <p>
+ * The compiled file is reused as long as it is newer than the range file, so a restart only maps it. A range
+ * file that cannot be compiled fails the startup; on a refresh it is logged and the previous database stays
+ * in use.
+ */
+@Slf4j
+@Service
+public class MainBinDatabaseService implements BinDatabaseService {
+
+    @Value("${bin.database.source:classpath:bin/bin-ranges.csv}")
+    private Resource source;
+
+    @Value("${bin.database.path:${java.io.tmpdir}/katanapay-routing/bin/bin-ranges.bin}")
+    private Path path;
+
+    private volatile BinDatabase database;
+
+    @PostConstruct
+    void init() throws IOException {
+        long startNanos = System.nanoTime();
+        database = load();
+        log.info("Mapped {} BIN ranges from {} in {} ms", database.getRangeCount(), path,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BinDatabase getDatabase() {
+        return database;
+    }
+
+    /**
+     * Checks the range file for changes at a fixed interval defined in application properties.
+     */
+    @Scheduled(fixedDelayString = "${bin.database.refresh-interval:300000}",
+            initialDelayString = "${bin.database.refresh-interval:300000}")
+    public void refresh() {
+        try {
+            if (isCompiledFileStale()) {
+                database = compileAndOpen();
+                log.info("Reloaded {} BIN ranges from {}", database.getRangeCount(), source);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to reload BIN ranges from {}, keeping the {} loaded ranges",
+                    source, database.getRangeCount(), e);
+        }
+    }
+
+    private BinDatabase load() throws IOException {
+        if (!isCompiledFileStale()) {
+            try {
+                return BinDatabase.open(path);
+            } catch (IOException e) {
+                log.warn("Cannot map the BIN database {}, compiling it again", path, e);
+            }
+        }
+        return compileAndOpen();
+    }
+
+    private BinDatabase compileAndOpen() throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8))) {
+            int rangeCount = BinDatabaseCompiler.compile(reader, path);
+            log.info("Compiled {} BIN ranges from {} into {}", rangeCount, source, path);
+        }
+        return BinDatabase.open(path);
+    }
+
+    private boolean isCompiledFileStale() throws IOException {
+        return !Files.exists(path) || source.lastModified() > Files.getLastModifiedTime(path).toMillis();
+    }
+}
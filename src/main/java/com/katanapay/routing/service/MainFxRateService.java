@@ -0,0 +1,86 @@
+package com.katanapay.routing.service;
+
+import com.katanapay.routing.money.FxRateSnapshot;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Loads exchange rates from a properties file and reloads it at a fixed interval.
+ * <p>
+ * The file names the base currency under {@code base} and maps every other currency code to the value of one
+ * of its major units in the base currency. A file that cannot be read or parsed fails the startup; on a refresh
+ * it is logged and the previous rates stay in use.
+ */
+@Slf4j
+@Service
+public class MainFxRateService implements FxRateService {
+
+    private static final String BASE_CURRENCY_KEY = "base";
+
+    @Value("${fx.rates.location:classpath:fx/rates.properties}")
+    private Resource ratesLocation;
+
+    private volatile FxRateSnapshot snapshot;
+
+    @PostConstruct
+    void init() throws IOException {
+        snapshot = load();
+        log.info("Loaded {} exchange rates into {} from {}", snapshot.getRateCount(), snapshot.getBaseCurrency(),
+                ratesLocation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FxRateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Reloads the rates at a fixed interval defined in application properties.
+     */
+    @Scheduled(fixedDelayString = "${fx.rates.refresh-interval:300000}",
+            initialDelayString = "${fx.rates.refresh-interval:300000}")
+    public void refresh() {
+        try {
+            snapshot = load();
+            log.debug("Reloaded {} exchange rates from {}", snapshot.getRateCount(), ratesLocation);
+        } catch (Exception e) {
+            log.warn("Failed to reload exchange rates from {}, keeping the rates loaded at {}",
+                    ratesLocation, snapshot.getLoadedAt(), e);
+        }
+    }
+
+    private FxRateSnapshot load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = ratesLocation.getInputStream()) {
+            properties.load(input);
+        }
+
+        String baseCurrency = properties.getProperty(BASE_CURRENCY_KEY);
+        if (baseCurrency == null) {
+            throw new IllegalArgumentException("Missing '" + BASE_CURRENCY_KEY + "' in " + ratesLocation);
+        }
+
+        Map<String, BigDecimal> ratesToBase = new HashMap<>();
+        for (String currency : properties.stringPropertyNames()) {
+            if (!BASE_CURRENCY_KEY.equals(currency)) {
+                ratesToBase.put(currency, new BigDecimal(properties.getProperty(currency).trim()));
+            }
+        }
+        return FxRateSnapshot.of(baseCurrency.trim(), ratesToBase, Instant.now());
+    }
+}
@@ -1,7 +1,15 @@
 package com.katanapay.routing.service;
 
 import com.katanapay.routing.exception.RoutingException;
+import com.katanapay.routing.datasource.Binding;
+import com.katanapay.routing.datasource.DatabaseShards;
 import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.event.PaymentEvent;
+import com.katanapay.routing.event.PaymentEventSerializer;
+import com.katanapay.routing.event.PaymentEventType;
+import com.katanapay.routing.jfr.PaymentProcessingEvent;
+import com.katanapay.routing.jfr.PaymentStageEvent;
+import com.katanapay.routing.metrics.PaymentMetrics;
 import com.katanapay.routing.dto.PaymentResponse;
 import com.katanapay.routing.dto.ProviderPaymentResponse;
 import com.katanapay.routing.model.entity.Payment;
@@ -11,7 +19,7 @@ import com.katanapay.routing.repository.PaymentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -25,32 +33,55 @@ public class MainPaymentService implements PaymentService {
     private final PaymentMapper paymentMapper;
     private final OutboxService outboxService;
     private final ProviderRoutingService providerRoutingService;
+    private final PaymentEventSerializer paymentEventSerializer;
+    private final PaymentMetrics paymentMetrics;
+    private final DatabaseShards databaseShards;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * {@inheritDoc}
      */
     @Override
-    @Transactional
     public PaymentResponse processPayment(PaymentRequest paymentRequest) {
         log.info("Processing payment request: {}", paymentRequest);
 
+        // the shard is picked with the ID and must be bound before the transaction takes its connection
+        UUID id = databaseShards.newPaymentId();
+        try (Binding ignored = DatabaseShards.bind(databaseShards.shardOf(id))) {
+            return transactionTemplate.execute(status -> processPayment(paymentRequest, id));
+        }
+    }
+
+    private PaymentResponse processPayment(PaymentRequest paymentRequest, UUID id) {
         Payment payment = paymentMapper.toEntity(paymentRequest);
-        payment.setId(UUID.randomUUID());
+        payment.setId(id);
 
+        PaymentProcessingEvent processingEvent = PaymentProcessingEvent.start();
+        long time = System.nanoTime();
+        PaymentStageEvent stageEvent = PaymentStageEvent.start();
         String provider = providerRoutingService.determineProvider(paymentRequest);
         payment.setProvider(provider);
+        time = completeStage(PaymentMetrics.Stage.ROUTING, stageEvent, payment, time);
 
+        stageEvent = PaymentStageEvent.start();
         payment = paymentRepository.save(payment);
+        time = completeStage(PaymentMetrics.Stage.PERSIST, stageEvent, payment, time);
 
+        stageEvent = PaymentStageEvent.start();
         ProviderPaymentResponse providerResponse = providerRoutingService.routePayment(payment);
+        time = completeStage(PaymentMetrics.Stage.PROVIDER, stageEvent, payment, time);
 
+        stageEvent = PaymentStageEvent.start();
         payment.setStatus(Payment.Status.valueOf(providerResponse.getStatus()));
         payment.setProviderReference(providerResponse.getProviderReference());
         payment.setUpdatedAt(LocalDateTime.now());
         payment = paymentRepository.save(payment);
+        time = completeStage(PaymentMetrics.Stage.PERSIST_RESULT, stageEvent, payment, time);
 
-        outboxService.createOutboxEvent("PAYMENT", payment.getId().toString(),
-                "PAYMENT_PROCESSED", payment.toString());
+        stageEvent = PaymentStageEvent.start();
+        publishEvent(PaymentEventType.PAYMENT_PROCESSED, payment);
+        completeStage(PaymentMetrics.Stage.PUBLISH_EVENT, stageEvent, payment, time);
+        processingEvent.complete(payment);
 
         log.info("Payment processed successfully with ID: {}", payment.getId());
 
@@ -61,36 +92,50 @@ public class MainPaymentService implements PaymentService {
      * {@inheritDoc}
      */
     @Override
-    @Transactional(readOnly = true)
     public PaymentResponse getPayment(UUID id) {
         log.debug("Retrieving payment details for ID: {}", id);
 
-        Payment payment = paymentRepository.findById(id)
-                .orElseThrow(() -> new RoutingException("Payment not found with ID: " + id));
-
-        return paymentMapper.toResponse(payment);
+        // a single query on the shard of the ID, read straight into the response without a transaction or an entity
+        try (Binding ignored = DatabaseShards.bind(databaseShards.shardOf(id))) {
+            return paymentRepository.findResponseById(id)
+                    .orElseThrow(() -> new RoutingException("Payment not found with ID: " + id));
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    @Transactional
     public PaymentResponse updatePaymentStatus(UUID paymentId, String providerReference, String status) {
         log.debug("Updating payment status: {} for ID: {} with reference: {}", status, paymentId, providerReference);
 
-        Payment payment = paymentRepository.findById(paymentId)
-                .orElseThrow(() -> new RoutingException("Payment not found with ID: " + paymentId));
+        try (Binding ignored = DatabaseShards.bind(databaseShards.shardOf(paymentId))) {
+            return transactionTemplate.execute(transaction -> {
+                // a single UPDATE returning the row, instead of loading, dirty checking and flushing the entity
+                Payment payment = paymentRepository.updateStatus(paymentId, Payment.Status.valueOf(status),
+                                providerReference, LocalDateTime.now())
+                        .orElseThrow(() -> new RoutingException("Payment not found with ID: " + paymentId));
 
-        payment.setStatus(Payment.Status.valueOf(status));
-        payment.setProviderReference(providerReference);
-        payment.setUpdatedAt(LocalDateTime.now());
+                publishEvent(PaymentEventType.PAYMENT_STATUS_CHANGED, payment);
 
-        payment = paymentRepository.save(payment);
+                return paymentMapper.toResponse(payment);
+            });
+        }
+    }
 
-        outboxService.createOutboxEvent("PAYMENT", payment.getId().toString(),
-                "PAYMENT_STATUS_CHANGED", payment.toString());
+    /**
+     * Records a stage of processing a payment that ends now, as a metric and as a flight recorder event.
+     *
+     * @return the current {@link System#nanoTime()}, the start of the next stage
+     */
+    private long completeStage(PaymentMetrics.Stage stage, PaymentStageEvent stageEvent, Payment payment,
+                               long startNanos) {
+        stageEvent.complete(stage, payment);
+        return paymentMetrics.record(stage, startNanos);
+    }
 
-        return paymentMapper.toResponse(payment);
+    private void publishEvent(PaymentEventType type, Payment payment) {
+        outboxService.createOutboxEvent("PAYMENT", payment.getId().toString(), type.name(),
+                paymentEventSerializer.serialize(PaymentEvent.of(type, payment)));
     }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.katanapay.routing.service;
 
+import com.katanapay.routing.bin.BinRange;
 import com.katanapay.routing.exception.RoutingException;
 import com.katanapay.routing.dto.PaymentRequest;
 import com.katanapay.routing.dto.ProviderPaymentResponse;
+import com.katanapay.routing.metrics.RoutingMetrics;
 import com.katanapay.routing.model.entity.Payment;
 import com.katanapay.routing.model.mapper.PaymentMapper;
+import com.katanapay.routing.money.Money;
 import com.katanapay.routing.provider.PaymentProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +16,6 @@ import org.springframework.retry.annotation.CircuitBreaker;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -29,8 +31,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MainProviderRoutingService implements ProviderRoutingService {
 
+    private static final int BIN_LENGTH = 6;
+
+    /**
+     * Amounts worth more than this many major units of the FX base currency (USD) are high-value.
+     */
+    private static final long HIGH_AMOUNT_THRESHOLD = 1000;
+
     private final PaymentMapper paymentMapper;
     private final List<PaymentProvider> providers;
+    private final FxRateService fxRateService;
+    private final BinDatabaseService binDatabaseService;
+    private final RoutingMetrics routingMetrics;
     private Map<String, PaymentProvider> providersByName;
 
     /**
@@ -42,48 +54,74 @@ public class MainProviderRoutingService implements ProviderRoutingService {
      * - For USD currency over $1000: Use Provider B
      * - For other currencies over equivalent of $1000: Use Provider A
      * - Default: Use Provider A
+     * <p>
+     * Amounts are converted with the current {@link FxRateService} snapshot; an amount in a currency without
+     * a rate is compared with 1000 of its own units.
+     * <p>
+     * The BIN range of the card, with its scheme, type, issuer country and issuer, is looked up in the
+     * {@link BinDatabaseService} and handed to the rules as their card input.
      */
     @Override // todo with May 8, 2026 end-date: refactor determineProvider FOR SURE in case of absence of high-priority tasks in real project!!!
     public String determineProvider(PaymentRequest paymentRequest) {
+        return determineProvider(paymentRequest, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String determineProvider(PaymentRequest paymentRequest, boolean record) {
         log.debug("Determining provider for payment request: {}", paymentRequest);
 
-        String bin = paymentRequest.getBin();
+        String cardNumber = paymentRequest.getCardNumber();
+        BinRange binRange = cardNumber != null
+                ? binDatabaseService.getDatabase().find(cardNumber)
+                : BinRange.UNKNOWN;
+        RoutingMetrics.Rule rule = determineRule(paymentRequest, binRange);
+        return record ? routingMetrics.record(rule) : rule.getProvider();
+    }
+
+    private RoutingMetrics.Rule determineRule(PaymentRequest paymentRequest, BinRange binRange) {
+        if (log.isDebugEnabled()) {
+            log.debug("Card BIN range: scheme={}, type={}, country={}, issuer={}", binRange.scheme(),
+                    binRange.cardType(), binRange.country(), binRange.issuer());
+        }
+
         String currency = paymentRequest.getCurrency();
-        BigDecimal amount = paymentRequest.getAmount();
+        Money amount = Money.of(paymentRequest.getAmount(), currency);
 
-        // BIN-based routing
-        if (bin != null) {
-            int binPrefix = Integer.parseInt(bin.substring(0, 1));
+        // BIN-based routing, on the first digit of the card number without cutting out the BIN
+        String cardNumber = paymentRequest.getCardNumber();
+        if (cardNumber != null && cardNumber.length() >= BIN_LENGTH) {
+            char binPrefix = cardNumber.charAt(0);
 
             // Visa BIN range (4xxxxx)
-            if (binPrefix == 4) {
+            if (binPrefix == '4') {
                 log.debug("Routing to Provider A based on Visa BIN range");
-                return "PROVIDER_A";
+                return RoutingMetrics.Rule.VISA_BIN;
             }
 
             // Mastercard BIN range (5xxxxx)
-            if (binPrefix == 5) {
+            if (binPrefix == '5') {
                 log.debug("Routing to Provider B based on Mastercard BIN range");
-                return "PROVIDER_B";
+                return RoutingMetrics.Rule.MASTERCARD_BIN;
             }
         }
 
         // Amount-based routing
-        BigDecimal threshold = new BigDecimal("1000.00");
-
-        if (amount.compareTo(threshold) > 0) {
+        if (fxRateService.getSnapshot().exceedsBaseMajorUnits(amount, HIGH_AMOUNT_THRESHOLD)) {
             if ("USD".equals(currency)) {
                 log.debug("Routing to Provider B based on high USD amount");
-                return "PROVIDER_B";
+                return RoutingMetrics.Rule.HIGH_AMOUNT_USD;
             } else {
                 log.debug("Routing to Provider A based on high non-USD amount");
-                return "PROVIDER_A";
+                return RoutingMetrics.Rule.HIGH_AMOUNT_NON_USD;
             }
         }
 
         // Default to Provider A
         log.debug("Using default routing to Provider A");
-        return "PROVIDER_A";
+        return RoutingMetrics.Rule.DEFAULT;
     }
 
     /**
@@ -19,6 +19,16 @@ public interface ProviderRoutingService {
      */
     String determineProvider(PaymentRequest paymentRequest);
 
+    /**
+     * Determines the provider like {@link #determineProvider(PaymentRequest)}, optionally without counting the
+     * decision in the routing metrics.
+     *
+     * @param paymentRequest the payment request containing card details, amount, currency, etc.
+     * @param record         whether the decision is counted; false for payments that are never processed
+     * @return the identifier of the selected provider
+     */
+    String determineProvider(PaymentRequest paymentRequest, boolean record);
+
     /**
      * Routes a payment to the previously determined provider.
      *
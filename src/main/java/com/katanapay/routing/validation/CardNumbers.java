@@ -0,0 +1,33 @@
+package com.katanapay.routing.validation;
+
+import java.util.Arrays;
+
+/**
+ * Card number helpers shared by the validation and the mapping of a payment request.
+ */
+public final class CardNumbers {
+
+    private static final int VISIBLE_DIGITS = 4;
+
+    private CardNumbers() {
+    }
+
+    /**
+     * Masks all but the last four characters of a card number in a single pass.
+     *
+     * @param cardNumber the card number, may be null
+     * @return the masked card number of the same length, fully masked if it has four characters or less
+     */
+    public static String mask(String cardNumber) {
+        if (cardNumber == null) {
+            return null;
+        }
+
+        int length = cardNumber.length();
+        int maskedLength = length > VISIBLE_DIGITS ? length - VISIBLE_DIGITS : length;
+        char[] masked = new char[length];
+        Arrays.fill(masked, 0, maskedLength, '*');
+        cardNumber.getChars(maskedLength, length, masked, maskedLength);
+        return new String(masked);
+    }
+}
@@ -0,0 +1,153 @@
+package com.katanapay.routing.validation;
+
+import com.katanapay.routing.bin.BinDatabase;
+import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.money.IsoCurrencies;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.math.BigDecimal;
+
+/**
+ * Validates a {@link PaymentRequest} and parses its card number, without regular expressions.
+ * <p>
+ * The currency is looked up in the precomputed {@link IsoCurrencies} table. The card number is read once: the same
+ * pass checks that it only has digits, computes the Luhn checksum and collects its BIN, and its length is then
+ * checked against the scheme of the BIN. The request itself is left as it is, and valid requests allocate nothing.
+ */
+@Component
+public class PaymentRequestValidator implements Validator {
+
+    static final int MIN_CARD_DIGITS = 12;
+    static final int MAX_CARD_DIGITS = 19;
+
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    // Fits the payments table and, in the minor units of any ISO 4217 currency (at most 4 decimals), a long
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999999999.99");
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return PaymentRequest.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        PaymentRequest request = (PaymentRequest) target;
+
+        BigDecimal amount = request.getAmount();
+        if (amount == null) {
+            errors.rejectValue("amount", "NotNull", "Amount is required");
+        } else if (amount.compareTo(MIN_AMOUNT) < 0) {
+            errors.rejectValue("amount", "DecimalMin", "Amount must be greater than 0");
+        } else if (amount.compareTo(MAX_AMOUNT) > 0) {
+            errors.rejectValue("amount", "DecimalMax", "Amount must not exceed " + MAX_AMOUNT.toPlainString());
+        }
+
+        String currency = request.getCurrency();
+        if (currency == null || currency.isBlank()) {
+            errors.rejectValue("currency", "NotBlank", "Currency is required");
+        } else if (IsoCurrencies.indexOf(currency) < 0) {
+            errors.rejectValue("currency", "Currency", "Currency must be in ISO 4217 format");
+        }
+
+        String cardNumber = request.getCardNumber();
+        if (cardNumber == null || cardNumber.isBlank()) {
+            errors.rejectValue("cardNumber", "NotBlank", "Card number is required");
+            return;
+        }
+        int bin = parseCardNumber(cardNumber);
+        if (bin < 0) {
+            errors.rejectValue("cardNumber", "CardNumber", CardNumberError.of(bin).message);
+        }
+    }
+
+    /**
+     * Checks a card number in a single pass.
+     *
+     * @param cardNumber the card number
+     * @return the first {@value BinDatabase#BIN_DIGITS} digits, or the negative code of a {@link CardNumberError}
+     */
+    static int parseCardNumber(String cardNumber) {
+        int length = cardNumber.length();
+        if (length < MIN_CARD_DIGITS || length > MAX_CARD_DIGITS) {
+            return CardNumberError.LENGTH.code;
+        }
+
+        int bin = 0;
+        int checksum = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = cardNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return CardNumberError.NOT_DIGITS.code;
+            }
+            if (i < BinDatabase.BIN_DIGITS) {
+                bin = bin * 10 + digit;
+            }
+            // Every second digit from the right is doubled
+            if (((length - i) & 1) == 0) {
+                digit = digit * 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            checksum += digit;
+        }
+
+        if (!isValidLength(bin / 100, length)) {
+            return CardNumberError.LENGTH.code;
+        }
+        return checksum % 10 == 0 ? bin : CardNumberError.CHECKSUM.code;
+    }
+
+    /**
+     * Checks the length of a card number against its scheme, known from the first six digits.
+     */
+    private static boolean isValidLength(int iin, int length) {
+        int two = iin / 10_000;
+        int three = iin / 1_000;
+        int four = iin / 100;
+
+        if (two == 34 || two == 37) {
+            // American Express
+            return length == 15;
+        }
+        if (two / 10 == 4) {
+            // Visa
+            return length == 13 || length == 16 || length == 19;
+        }
+        if ((two >= 51 && two <= 55) || (four >= 2221 && four <= 2720)) {
+            // Mastercard
+            return length == 16;
+        }
+        if (four == 6011 || two == 65 || (three >= 644 && three <= 649) || two == 62
+                || (four >= 3528 && four <= 3589)) {
+            // Discover, UnionPay, JCB
+            return length >= 16;
+        }
+        if ((three >= 300 && three <= 305) || three == 309 || two == 36 || two == 38 || two == 39) {
+            // Diners Club
+            return length >= 14;
+        }
+        // Maestro and schemes without a fixed length, within the ISO/IEC 7812 limits
+        return true;
+    }
+
+    enum CardNumberError {
+        LENGTH(-1, "Card number length does not match its card scheme"),
+        NOT_DIGITS(-2, "Card number must contain only digits"),
+        CHECKSUM(-3, "Card number is invalid");
+
+        private final int code;
+        private final String message;
+
+        CardNumberError(int code, String message) {
+            this.code = code;
+            this.message = message;
+        }
+
+        static CardNumberError of(int code) {
+            return values()[-code - 1];
+        }
+    }
+}
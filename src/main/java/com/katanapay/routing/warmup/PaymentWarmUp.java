@@ -0,0 +1,330 @@
+package com.katanapay.routing.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katanapay.routing.datasource.ConnectionPool;
+import com.katanapay.routing.datasource.ShardPools;
+import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.dto.ProviderPaymentRequest;
+import com.katanapay.routing.dto.ProviderPaymentResponse;
+import com.katanapay.routing.event.PaymentEvent;
+import com.katanapay.routing.event.PaymentEventSerializer;
+import com.katanapay.routing.event.PaymentEventType;
+import com.katanapay.routing.http.CachedJsonHttpMessageConverter;
+import com.katanapay.routing.model.entity.Payment;
+import com.katanapay.routing.model.mapper.PaymentMapper;
+import com.katanapay.routing.service.ProviderRoutingService;
+import com.katanapay.routing.validation.PaymentRequestValidator;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms the instance up before it reports ready, so the first payments after a deploy do not pay for a cold JIT,
+ * an empty connection pool and new provider connections.
+ * <p>
+ * Spring Boot reports the readiness state {@code ACCEPTING_TRAFFIC} only after all {@link ApplicationRunner}s
+ * returned, so {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE} until the warm-up is done:
+ * <ol>
+ *     <li>the request connection pool of every database shard is filled up to its minimum idle size and every
+ *     connection is validated,</li>
+ *     <li>idle keep-alive connections are opened to every provider endpoint, with {@code OPTIONS} requests that
+ *     cannot create a payment; they stay open for as long as the provider and the keep-alive cache of
+ *     {@link java.net.HttpURLConnection} allow,</li>
+ *     <li>synthetic payments of several card schemes, currencies and amounts are replayed through everything on
+ *     the payment path that needs neither the database nor a provider: reading the request JSON, validation,
+ *     {@link ProviderRoutingService#determineProvider}, the {@link PaymentMapper}, the provider JSON, the outbox
+ *     event serialization and writing the response JSON. The replay stops after the configured number of
+ *     payments or the maximum duration, whichever comes first.</li>
+ * </ol>
+ * The routing decisions of the synthetic payments are not counted. A step that fails is logged and skipped;
+ * the warm-up never keeps the instance from starting.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentWarmUp implements ApplicationRunner {
+
+    private static final String[] CARD_NUMBERS = {
+            "4111111111111111", // Visa
+            "5555555555554444", // Mastercard
+            "2223003122003222", // Mastercard 2-series
+            "6759649826438453", // Maestro
+            "378282246310005",  // American Express
+            "6011111111111117", // Discover
+            "3530111333300000", // JCB
+            "6200000000000005"  // UnionPay
+    };
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF"};
+    private static final String[] AMOUNTS = {"10.00", "249.99", "999.99", "1500.00", "25000.00"};
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final HttpHeaders JSON_HEADERS = jsonHeaders();
+
+    private final ProviderRoutingService providerRoutingService;
+    private final PaymentRequestValidator paymentRequestValidator;
+    private final PaymentMapper paymentMapper;
+    private final PaymentEventSerializer paymentEventSerializer;
+    private final ObjectMapper objectMapper;
+    private final ShardPools shardPools;
+    private final RestTemplate restTemplate;
+
+    @Value("${warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warm-up.iterations:20000}")
+    private int iterations;
+
+    @Value("${warm-up.max-duration:PT30S}")
+    private Duration maxDuration;
+
+    @Value("${warm-up.provider-connections:4}")
+    private int providerConnections;
+
+    @Value("${provider.endpoints.provider-a}")
+    private String providerAEndpoint;
+
+    @Value("${provider.endpoints.provider-b}")
+    private String providerBEndpoint;
+
+    /**
+     * What a warm-up did.
+     *
+     * @param databaseConnections  the connections borrowed from the pools at the same time
+     * @param providerAConnections the connections opened to Provider A
+     * @param providerBConnections the connections opened to Provider B
+     * @param payments             the synthetic payments replayed
+     * @param duration             how long the warm-up took
+     */
+    public record Result(int databaseConnections, int providerAConnections, int providerBConnections, int payments,
+                         Duration duration) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("Warm-up is disabled");
+            return;
+        }
+
+        Result result = warmUp();
+        log.info("Warmed up in {} ms: {} database connections, {} and {} provider connections, {} synthetic payments",
+                result.duration().toMillis(), result.databaseConnections(), result.providerAConnections(),
+                result.providerBConnections(), result.payments());
+    }
+
+    /**
+     * Runs all steps of the warm-up.
+     */
+    public Result warmUp() {
+        long start = System.nanoTime();
+        int databaseConnections = 0;
+        for (int shard = 0; shard < shardPools.shardCount(); shard++) {
+            databaseConnections += fillConnectionPool(shardPools.get(shard, ConnectionPool.REQUEST));
+        }
+        int providerAConnections = openProviderConnections(providerAEndpoint);
+        int providerBConnections = openProviderConnections(providerBEndpoint);
+        int payments = replayPayments();
+        return new Result(databaseConnections, providerAConnections, providerBConnections, payments,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Borrows as many connections as a request pool keeps idle at the same time, so the pool opens all of them
+     * now. The outbox and batch pools are left to their own work.
+     *
+     * @return the number of connections validated
+     */
+    private int fillConnectionPool(HikariDataSource dataSource) {
+        int size = dataSource.getMinimumIdle();
+        List<Connection> connections = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+        } catch (SQLException e) {
+            log.warn("Warm-up could not fill the connection pool", e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn("Warm-up could not return a connection to the pool", e);
+                }
+            }
+        }
+        return connections.size();
+    }
+
+    /**
+     * Sends concurrent {@code OPTIONS} requests to a provider endpoint, which leaves as many connections in the
+     * keep-alive cache. Any answer counts, the point is the connection.
+     *
+     * @return the number of requests that were answered
+     */
+    private int openProviderConnections(String endpoint) {
+        AtomicInteger answered = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < providerConnections; i++) {
+                executor.execute(() -> {
+                    try {
+                        restTemplate.optionsForAllow(endpoint);
+                        answered.incrementAndGet();
+                    } catch (RestClientResponseException e) {
+                        answered.incrementAndGet();
+                    } catch (RestClientException e) {
+                        log.warn("Warm-up could not connect to {}: {}", endpoint, e.getMessage());
+                    }
+                });
+            }
+        }
+        return answered.get();
+    }
+
+    /**
+     * Replays synthetic payments through the payment path without the database and the providers.
+     *
+     * @return the number of payments replayed
+     */
+    private int replayPayments() {
+        CachedJsonHttpMessageConverter paymentJson = new CachedJsonHttpMessageConverter(objectMapper,
+                PaymentRequest.class, PaymentResponse.class);
+        CachedJsonHttpMessageConverter providerJson = new CachedJsonHttpMessageConverter(objectMapper,
+                ProviderPaymentRequest.class, ProviderPaymentResponse.class);
+        byte[][] requests = syntheticRequests();
+        byte[] providerResponse = providerResponse();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        int replayed = 0;
+        try {
+            while (replayed < iterations && System.nanoTime() - deadline < 0) {
+                replay(requests[replayed % requests.length], providerResponse, paymentJson, providerJson, body);
+                replayed++;
+            }
+        } catch (Exception e) {
+            log.warn("Warm-up failed to replay a synthetic payment", e);
+        }
+        return replayed;
+    }
+
+    private void replay(byte[] requestJson, byte[] providerResponseJson, CachedJsonHttpMessageConverter paymentJson,
+                        CachedJsonHttpMessageConverter providerJson, ByteArrayOutputStream body) throws IOException {
+        PaymentRequest request = (PaymentRequest) paymentJson.read(PaymentRequest.class, new InputMessage(requestJson));
+        Errors errors = new BeanPropertyBindingResult(request, "paymentRequest");
+        paymentRequestValidator.validate(request, errors);
+        if (errors.hasErrors()) {
+            throw new IllegalStateException("Invalid synthetic payment: " + errors.getAllErrors());
+        }
+
+        Payment payment = paymentMapper.toEntity(request);
+        payment.setId(UUID.randomUUID());
+        payment.setProvider(providerRoutingService.determineProvider(request, false));
+
+        body.reset();
+        providerJson.write(paymentMapper.toProviderRequest(payment), MediaType.APPLICATION_JSON, new OutputMessage(body));
+        ProviderPaymentResponse providerResponse = (ProviderPaymentResponse) providerJson.read(
+                ProviderPaymentResponse.class, new InputMessage(providerResponseJson));
+        payment.setStatus(Payment.Status.valueOf(providerResponse.getStatus()));
+        payment.setProviderReference(providerResponse.getProviderReference());
+
+        paymentEventSerializer.serialize(PaymentEvent.of(PaymentEventType.PAYMENT_PROCESSED, payment));
+
+        body.reset();
+        paymentJson.write(paymentMapper.toResponse(payment), MediaType.APPLICATION_JSON, new OutputMessage(body));
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private byte[][] syntheticRequests() {
+        byte[][] requests = new byte[CARD_NUMBERS.length * CURRENCIES.length * AMOUNTS.length][];
+        int i = 0;
+        for (String cardNumber : CARD_NUMBERS) {
+            for (String currency : CURRENCIES) {
+                for (String amount : AMOUNTS) {
+                    requests[i++] = toJson(Map.of("amount", new BigDecimal(amount), "currency", currency,
+                            "cardNumber", cardNumber));
+                }
+            }
+        }
+        return requests;
+    }
+
+    private byte[] providerResponse() {
+        return toJson(Map.of("paymentId", UUID.randomUUID().toString(), "status", "COMPLETED",
+                "providerReference", "WARM-UP"));
+    }
+
+    private byte[] toJson(Map<String, ?> fields) {
+        try {
+            return objectMapper.writeValueAsBytes(fields);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write a synthetic payment", e);
+        }
+    }
+
+    private record InputMessage(byte[] json) implements HttpInputMessage {
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(json);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return JSON_HEADERS;
+        }
+    }
+
+    private record OutputMessage(OutputStream body, HttpHeaders headers) implements HttpOutputMessage {
+
+        private OutputMessage(OutputStream body) {
+            this(body, new HttpHeaders());
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.katanapay.routing.benchmark;
+
+import com.katanapay.routing.PaymentRoutingApplication;
+import com.katanapay.routing.simulator.ProviderSimulator;
+import com.katanapay.routing.simulator.ProviderSimulator.Provider;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Launches the application in a fresh JVM, for the benchmarks of what happens right after a start.
+ * <p>
+ * The JVM runs on the classpath of this one, without the test classes and devtools, which is not packaged, and
+ * with the application classes packed into a jar, since class data sharing only archives classes from jars.
+ * Logs and the files the application writes are kept in the work directory.
+ */
+final class ApplicationLauncher {
+
+    static final Path CLASSES = Path.of("target/classes");
+
+    private final Path workDirectory;
+    private final String classpath;
+
+    /**
+     * @param workDirectory the directory for the logs and files of the runs, emptied first
+     */
+    ApplicationLauncher(Path workDirectory) throws IOException {
+        this.workDirectory = workDirectory;
+        deleteRecursively(workDirectory);
+        Files.createDirectories(workDirectory);
+        this.classpath = applicationClasspath();
+    }
+
+    Path workDirectory() {
+        return workDirectory;
+    }
+
+    /**
+     * Starts the application.
+     *
+     * @param jvmOptions the options of the JVM
+     * @param arguments  the application arguments
+     * @param logName    the name of the file in the work directory that gets the output
+     */
+    Process launch(List<String> jvmOptions, List<String> arguments, String logName) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(classpath);
+        command.add(PaymentRoutingApplication.class.getName());
+        command.addAll(arguments);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDirectory.resolve(logName).toFile())
+                .start();
+    }
+
+    /**
+     * Arguments that keep the files of a run in the work directory and point the providers at the simulator.
+     */
+    List<String> sandboxArguments(ProviderSimulator simulator, int port) {
+        return List.of(
+                "--server.port=" + port,
+                "--provider.endpoints.provider-a=" + simulator.url(Provider.A),
+                "--provider.endpoints.provider-b=" + simulator.url(Provider.B),
+                "--bin.database.path=" + workDirectory.resolve("bin/bin-ranges.bin"),
+                "--outbox.publisher.event-log.directory=" + workDirectory.resolve("outbox-log-" + port));
+    }
+
+    /**
+     * Shuts the application down gracefully, or kills it after 30 seconds.
+     */
+    static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private String applicationClasspath() throws IOException {
+        Path applicationJar = workDirectory.resolve("katanapay-routing.jar");
+        packClasses(applicationJar);
+
+        List<String> entries = new ArrayList<>();
+        entries.add(applicationJar.toString());
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (entry.endsWith(".jar") && !entry.contains("spring-boot-devtools")) {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void packClasses(Path jar) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(CLASSES)) {
+            for (Path path : (Iterable<Path>) files.filter(path -> !path.equals(CLASSES))::iterator) {
+                String name = CLASSES.relativize(path).toString().replace(File.separatorChar, '/');
+                // component scanning lists packages through their directory entries
+                boolean directory = Files.isDirectory(path);
+                out.putNextEntry(new JarEntry(directory ? name + "/" : name));
+                if (!directory) {
+                    Files.copy(path, out);
+                }
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.katanapay.routing.benchmark;
+
+import com.katanapay.routing.bin.BinDatabase;
+import com.katanapay.routing.bin.BinDatabaseCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a BIN range lookup by card number in a memory-mapped database of the given size.
+ * Half of the card numbers fall into a gap between ranges. Compiling and mapping the database is printed
+ * once per trial.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class BinDatabaseBenchmark {
+
+    private static final int CARD_NUMBERS = 4096;
+
+    @Param({"10000", "1000000", "5000000"})
+    public int rangeCount;
+
+    private Path directory;
+    private BinDatabase database;
+    private String[] cardNumbers;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bin-benchmark");
+        Path source = directory.resolve("bin-ranges.csv");
+        Path path = directory.resolve("bin-ranges.bin");
+
+        // Ranges of 8-digit BINs spread over the whole BIN space, every other slot is left empty
+        int slot = 90_000_000 / (rangeCount * 2);
+        try (BufferedWriter writer = Files.newBufferedWriter(source)) {
+            for (int i = 0; i < rangeCount; i++) {
+                int low = 10_000_000 + i * 2 * slot;
+                writer.write(low + "," + (low + slot - 1) + ",VISA,US,DEBIT,Issuer " + i % 1000 + "\n");
+            }
+        }
+
+        long compileStart = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(source)) {
+            BinDatabaseCompiler.compile(reader, path);
+        }
+        long openStart = System.nanoTime();
+        database = BinDatabase.open(path);
+        System.out.printf("%n%d ranges: compiled in %d ms, mapped in %d us, %d bytes%n", rangeCount,
+                (openStart - compileStart) / 1_000_000, (System.nanoTime() - openStart) / 1_000, Files.size(path));
+
+        Random random = new Random(42);
+        cardNumbers = new String[CARD_NUMBERS];
+        for (int i = 0; i < CARD_NUMBERS; i++) {
+            cardNumbers[i] = (10_000_000 + random.nextInt(90_000_000)) + "12345678";
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public int lookup() {
+        next = (next + 1) & (CARD_NUMBERS - 1);
+        return database.lookup(cardNumbers[next]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.katanapay.routing.benchmark;
+
+import com.katanapay.routing.jfr.PaymentStageEvent;
+import com.katanapay.routing.metrics.PaymentMetrics;
+import com.katanapay.routing.model.entity.Payment;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a payment stage event, without a recording and with one recording every stage or only stages above
+ * a threshold. Without a recording the event should cost nothing and allocate nothing.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FlightRecorderEventBenchmark {
+
+    @Param({"disabled", "enabled", "threshold"})
+    private String recording;
+
+    private Recording jfrRecording;
+    private Payment payment;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payment = Payment.builder()
+                .id(UUID.randomUUID())
+                .provider("PROVIDER_A")
+                .build();
+
+        if (!"disabled".equals(recording)) {
+            jfrRecording = new Recording();
+            jfrRecording.enable(PaymentStageEvent.class)
+                    .withThreshold("threshold".equals(recording) ? Duration.ofMillis(10) : Duration.ZERO);
+            jfrRecording.setToDisk(false);
+            jfrRecording.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (jfrRecording != null) {
+            jfrRecording.close();
+        }
+    }
+
+    @Benchmark
+    public void stageEvent() {
+        PaymentStageEvent event = PaymentStageEvent.start();
+        event.complete(PaymentMetrics.Stage.ROUTING, payment);
+    }
+}
@@ -0,0 +1,86 @@
+package com.katanapay.routing.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Prints the change in score and in allocation per operation between two JMH JSON result files, for example
+ * the results of two commits. Benchmarks are matched by name and parameters; ones found in only one file
+ * are listed with an empty side.
+ * <p>
+ * Usage: {@code JmhResultComparison <baseline.json> <current.json>}
+ */
+public final class JmhResultComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private JmhResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultComparison <baseline.json> <current.json>");
+            System.exit(2);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = resultsByKey(objectMapper.readTree(Path.of(args[0]).toFile()));
+        Map<String, JsonNode> current = resultsByKey(objectMapper.readTree(Path.of(args[1]).toFile()));
+
+        Map<String, JsonNode> keys = new LinkedHashMap<>(baseline);
+        current.forEach(keys::putIfAbsent);
+
+        System.out.printf("%-70s %14s %14s %9s %12s %12s%n",
+                "Benchmark", "Baseline", "Current", "Change", "Base B/op", "Current B/op");
+        for (Map.Entry<String, JsonNode> entry : keys.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = current.get(entry.getKey());
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+
+            System.out.printf("%-70s %14s %14s %9s %12s %12s%n",
+                    entry.getKey(),
+                    format(score(before), unit),
+                    format(score(after), unit),
+                    change(score(before), score(after)),
+                    format(allocation(before), ""),
+                    format(allocation(after), ""));
+        }
+    }
+
+    private static Map<String, JsonNode> resultsByKey(JsonNode results) {
+        Map<String, JsonNode> resultsByKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String benchmark = result.path("benchmark").asText();
+            StringJoiner params = new StringJoiner(",", ":", "").setEmptyValue("");
+            result.path("params").fields().forEachRemaining(param ->
+                    params.add(param.getKey() + "=" + param.getValue().asText()));
+            resultsByKey.put(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1)
+                    + params, result);
+        }
+        return resultsByKey;
+    }
+
+    private static double score(JsonNode result) {
+        return result == null ? Double.NaN : result.path("primaryMetric").path("score").asDouble(Double.NaN);
+    }
+
+    private static double allocation(JsonNode result) {
+        return result == null ? Double.NaN
+                : result.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(Double.NaN);
+    }
+
+    private static String format(double value, String unit) {
+        return Double.isNaN(value) ? "-" : "%.1f %s".formatted(value, unit).strip();
+    }
+
+    private static String change(double before, double after) {
+        return Double.isNaN(before) || Double.isNaN(after) || before == 0
+                ? "-" : "%+.1f%%".formatted((after - before) / before * 100);
+    }
+}
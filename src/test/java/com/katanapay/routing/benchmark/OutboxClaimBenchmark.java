@@ -0,0 +1,141 @@
+package com.katanapay.routing.benchmark;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+import com.katanapay.routing.repository.OutboxEventClaimRepositoryImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Latency of claiming a batch of outbox events while many processed rows wait for compaction.
+ * The schema is created by the real Liquibase changelog, so the measured plan uses the shipped indexes.
+ * Every claim is rolled back, so each invocation sees the same table.
+ * <p>
+ * Defaults to in-memory H2 with up to 1M processed rows. The 50M-row case needs a real database, e.g.
+ * {@code -p jdbcUrl=jdbc:postgresql://localhost:5432/outbox_bench -p user=postgres -p password=... -p processedRows=50000000}.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class OutboxClaimBenchmark {
+
+    private static final int INSERT_CHUNK = 1_000_000;
+
+    // A single node owning all 16 shards
+    private static final List<Integer> SHARDS = IntStream.range(0, 16).boxed().toList();
+
+    private static final String H2_INSERT = """
+            INSERT INTO outbox_events (id, aggregate_type, aggregate_id, shard, event_type, payload_data,
+                                       attempt_count, processed, locked, next_attempt_at, created_at, updated_at)
+            SELECT RANDOM_UUID(), 'PAYMENT', CAST(X AS VARCHAR), MOD(X, 16), 'PAYMENT_PROCESSED', X'0101', 0, ?, false,
+                   DATEADD(MILLISECOND, X - ?, CURRENT_TIMESTAMP), DATEADD(MILLISECOND, X - ?, CURRENT_TIMESTAMP),
+                   CURRENT_TIMESTAMP
+            FROM SYSTEM_RANGE(?, ?)
+            """;
+
+    private static final String POSTGRES_INSERT = """
+            INSERT INTO outbox_events (id, aggregate_type, aggregate_id, shard, event_type, payload_data,
+                                       attempt_count, processed, locked, next_attempt_at, created_at, updated_at)
+            SELECT gen_random_uuid(), 'PAYMENT', x::text, x % 16, 'PAYMENT_PROCESSED', '\\x0101'::bytea, 0, ?, false,
+                   now() + (x - ?) * interval '1 millisecond', now() + (x - ?) * interval '1 millisecond', now()
+            FROM generate_series(?::bigint, ?::bigint) AS x
+            """;
+
+    @Param("jdbc:h2:mem:outbox_claim_benchmark;DB_CLOSE_DELAY=-1")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    @Param({"0", "1000000"})
+    public long processedRows;
+
+    @Param("10000")
+    public long pendingRows;
+
+    @Param("100")
+    public int batchSize;
+
+    private HikariDataSource dataSource;
+    private TransactionTemplate transactionTemplate;
+    private OutboxEventClaimRepositoryImpl claimRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(jdbcUrl);
+        dataSource.setUsername(user);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(2);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setDropFirst(true);
+        liquibase.afterPropertiesSet();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        boolean postgres = jdbcUrl.startsWith("jdbc:postgresql:");
+        String insert = postgres ? POSTGRES_INSERT : H2_INSERT;
+        long totalRows = processedRows + pendingRows;
+        // Processed rows are the oldest ones, pending rows are due now
+        for (long from = 1; from <= totalRows; from += INSERT_CHUNK) {
+            long to = Math.min(from + INSERT_CHUNK - 1, totalRows);
+            long processedTo = Math.min(to, processedRows);
+            if (from <= processedTo) {
+                jdbcTemplate.update(insert, true, totalRows, totalRows, from, processedTo);
+            }
+            if (to > processedRows) {
+                jdbcTemplate.update(insert, false, totalRows, totalRows, Math.max(from, processedRows + 1), to);
+            }
+        }
+        if (postgres) {
+            jdbcTemplate.execute("ANALYZE outbox_events");
+        }
+
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        claimRepository = new OutboxEventClaimRepositoryImpl(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<OutboxEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            LocalDateTime now = LocalDateTime.now();
+            return claimRepository.claimBatch(batchSize, SHARDS, now.plusMinutes(5), now);
+        });
+    }
+}
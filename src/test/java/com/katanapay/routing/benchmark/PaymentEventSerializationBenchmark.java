@@ -0,0 +1,79 @@
+package com.katanapay.routing.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katanapay.routing.event.PaymentEvent;
+import com.katanapay.routing.event.PaymentEventSerializer;
+import com.katanapay.routing.event.PaymentEventType;
+import com.katanapay.routing.model.entity.Payment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost and size of an outbox payment event.
+ * {@code legacy} is the former {@code payment.toString()} payload. The payload size of each format is
+ * printed when its trial starts.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PaymentEventSerializationBenchmark {
+
+    @Param({"legacy", "binary", "json"})
+    public String format;
+
+    private Payment payment;
+    private PaymentEventSerializer serializer;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payment = Payment.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("1234.56"))
+                .currency("USD")
+                .cardNumber("4111111111111111")
+                .bin("411111")
+                .provider("providerA")
+                .status(Payment.Status.COMPLETED)
+                .providerReference("PA-" + UUID.randomUUID())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        serializer = new PaymentEventSerializer(new ObjectMapper().findAndRegisterModules(),
+                "legacy".equals(format) ? "binary" : format, 512);
+        payload = serialize();
+        System.out.printf("%n%s payload: %d bytes per event%n", format, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        if ("legacy".equals(format)) {
+            return payment.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return serializer.serialize(PaymentEvent.of(PaymentEventType.PAYMENT_PROCESSED, payment));
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return "legacy".equals(format) ? null : serializer.deserialize(payload);
+    }
+}
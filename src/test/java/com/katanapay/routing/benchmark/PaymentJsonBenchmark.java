@@ -0,0 +1,152 @@
+package com.katanapay.routing.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.dto.ProviderPaymentRequest;
+import com.katanapay.routing.dto.ProviderPaymentResponse;
+import com.katanapay.routing.http.CachedJsonHttpMessageConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading and writing the payment DTOs as JSON, with an {@link ObjectMapper} configured like the one
+ * Spring Boot gives the HTTP message converters and the provider client. The DTOs are read from and written to
+ * byte arrays, as on the wire.
+ * <p>
+ * The {@code ...Converter} benchmarks go through the HTTP message converters instead, comparing the generic
+ * Jackson converter with the {@link CachedJsonHttpMessageConverter} used by the controllers and the provider
+ * client. Both read from and write into mock messages, which allocate the same for either converter.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PaymentJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private MappingJackson2HttpMessageConverter genericConverter;
+    private CachedJsonHttpMessageConverter cachedConverter;
+    private byte[] paymentRequestJson;
+    private byte[] providerResponseJson;
+    private PaymentResponse paymentResponse;
+    private ProviderPaymentRequest providerRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        genericConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        cachedConverter = new CachedJsonHttpMessageConverter(objectMapper,
+                PaymentRequest.class, PaymentResponse.class, ProviderPaymentResponse.class);
+
+        UUID paymentId = UUID.randomUUID();
+        paymentRequestJson = """
+                {"amount":1234.56,"currency":"USD","cardNumber":"4111111111111111"}"""
+                .getBytes(StandardCharsets.UTF_8);
+        providerResponseJson = objectMapper.writeValueAsBytes(ProviderPaymentResponse.builder()
+                .paymentId(paymentId.toString())
+                .providerReference("PA-" + UUID.randomUUID())
+                .status("COMPLETED")
+                .build());
+        paymentResponse = PaymentResponse.builder()
+                .id(paymentId)
+                .amount(new BigDecimal("1234.56"))
+                .currency("USD")
+                .maskedCardNumber("************1111")
+                .provider("PROVIDER_A")
+                .status("COMPLETED")
+                .providerReference("PA-" + UUID.randomUUID())
+                .createdAt(LocalDateTime.now())
+                .build();
+        providerRequest = ProviderPaymentRequest.builder()
+                .paymentId(paymentId)
+                .amount(new BigDecimal("1234.56"))
+                .currency("USD")
+                .cardNumber("************1111")
+                .bin("411111")
+                .build();
+    }
+
+    @Benchmark
+    public PaymentRequest readPaymentRequest() throws IOException {
+        return objectMapper.readValue(paymentRequestJson, PaymentRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writePaymentResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(paymentResponse);
+    }
+
+    @Benchmark
+    public byte[] writeProviderRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(providerRequest);
+    }
+
+    @Benchmark
+    public ProviderPaymentResponse readProviderResponse() throws IOException {
+        return objectMapper.readValue(providerResponseJson, ProviderPaymentResponse.class);
+    }
+
+    @Benchmark
+    public Object readPaymentRequestGenericConverter() throws IOException {
+        return genericConverter.read(PaymentRequest.class, PaymentJsonBenchmark.class, jsonMessage(paymentRequestJson));
+    }
+
+    @Benchmark
+    public Object readPaymentRequestCachedConverter() throws IOException {
+        return cachedConverter.read(PaymentRequest.class, jsonMessage(paymentRequestJson));
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage writePaymentResponseGenericConverter() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        genericConverter.write(paymentResponse, PaymentResponse.class, MediaType.APPLICATION_JSON, message);
+        return message;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage writePaymentResponseCachedConverter() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        cachedConverter.write(paymentResponse, MediaType.APPLICATION_JSON, message);
+        return message;
+    }
+
+    @Benchmark
+    public Object readProviderResponseGenericConverter() throws IOException {
+        return genericConverter.read(ProviderPaymentResponse.class, PaymentJsonBenchmark.class,
+                jsonMessage(providerResponseJson));
+    }
+
+    @Benchmark
+    public Object readProviderResponseCachedConverter() throws IOException {
+        return cachedConverter.read(ProviderPaymentResponse.class, jsonMessage(providerResponseJson));
+    }
+
+    private static MockHttpInputMessage jsonMessage(byte[] json) {
+        MockHttpInputMessage message = new MockHttpInputMessage(json);
+        message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return message;
+    }
+}
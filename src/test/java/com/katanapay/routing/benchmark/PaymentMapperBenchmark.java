@@ -0,0 +1,77 @@
+package com.katanapay.routing.benchmark;
+
+import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.dto.ProviderPaymentRequest;
+import com.katanapay.routing.model.entity.Payment;
+import com.katanapay.routing.model.mapper.PaymentMapper;
+import com.katanapay.routing.model.mapper.PaymentMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct mappings done for every payment.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PaymentMapperBenchmark {
+
+    private PaymentMapper paymentMapper;
+    private PaymentRequest paymentRequest;
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        paymentMapper = new PaymentMapperImpl();
+        paymentRequest = PaymentRequest.builder()
+                .amount(new BigDecimal("1234.56"))
+                .currency("USD")
+                .cardNumber("4111111111111111")
+                .build();
+        payment = Payment.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("1234.56"))
+                .currency("USD")
+                .cardNumber("4111111111111111")
+                .maskedCardNumber("************1111")
+                .bin("411111")
+                .provider("PROVIDER_A")
+                .status(Payment.Status.COMPLETED)
+                .providerReference("PA-" + UUID.randomUUID())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public Payment toEntity() {
+        return paymentMapper.toEntity(paymentRequest);
+    }
+
+    @Benchmark
+    public PaymentResponse toResponse() {
+        return paymentMapper.toResponse(payment);
+    }
+
+    @Benchmark
+    public ProviderPaymentRequest toProviderRequest() {
+        return paymentMapper.toProviderRequest(payment);
+    }
+}
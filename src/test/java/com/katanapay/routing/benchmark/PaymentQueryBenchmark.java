@@ -0,0 +1,169 @@
+package com.katanapay.routing.benchmark;
+
+import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.model.entity.Payment;
+import com.katanapay.routing.model.mapper.PaymentMapper;
+import com.katanapay.routing.model.mapper.PaymentMapperImpl;
+import com.katanapay.routing.repository.PaymentJdbcRepositoryImpl;
+import com.katanapay.routing.repository.PaymentRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import liquibase.integration.spring.SpringLiquibase;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a payment and changing its status through JPA, the way {@code MainPaymentService} did, against the
+ * JDBC fast path of {@link PaymentJdbcRepositoryImpl}.
+ * <p>
+ * Both run on the real schema in in-memory H2, with the bytecode enhanced {@link Payment} of
+ * {@code target/classes}, in a transaction of a {@link JpaTransactionManager} like in the application. Reads are
+ * read-only transactions for JPA and plain statements for JDBC, as in the service. Status changes are committed;
+ * every invocation updates the next of a set of payments. Run with {@code -prof gc} for the allocation per call.
+ */
+@Fork(1)
+// Hibernate takes long to be compiled, the JPA paths keep getting faster over the first 30 s
+@Warmup(iterations = 8, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class PaymentQueryBenchmark {
+
+    private static final int PAYMENTS = 1024;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private PaymentRepository paymentRepository;
+    private PaymentJdbcRepositoryImpl paymentJdbcRepository;
+    private PaymentMapper paymentMapper;
+    private UUID[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:payment_query_benchmark;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setDropFirst(true);
+        liquibase.afterPropertiesSet();
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.katanapay.routing.model.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.physical_naming_strategy",
+                CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        paymentJdbcRepository = new PaymentJdbcRepositoryImpl(new JdbcTemplate(dataSource));
+        paymentRepository = new JpaRepositoryFactory(
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                .getRepository(PaymentRepository.class, RepositoryFragments.just(paymentJdbcRepository));
+        paymentMapper = new PaymentMapperImpl();
+
+        ids = new UUID[PAYMENTS];
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < PAYMENTS; i++) {
+                ids[i] = UUID.randomUUID();
+                paymentRepository.save(Payment.builder()
+                        .id(ids[i])
+                        .amount(new BigDecimal("1234.56"))
+                        .currency("USD")
+                        .cardNumber("4111111111111111")
+                        .maskedCardNumber("************1111")
+                        .bin("411111")
+                        .provider("PROVIDER_A")
+                        .status(Payment.Status.PROCESSING)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build());
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public PaymentResponse getPaymentJpa() {
+        UUID id = nextId();
+        return readOnlyTransactionTemplate.execute(status -> paymentMapper.toResponse(
+                paymentRepository.findById(id).orElseThrow()));
+    }
+
+    @Benchmark
+    public PaymentResponse getPaymentJdbc() {
+        return paymentJdbcRepository.findResponseById(nextId()).orElseThrow();
+    }
+
+    @Benchmark
+    public PaymentResponse updateStatusJpa() {
+        UUID id = nextId();
+        return transactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findById(id).orElseThrow();
+            payment.setStatus(Payment.Status.COMPLETED);
+            payment.setProviderReference("PA-REF");
+            payment.setUpdatedAt(LocalDateTime.now());
+            return paymentMapper.toResponse(paymentRepository.save(payment));
+        });
+    }
+
+    @Benchmark
+    public PaymentResponse updateStatusJdbc() {
+        UUID id = nextId();
+        return transactionTemplate.execute(status -> paymentMapper.toResponse(paymentJdbcRepository
+                .updateStatus(id, Payment.Status.COMPLETED, "PA-REF", LocalDateTime.now())
+                .orElseThrow()));
+    }
+
+    private UUID nextId() {
+        UUID id = ids[next];
+        next = (next + 1) & (PAYMENTS - 1);
+        return id;
+    }
+}
@@ -0,0 +1,128 @@
+package com.katanapay.routing.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.katanapay.routing.bin.BinDatabase;
+import com.katanapay.routing.bin.BinDatabaseCompiler;
+import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.dto.ProviderPaymentRequest;
+import com.katanapay.routing.dto.ProviderPaymentResponse;
+import com.katanapay.routing.metrics.RoutingMetrics;
+import com.katanapay.routing.money.FxRateSnapshot;
+import com.katanapay.routing.provider.ProviderA;
+import com.katanapay.routing.provider.ProviderB;
+import com.katanapay.routing.service.MainProviderRoutingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the provider decision and of the provider request preprocessing on the payment hot path.
+ * The card is a JCB card from the sample BIN ranges, so routing looks up its BIN range and then reaches the
+ * amount threshold.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PaymentRoutingBenchmark {
+
+    private static final ProviderPaymentResponse RESPONSE = ProviderPaymentResponse.builder()
+            .status("COMPLETED")
+            .providerReference("PB-1")
+            .build();
+
+    @Param({"USD", "JPY"})
+    public String currency;
+
+    private MainProviderRoutingService routingService;
+    private ProviderA providerA;
+    private ProviderB providerB;
+    private PaymentRequest paymentRequest;
+    private ProviderPaymentRequest providerRequest;
+
+    // Keeps the preprocessed request reachable, so its allocation is not optimized away
+    private ProviderPaymentRequest sentRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        FxRateSnapshot fxRates = FxRateSnapshot.of("USD", Map.of("JPY", new BigDecimal("0.0067")), Instant.now());
+        BinDatabase binDatabase = compileSampleBinRanges();
+        routingService = new MainProviderRoutingService(null, List.of(), () -> fxRates, () -> binDatabase,
+                new RoutingMetrics(new SimpleMeterRegistry()));
+        providerA = new ProviderA((endpoint, request) -> {
+            sentRequest = request;
+            return RESPONSE;
+        });
+        providerB = new ProviderB((endpoint, request) -> {
+            sentRequest = request;
+            return RESPONSE;
+        });
+
+        BigDecimal amount = "JPY".equals(currency) ? new BigDecimal("150000") : new BigDecimal("1500.00");
+        paymentRequest = PaymentRequest.builder()
+                .amount(amount)
+                .currency(currency)
+                .cardNumber("3530111333300000")
+                .build();
+        providerRequest = ProviderPaymentRequest.builder()
+                .paymentId(UUID.randomUUID())
+                .amount(amount)
+                .currency(currency)
+                .cardNumber("3530111333300000")
+                .bin("353011")
+                .build();
+    }
+
+    private static BinDatabase compileSampleBinRanges() throws IOException {
+        Path path = Files.createTempFile("bin-ranges", ".bin");
+        path.toFile().deleteOnExit();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                PaymentRoutingBenchmark.class.getResourceAsStream("/bin/bin-ranges.csv"), StandardCharsets.UTF_8))) {
+            BinDatabaseCompiler.compile(reader, path);
+        }
+        return BinDatabase.open(path);
+    }
+
+    @Benchmark
+    public String determineProvider() {
+        return routingService.determineProvider(paymentRequest);
+    }
+
+    @Benchmark
+    public ProviderPaymentResponse providerAPreprocessing() {
+        return providerA.processPayment(providerRequest);
+    }
+
+    @Benchmark
+    public ProviderPaymentResponse providerBPreprocessing() {
+        return providerB.processPayment(providerRequest);
+    }
+}
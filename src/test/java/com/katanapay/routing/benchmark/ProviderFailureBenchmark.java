@@ -0,0 +1,125 @@
+package com.katanapay.routing.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.katanapay.routing.client.MainProviderClient;
+import com.katanapay.routing.dto.ProviderPaymentRequest;
+import com.katanapay.routing.exception.GlobalExceptionHandler;
+import com.katanapay.routing.exception.ProviderException;
+import com.katanapay.routing.logging.LogRateLimiter;
+import com.katanapay.routing.metrics.ProviderMetrics;
+import com.katanapay.routing.provider.ProviderA;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the failure path while a provider answers every request with 503: one provider call through
+ * {@link MainProviderClient} and {@link ProviderA}, and the error response of the {@link GlobalExceptionHandler}.
+ * Retries are left out, as are their backoff delays. Everything is logged as in production, through a pattern
+ * layout into {@code target/provider-failure-benchmark.log}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ProviderFailureBenchmark {
+
+    private static final String ENDPOINT = "http://provider-a.test/api/v1/payments";
+
+    private FileAppender<ILoggingEvent> appender;
+    private ProviderA providerA;
+    private GlobalExceptionHandler exceptionHandler;
+    private ProviderPaymentRequest request;
+    private MockHttpServletRequest httpRequest;
+
+    @Setup
+    public void setUp() {
+        logToFile();
+
+        RestTemplate restTemplate = new RestTemplate((uri, method) -> {
+            MockClientHttpRequest httpRequest = new MockClientHttpRequest(method, uri);
+            httpRequest.setResponse(new MockClientHttpResponse(
+                    "{\"error\":\"unavailable\"}".getBytes(), HttpStatus.SERVICE_UNAVAILABLE));
+            return httpRequest;
+        });
+        ProviderMetrics providerMetrics = new ProviderMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(providerMetrics, "providerAEndpoint", ENDPOINT);
+        ReflectionTestUtils.setField(providerMetrics, "providerBEndpoint", ENDPOINT);
+        ReflectionTestUtils.invokeMethod(providerMetrics, "registerMeters");
+
+        providerA = new ProviderA(new MainProviderClient(restTemplate, providerMetrics));
+        ReflectionTestUtils.setField(providerA, "providerEndpoint", ENDPOINT);
+        exceptionHandler = new GlobalExceptionHandler(new LogRateLimiter(Duration.ofSeconds(10), 5));
+        request = ProviderPaymentRequest.builder()
+                .paymentId(UUID.randomUUID())
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .cardNumber("4111111111111111")
+                .bin("411111")
+                .build();
+        httpRequest = new MockHttpServletRequest("POST", "/api/v1/payments");
+    }
+
+    @TearDown
+    public void tearDown() {
+        appender.stop();
+    }
+
+    private void logToFile() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level %pid --- [%15.15thread] %-40.40logger{39} : %msg%n");
+        encoder.start();
+
+        appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile("target/provider-failure-benchmark.log");
+        appender.setAppend(false);
+        appender.setEncoder(encoder);
+        appender.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+        root.setLevel(Level.INFO);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> failingProvider() {
+        try {
+            return ResponseEntity.ok(providerA.processPayment(request));
+        } catch (ProviderException e) {
+            return exceptionHandler.handleProviderException(e, httpRequest);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.katanapay.routing.benchmark;
+
+import com.katanapay.routing.simulator.ProviderSimulator;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the time from launching the application JVM to its first successful payment, for each way the
+ * application can be started:
+ * <ul>
+ *     <li>{@code default}: the default profile, everything created eagerly,</li>
+ *     <li>{@code prod}: the {@code prod} profile, with lazy initialization and without springdoc and the H2 console,</li>
+ *     <li>{@code prod+cds}: the same with a class data sharing archive, trained like the {@code startup} build
+ *     profile does it,</li>
+ *     <li>{@code prod+aot} and {@code prod+aot+cds}: the same with the Spring AOT initializers, only when
+ *     {@code target/classes} holds them, i.e. after {@code mvn -P startup package}.</li>
+ * </ul>
+ * Every run is a fresh JVM started by the {@link ApplicationLauncher}. The database is an in-memory H2 database
+ * and the providers are a {@link ProviderSimulator}. A payment is posted every few milliseconds from the launch
+ * on, until one is answered with 201. The startup time logged by Spring Boot is reported too; the difference is
+ * the JVM start before it and the web server and first request after it.
+ * <p>
+ * Usage: {@code StartupBenchmark [runs per variant]}
+ */
+public final class StartupBenchmark {
+
+    private static final Path WORK_DIRECTORY = Path.of("target/startup-benchmark");
+    private static final String AOT_INITIALIZER =
+            "com/katanapay/routing/PaymentRoutingApplication__ApplicationContextInitializer.class";
+    private static final Pattern STARTED = Pattern.compile("Started PaymentRoutingApplication in ([0-9.]+) seconds");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final String PAYMENT = """
+            {"amount":100.00,"currency":"USD","cardNumber":"4111111111111111"}""";
+
+    private StartupBenchmark() {
+    }
+
+    private record Variant(String name, boolean prod, boolean aot, boolean cds) {
+    }
+
+    private record Run(long firstPaymentMillis, long startedMillis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        ApplicationLauncher launcher = new ApplicationLauncher(WORK_DIRECTORY);
+        boolean aotAvailable = Files.exists(ApplicationLauncher.CLASSES.resolve(AOT_INITIALIZER));
+
+        List<Variant> variants = new ArrayList<>(List.of(
+                new Variant("default", false, false, false),
+                new Variant("prod", true, false, false),
+                new Variant("prod+cds", true, false, true)));
+        if (aotAvailable) {
+            variants.add(new Variant("prod+aot", true, true, false));
+            variants.add(new Variant("prod+aot+cds", true, true, true));
+        } else {
+            System.out.println("No AOT initializers in " + ApplicationLauncher.CLASSES + ", run mvn -P startup package to measure them");
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        try (ProviderSimulator simulator = ProviderSimulator.start()) {
+            System.out.printf("%-14s %6s %18s %18s %16s%n",
+                    "Variant", "Runs", "First payment p50", "First payment min", "Started p50");
+            for (Variant variant : variants) {
+                if (variant.cds()) {
+                    train(launcher, variant, simulator);
+                }
+                long[] firstPayment = new long[runs];
+                long[] started = new long[runs];
+                for (int i = 0; i < runs; i++) {
+                    Run run = measure(launcher, variant, i, simulator, httpClient);
+                    firstPayment[i] = run.firstPaymentMillis();
+                    started[i] = run.startedMillis();
+                }
+                Arrays.sort(firstPayment);
+                Arrays.sort(started);
+                System.out.printf("%-14s %6d %15d ms %15d ms %13d ms%n",
+                        variant.name(), runs, firstPayment[runs / 2], firstPayment[0], started[runs / 2]);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the context once and writes the classes loaded by then to the archive of the variant, with the
+     * same options as the {@code startup} build profile: no database, the JVM exits right after the refresh.
+     */
+    private static void train(ApplicationLauncher launcher, Variant variant, ProviderSimulator simulator)
+            throws Exception {
+        List<String> jvmOptions = jvmOptions(variant,
+                "-XX:ArchiveClassesAtExit=" + archive(variant), "-Dspring.context.exit=onRefresh");
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--spring.profiles.active=prod,cds-training");
+        arguments.addAll(launcher.sandboxArguments(simulator, ApplicationLauncher.freePort()));
+
+        Process process = launcher.launch(jvmOptions, arguments, variant.name() + "-training.log");
+        if (!process.waitFor(START_TIMEOUT.toSeconds(), TimeUnit.SECONDS) || process.exitValue() != 0) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Training run of " + variant.name() + " failed, see its log in "
+                    + WORK_DIRECTORY);
+        }
+    }
+
+    private static Run measure(ApplicationLauncher launcher, Variant variant, int index, ProviderSimulator simulator,
+                               HttpClient httpClient) throws Exception {
+        int port = ApplicationLauncher.freePort();
+        List<String> jvmOptions = variant.cds()
+                ? jvmOptions(variant, "-XX:SharedArchiveFile=" + archive(variant))
+                : jvmOptions(variant);
+        List<String> arguments = new ArrayList<>();
+        if (variant.prod()) {
+            arguments.add("--spring.profiles.active=prod");
+        }
+        arguments.addAll(launcher.sandboxArguments(simulator, port));
+        arguments.add("--spring.datasource.url=jdbc:h2:mem:startup");
+        arguments.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        arguments.add("--spring.datasource.username=sa");
+        arguments.add("--spring.datasource.password=");
+
+        HttpRequest payment = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/payments"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(PAYMENT))
+                .build();
+        String logName = variant.name() + "-" + index + ".log";
+
+        long launchedAt = System.nanoTime();
+        Process process = launcher.launch(jvmOptions, arguments, logName);
+        try {
+            long firstPaymentAt = awaitFirstPayment(httpClient, payment, process, launchedAt);
+            return new Run(TimeUnit.NANOSECONDS.toMillis(firstPaymentAt - launchedAt),
+                    startedMillis(WORK_DIRECTORY.resolve(logName)));
+        } finally {
+            ApplicationLauncher.stop(process);
+        }
+    }
+
+    private static long awaitFirstPayment(HttpClient httpClient, HttpRequest payment, Process process,
+                                          long launchedAt) throws Exception {
+        while (System.nanoTime() - launchedAt < START_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(payment, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 201) {
+                    return System.nanoTime();
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new IllegalStateException("No successful payment within " + START_TIMEOUT);
+    }
+
+    private static List<String> jvmOptions(Variant variant, String... options) {
+        List<String> jvmOptions = new ArrayList<>(List.of(options));
+        if (variant.aot()) {
+            jvmOptions.add("-Dspring.aot.enabled=true");
+        }
+        return jvmOptions;
+    }
+
+    private static long startedMillis(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Math.round(Double.parseDouble(matcher.group(1)) * 1000) : -1;
+    }
+
+    private static Path archive(Variant variant) {
+        return WORK_DIRECTORY.resolve(variant.name().replace('+', '-') + ".jsa");
+    }
+}
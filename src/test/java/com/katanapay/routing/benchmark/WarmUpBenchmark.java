@@ -0,0 +1,119 @@
+package com.katanapay.routing.benchmark;
+
+import com.katanapay.routing.performance.load.LoadRunResult;
+import com.katanapay.routing.performance.load.OpenModelLoadGenerator;
+import com.katanapay.routing.simulator.ProviderSimulator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of the first minute of traffic after a restart, with and without the warm-up.
+ * <p>
+ * Each variant is a fresh JVM started by the {@link ApplicationLauncher} with the default profile, so on an
+ * in-memory H2 database, and with the providers pointed at a {@link ProviderSimulator}. Traffic starts when
+ * {@code /actuator/health/readiness} reports {@code UP}, as it would behind a load balancer, and runs at a
+ * constant rate in consecutive windows, each reported on its own line. The time from the launch to readiness is
+ * the price of the warm-up.
+ * <p>
+ * Usage: {@code WarmUpBenchmark [requests per second] [window seconds] [windows]}
+ */
+public final class WarmUpBenchmark {
+
+    private static final Path WORK_DIRECTORY = Path.of("target/warm-up-benchmark");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final String[] CARD_NUMBERS = {
+            "4111111111111111", "5555555555554444", "2223003122003222", "378282246310005", "6011111111111117"
+    };
+
+    private WarmUpBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = args.length > 0 ? Double.parseDouble(args[0]) : 50;
+        Duration window = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 10);
+        int windows = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+
+        ApplicationLauncher launcher = new ApplicationLauncher(WORK_DIRECTORY);
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        try (ProviderSimulator simulator = ProviderSimulator.start()) {
+            for (boolean warmUp : new boolean[]{false, true}) {
+                measure(launcher, warmUp, simulator, httpClient, rate, window, windows);
+            }
+        }
+    }
+
+    private static void measure(ApplicationLauncher launcher, boolean warmUp, ProviderSimulator simulator,
+                                HttpClient httpClient, double rate, Duration window, int windows) throws Exception {
+        int port = ApplicationLauncher.freePort();
+        List<String> arguments = new ArrayList<>(launcher.sandboxArguments(simulator, port));
+        arguments.add("--warm-up.enabled=" + warmUp);
+
+        String variant = warmUp ? "warm-up" : "no warm-up";
+        long launchedAt = System.nanoTime();
+        Process process = launcher.launch(List.of(), arguments, (warmUp ? "warm-up" : "no-warm-up") + ".log");
+        try {
+            awaitReadiness(httpClient, URI.create("http://localhost:" + port + "/actuator/health/readiness"),
+                    process, launchedAt);
+            System.out.printf("%s: ready %d ms after the launch%n",
+                    variant, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchedAt));
+
+            URI payments = URI.create("http://localhost:" + port + "/api/v1/payments");
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(httpClient,
+                    sequence -> payment(payments, sequence), response -> response.statusCode() == 201,
+                    1000, Duration.ofSeconds(30));
+            System.out.printf("  %-8s %8s %10s %10s %10s %8s%n", "Window", "Requests", "p50", "p99", "max", "Errors");
+            for (int i = 0; i < windows; i++) {
+                LoadRunResult run = generator.run(rate, window);
+                System.out.printf("  %3d-%3ds %8d %7.1f ms %7.1f ms %7.1f ms %8d%n",
+                        i * window.toSeconds(), (i + 1) * window.toSeconds(), run.requests(),
+                        millis(run.latencyAt(50)), millis(run.latencyAt(99)), millis(run.latencyAt(100)),
+                        run.failed() + run.dropped());
+            }
+        } finally {
+            ApplicationLauncher.stop(process);
+        }
+    }
+
+    private static void awaitReadiness(HttpClient httpClient, URI readiness, Process process, long launchedAt)
+            throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(readiness).GET().build();
+        while (System.nanoTime() - launchedAt < START_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + process.exitValue());
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new IllegalStateException("Not ready within " + START_TIMEOUT);
+    }
+
+    private static HttpRequest payment(URI payments, int sequence) {
+        String body = """
+                {"amount":%d.00,"currency":"USD","cardNumber":"%s"}"""
+                .formatted(10 + sequence % 990, CARD_NUMBERS[sequence % CARD_NUMBERS.length]);
+        return HttpRequest.newBuilder(payments)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,157 @@
+package com.katanapay.routing.bin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BinDatabaseTest {
+
+    private static final String RANGES = """
+            # low,high,scheme,country,type,issuer
+            510000,555554,MASTERCARD,,,
+            400000,411110,VISA,,,
+            411111,411111,visa,US,credit,Sample Issuing Bank US
+            4111120,4539999,VISA,,,
+            454000,454099,VISA,GB,DEBIT,Sample Issuing Bank UK
+
+            45410000,45410099,VISA,GB,PREPAID,Sample Issuing Bank UK
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldFindRangesWithTheirMetadata() throws IOException {
+        // Given
+        BinDatabase database = compile(RANGES);
+
+        // When
+        int visaUs = database.lookup("4111111111111111");
+        int prepaid = database.lookup("4541005000000000");
+
+        // Then
+        assertThat(database.getRangeCount()).isEqualTo(6);
+        assertThat(database.scheme(visaUs)).isEqualTo(CardScheme.VISA);
+        assertThat(database.cardType(visaUs)).isEqualTo(CardType.CREDIT);
+        assertThat(database.country(visaUs)).isEqualTo("US");
+        assertThat(database.issuer(visaUs)).isEqualTo("Sample Issuing Bank US");
+        assertThat(database.lowBin(visaUs)).isEqualTo(41111100);
+        assertThat(database.highBin(visaUs)).isEqualTo(41111199);
+
+        assertThat(database.cardType(prepaid)).isEqualTo(CardType.PREPAID);
+        assertThat(database.issuer(prepaid)).isEqualTo("Sample Issuing Bank UK");
+
+        int mastercard = database.lookup("5105105105105100");
+        assertThat(database.scheme(mastercard)).isEqualTo(CardScheme.MASTERCARD);
+        assertThat(database.cardType(mastercard)).isEqualTo(CardType.UNKNOWN);
+        assertThat(database.country(mastercard)).isNull();
+        assertThat(database.issuer(mastercard)).isNull();
+
+        BinRange range = database.find("4111111111111111");
+        assertThat(range.index()).isEqualTo(visaUs);
+        assertThat(range.country()).isEqualTo("US");
+        assertThat(range.issuer()).isEqualTo("Sample Issuing Bank US");
+        assertThat(database.find("3999999999999999")).isEqualTo(BinRange.UNKNOWN);
+        assertThat(BinRange.UNKNOWN.scheme()).isEqualTo(CardScheme.UNKNOWN);
+        assertThat(BinRange.UNKNOWN.issuer()).isNull();
+    }
+
+    @Test
+    void shouldMatchRangeBoundsAndMissGaps() throws IOException {
+        // Given
+        BinDatabase database = compile(RANGES);
+
+        // When / Then
+        assertThat(database.lookup(40000000)).isZero();
+        assertThat(database.lookup(41111099)).isZero();
+        assertThat(database.lookup(41111100)).isEqualTo(1);
+        assertThat(database.lookup(45410100)).isEqualTo(-1);
+        assertThat(database.lookup(39999999)).isEqualTo(-1);
+        assertThat(database.lookup(55555499)).isEqualTo(5);
+        assertThat(database.lookup(55555500)).isEqualTo(-1);
+        assertThat(database.lookup("411111")).isEqualTo(1);
+        assertThat(database.lookup("41111")).isEqualTo(-1);
+        assertThat(database.lookup("4111-1111-1111-1111")).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldFindEveryRangeOfALargeDatabase() throws IOException {
+        // Given
+        int rangeCount = 200_000;
+        StringBuilder ranges = new StringBuilder();
+        for (int i = rangeCount - 1; i >= 0; i--) {
+            int low = 10_000_000 + i * 400;
+            ranges.append(low).append(',').append(low + 199).append(",VISA,US,DEBIT,Issuer ").append(i % 100).append('\n');
+        }
+        BinDatabase database = compile(ranges.toString());
+
+        // When / Then
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            int range = random.nextInt(rangeCount);
+            int low = 10_000_000 + range * 400;
+            assertThat(database.lookup(low + random.nextInt(200))).isEqualTo(range);
+            assertThat(database.lookup(low + 200 + random.nextInt(200))).isEqualTo(-1);
+        }
+        assertThat(database.issuer(rangeCount - 1)).isEqualTo("Issuer " + (rangeCount - 1) % 100);
+        assertThat(Files.size(database.getPath())).isLessThan(rangeCount * 17L);
+    }
+
+    @Test
+    void shouldKeepServingAMappedDatabaseWhenTheFileIsReplaced() throws IOException {
+        // Given
+        BinDatabase previous = compile(RANGES);
+
+        // When
+        BinDatabase current = compile("222100,272099,MASTERCARD,,CREDIT,\n");
+
+        // Then
+        assertThat(current.getRangeCount()).isEqualTo(1);
+        assertThat(current.scheme(current.lookup("2221000000000009"))).isEqualTo(CardScheme.MASTERCARD);
+        assertThat(previous.country(previous.lookup("4111111111111111"))).isEqualTo("US");
+    }
+
+    @Test
+    void shouldRejectInvalidRanges() {
+        // When / Then
+        assertThatThrownBy(() -> compile("400000,499999,VISA,,,\n450000,450099,VISA,,,\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("overlap");
+        assertThatThrownBy(() -> compile("400000,499999,BANKCARD,,,\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 1");
+        assertThatThrownBy(() -> compile("499999,400000,VISA,,,\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compile("4000,4999,VISA,,,\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compile("400000,499999,VISA,USA,,\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotABinDatabase() throws IOException {
+        // Given
+        Path file = directory.resolve("ranges.csv");
+        Files.writeString(file, RANGES);
+
+        // When / Then
+        assertThatThrownBy(() -> BinDatabase.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a BIN database");
+    }
+
+    private BinDatabase compile(String ranges) throws IOException {
+        Path path = directory.resolve("bin-ranges.bin");
+        BinDatabaseCompiler.compile(new BufferedReader(new StringReader(ranges)), path);
+        return BinDatabase.open(path);
+    }
+}
@@ -0,0 +1,110 @@
+package com.katanapay.routing.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katanapay.routing.model.entity.Payment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PaymentEventSerializerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"binary", "json"})
+    void shouldRoundTripEvent(String format) {
+        // Given
+        PaymentEventSerializer serializer = new PaymentEventSerializer(OBJECT_MAPPER, format, -1);
+        PaymentEvent event = PaymentEvent.of(PaymentEventType.PAYMENT_PROCESSED, payment());
+
+        // When
+        byte[] payload = serializer.serialize(event);
+
+        // Then
+        assertThat(serializer.deserialize(payload)).isEqualTo(event);
+        assertThat(payload[1]).isEqualTo((byte) PaymentEvent.SCHEMA_VERSION);
+    }
+
+    @Test
+    void shouldNeverWriteFullCardNumber() {
+        // Given
+        PaymentEventSerializer serializer = new PaymentEventSerializer(OBJECT_MAPPER, "json", -1);
+        Payment payment = payment();
+
+        // When
+        PaymentEvent event = PaymentEvent.of(PaymentEventType.PAYMENT_PROCESSED, payment);
+        String payload = new String(serializer.serialize(event), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(event.cardLast4()).isEqualTo("1111");
+        assertThat(payload).doesNotContain(payment.getCardNumber());
+    }
+
+    @Test
+    void shouldCompressLargeBodiesAndReadAnyFormat() {
+        // Given
+        PaymentEventSerializer jsonWriter = new PaymentEventSerializer(OBJECT_MAPPER, "json", 64);
+        PaymentEventSerializer binaryWriter = new PaymentEventSerializer(OBJECT_MAPPER, "binary", -1);
+        Payment payment = payment();
+        payment.setProviderReference("REF-" + "X".repeat(500));
+        PaymentEvent event = PaymentEvent.of(PaymentEventType.PAYMENT_STATUS_CHANGED, payment);
+
+        // When
+        byte[] compressed = jsonWriter.serialize(event);
+
+        // Then
+        byte[] uncompressed = new PaymentEventSerializer(OBJECT_MAPPER, "json", -1).serialize(event);
+        assertThat(compressed[0] & 0x80).isNotZero();
+        assertThat(compressed.length).isLessThan(uncompressed.length / 2);
+        assertThat(binaryWriter.deserialize(compressed)).isEqualTo(event);
+    }
+
+    @Test
+    void shouldKeepBinaryPayloadCompact() {
+        // Given
+        PaymentEventSerializer serializer = new PaymentEventSerializer(OBJECT_MAPPER, "binary", 512);
+        Payment payment = payment();
+
+        // When
+        byte[] payload = serializer.serialize(PaymentEvent.of(PaymentEventType.PAYMENT_PROCESSED, payment));
+
+        // Then
+        assertThat(payload.length).isLessThan(payment.toString().length() / 2);
+    }
+
+    @Test
+    void shouldRejectUnsupportedSchemaVersion() {
+        // Given
+        PaymentEventSerializer serializer = new PaymentEventSerializer(OBJECT_MAPPER, "binary", -1);
+        byte[] payload = serializer.serialize(PaymentEvent.of(PaymentEventType.PAYMENT_PROCESSED, payment()));
+        payload[1] = 99;
+
+        // When / Then
+        assertThatThrownBy(() -> serializer.deserialize(payload))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("schema version");
+    }
+
+    private static Payment payment() {
+        return Payment.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("1234.56"))
+                .currency("USD")
+                .cardNumber("4111111111111111")
+                .bin("411111")
+                .provider("providerA")
+                .status(Payment.Status.COMPLETED)
+                .providerReference("PA-" + UUID.randomUUID())
+                .createdAt(LocalDateTime.of(2026, 10, 19, 12, 30, 15, 123_456_000))
+                .updatedAt(LocalDateTime.of(2026, 10, 19, 12, 30, 16, 654_321_000))
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.katanapay.routing.eventlog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SegmentedEventLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadAppendedRecordsInOffsetOrder() throws IOException {
+        // Given
+        try (SegmentedEventLog eventLog = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+
+            // When
+            long firstOffset = eventLog.append(records(0, 3));
+            long nextOffset = eventLog.append(record(3));
+
+            // Then
+            assertThat(firstOffset).isZero();
+            assertThat(nextOffset).isEqualTo(3);
+            assertThat(eventLog.getCommittedOffset()).isEqualTo(4);
+            assertThat(payloads(eventLog.read(1, 10))).containsExactly("event-1", "event-2", "event-3");
+            assertThat(eventLog.read(1, 10)).extracting(LogRecord::offset).containsExactly(1L, 2L, 3L);
+            assertThat(eventLog.read(4, 10)).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldRollSegmentsAndReadAcrossThem() throws IOException {
+        // Given
+        try (SegmentedEventLog eventLog = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+
+            // When
+            eventLog.append(records(0, 500));
+
+            // Then
+            try (var files = Files.list(directory)) {
+                assertThat(files.filter(path -> path.toString().endsWith(".log")).count()).isGreaterThan(1);
+            }
+            EventLogConsumer consumer = eventLog.consumer(0);
+            List<String> consumed = new ArrayList<>();
+            List<LogRecord> batch;
+            while (!(batch = consumer.poll(64)).isEmpty()) {
+                consumed.addAll(payloads(batch));
+            }
+            assertThat(consumed).containsExactlyElementsOf(payloads(0, 500));
+            assertThat(consumer.getPosition()).isEqualTo(500);
+        }
+    }
+
+    @Test
+    void shouldRecoverRecordsAndContinueOffsetsAfterReopen() throws IOException {
+        // Given
+        try (SegmentedEventLog eventLog = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+            eventLog.append(records(0, 300));
+        }
+
+        // When
+        try (SegmentedEventLog eventLog = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+            long offset = eventLog.append(record(300));
+
+            // Then
+            assertThat(offset).isEqualTo(300);
+            assertThat(payloads(eventLog.read(0, 1000))).containsExactlyElementsOf(payloads(0, 301));
+        }
+    }
+
+    @Test
+    void shouldTruncateCorruptTailOnReopen() throws IOException {
+        // Given
+        try (SegmentedEventLog eventLog = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+            eventLog.append(records(0, 3));
+        }
+        // Flip a payload byte of the last record, as a torn write would
+        Path segment = directory.resolve(LogSegment.fileName(0, "log"));
+        int lastRecordPayload = 2 * (LogSegment.RECORD_HEADER_SIZE + "event-0".length()) + LogSegment.RECORD_HEADER_SIZE;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), lastRecordPayload);
+        }
+
+        // When
+        try (SegmentedEventLog eventLog = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+            long offset = eventLog.append(record(99));
+
+            // Then
+            assertThat(offset).isEqualTo(2);
+            assertThat(payloads(eventLog.read(0, 10))).containsExactly("event-0", "event-1", "event-99");
+        }
+    }
+
+    @Test
+    void shouldKeepAllRecordsOfConcurrentAppenders() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (SegmentedEventLog eventLog = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+
+            // When
+            List<Future<Long>> appends = IntStream.range(0, 400)
+                    .mapToObj(i -> executor.submit(() -> eventLog.append(record(i))))
+                    .toList();
+            for (Future<Long> append : appends) {
+                append.get();
+            }
+
+            // Then
+            assertThat(eventLog.getCommittedOffset()).isEqualTo(400);
+            assertThat(payloads(eventLog.read(0, 1000))).containsExactlyInAnyOrderElementsOf(payloads(0, 400));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRejectSecondWriterOnSameDirectory() throws IOException {
+        // Given
+        try (SegmentedEventLog ignored = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+
+            // When / Then
+            assertThatThrownBy(() -> new SegmentedEventLog(directory, SEGMENT_SIZE))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    private static byte[] record(int i) {
+        return ("event-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<byte[]> records(int from, int to) {
+        return IntStream.range(from, to).mapToObj(SegmentedEventLogTest::record).toList();
+    }
+
+    private static List<String> payloads(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "event-" + i).toList();
+    }
+
+    private static List<String> payloads(List<LogRecord> records) {
+        return records.stream().map(r -> new String(r.payload(), StandardCharsets.UTF_8)).toList();
+    }
+}
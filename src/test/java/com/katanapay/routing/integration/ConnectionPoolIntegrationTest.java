@@ -0,0 +1,87 @@
+package com.katanapay.routing.integration;
+
+import com.katanapay.routing.config.DataSourceConfig;
+import com.katanapay.routing.datasource.ConnectionPool;
+import com.katanapay.routing.datasource.ShardPools;
+import com.katanapay.routing.repository.PaymentRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"outbox.processing.enabled=false", "outbox.metrics.backlog-refresh-interval=3600000"})
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+public class ConnectionPoolIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier(DataSourceConfig.OUTBOX_TRANSACTION_MANAGER)
+    private PlatformTransactionManager outboxTransactionManager;
+
+    @Autowired
+    @Qualifier(DataSourceConfig.BATCH_TRANSACTION_MANAGER)
+    private PlatformTransactionManager batchTransactionManager;
+
+    @Autowired
+    private ShardPools shardPools;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ParameterizedTest
+    @EnumSource(ConnectionPool.class)
+    void whenTransactionRuns_thenItHoldsAConnectionOfItsPoolOnly(ConnectionPool pool) {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManagers().get(pool));
+
+        // When
+        Map<ConnectionPool, Integer> activeConnections = transactionTemplate.execute(status -> {
+            paymentRepository.count();
+            return activeConnections();
+        });
+
+        // Then
+        activeConnections.forEach((candidate, active) ->
+                assertThat(active).as(candidate.poolName()).isEqualTo(candidate == pool ? 1 : 0));
+        assertThat(meterRegistry.get("hikaricp.connections.max").tag("pool", pool.poolName()).gauge().value())
+                .isEqualTo(pool(pool).getMaximumPoolSize());
+    }
+
+    private Map<ConnectionPool, PlatformTransactionManager> transactionManagers() {
+        return Map.of(ConnectionPool.REQUEST, transactionManager,
+                ConnectionPool.OUTBOX, outboxTransactionManager,
+                ConnectionPool.BATCH, batchTransactionManager);
+    }
+
+    private Map<ConnectionPool, Integer> activeConnections() {
+        Map<ConnectionPool, Integer> activeConnections = new EnumMap<>(ConnectionPool.class);
+        for (ConnectionPool pool : ConnectionPool.values()) {
+            HikariDataSource dataSource = pool(pool);
+            activeConnections.put(pool, dataSource.getHikariPoolMXBean() == null ? 0
+                    : dataSource.getHikariPoolMXBean().getActiveConnections());
+        }
+        return activeConnections;
+    }
+
+    private HikariDataSource pool(ConnectionPool pool) {
+        return shardPools.get(0, pool);
+    }
+}
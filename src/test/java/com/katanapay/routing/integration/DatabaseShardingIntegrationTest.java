@@ -0,0 +1,217 @@
+package com.katanapay.routing.integration;
+
+import com.katanapay.routing.PaymentRoutingApplication;
+import com.katanapay.routing.datasource.ConnectionPool;
+import com.katanapay.routing.datasource.DatabaseShards;
+import com.katanapay.routing.datasource.ShardPools;
+import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.outbox.OutboxShardCoordinator;
+import com.katanapay.routing.service.PaymentService;
+import com.katanapay.routing.simulator.ProviderSimulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the application on several in-memory databases as shards of the payments store.
+ */
+public class DatabaseShardingIntegrationTest {
+
+    private static final int SLOT_COUNT = 8;
+
+    private final String database = "payment-shard-" + UUID.randomUUID();
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private ProviderSimulator simulator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        simulator = ProviderSimulator.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        simulator.close();
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void whenPaymentsAreProcessed_thenEachLivesWithItsOutboxEventsOnTheShardOfItsId() throws InterruptedException {
+        // Given
+        ConfigurableApplicationContext node = startNode(true,
+                "--sharding.shards[0].url=" + url("a"), "--sharding.shards[0].slots=0-2",
+                "--sharding.shards[1].url=" + url("b"), "--sharding.shards[1].slots=3-5",
+                "--sharding.shards[2].url=" + url("c"), "--sharding.shards[2].slots=6-7");
+        PaymentService paymentService = node.getBean(PaymentService.class);
+        DatabaseShards databaseShards = node.getBean(DatabaseShards.class);
+
+        // When
+        List<UUID> ids = processPayments(paymentService, 30);
+        await(() -> unprocessedEvents(node) == 0);
+
+        // Then
+        for (UUID id : ids) {
+            int shard = databaseShards.shardOf(id);
+            assertThat(paymentService.getPayment(id).getId()).isEqualTo(id);
+            for (int candidate = 0; candidate < databaseShards.count(); candidate++) {
+                JdbcTemplate jdbcTemplate = jdbcTemplate(node, candidate);
+                assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM payments WHERE id = ?", id))
+                        .as("payment %s on shard %d", id, candidate).isEqualTo(candidate == shard ? 1 : 0);
+                assertThat(count(jdbcTemplate, "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id = ?",
+                        id.toString())).isEqualTo(candidate == shard ? 1 : 0);
+            }
+        }
+        for (int shard = 0; shard < databaseShards.count(); shard++) {
+            assertThat(count(jdbcTemplate(node, shard), "SELECT COUNT(*) FROM payments")).isPositive();
+        }
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void whenShardIsAdded_thenRebalanceMovesThePaymentsAndEventsOfItsSlots() {
+        // Given
+        ConfigurableApplicationContext singleShard = startNode(false,
+                "--spring.datasource.url=" + url("a"));
+        List<UUID> ids = processPayments(singleShard.getBean(PaymentService.class), 40);
+        singleShard.close();
+
+        // When
+        ConfigurableApplicationContext node = startNode(false,
+                "--sharding.shards[0].url=" + url("a"), "--sharding.shards[0].slots=0-3",
+                "--sharding.shards[1].url=" + url("b"), "--sharding.shards[1].slots=4-7",
+                "--sharding.rebalance.enabled=true",
+                "--sharding.rebalance.chunk-size=7");
+
+        // Then
+        PaymentService paymentService = node.getBean(PaymentService.class);
+        DatabaseShards databaseShards = node.getBean(DatabaseShards.class);
+        for (UUID id : ids) {
+            int shard = databaseShards.shardOf(id);
+            assertThat(shard).isEqualTo(databaseShards.slotOf(id) < 4 ? 0 : 1);
+            assertThat(paymentService.getPayment(id).getId()).isEqualTo(id);
+            assertThat(count(jdbcTemplate(node, shard), "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id = ?",
+                    id.toString())).isEqualTo(1);
+        }
+        long movedPayments = ids.stream().filter(id -> databaseShards.shardOf(id) == 1).count();
+        assertThat(movedPayments).isPositive().isLessThan(ids.size());
+        assertThat(count(jdbcTemplate(node, 0), "SELECT COUNT(*) FROM payments")).isEqualTo(ids.size() - movedPayments);
+        assertThat(count(jdbcTemplate(node, 1), "SELECT COUNT(*) FROM payments")).isEqualTo(movedPayments);
+        assertThat(count(jdbcTemplate(node, 1), "SELECT COUNT(*) FROM outbox_events")).isEqualTo(movedPayments);
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void whenOutboxEventIsInFlightOnAnotherDatabaseShard_thenItsOutboxShardIsNotReleased() throws InterruptedException {
+        // Given
+        ConfigurableApplicationContext node = startNode(true,
+                "--outbox.sharding.shard-count=2",
+                "--sharding.shards[0].url=" + url("a"), "--sharding.shards[0].slots=0-3",
+                "--sharding.shards[1].url=" + url("b"), "--sharding.shards[1].slots=4-7");
+        DatabaseShards databaseShards = node.getBean(DatabaseShards.class);
+        OutboxShardCoordinator coordinator = node.getBean(OutboxShardCoordinator.class);
+        await(() -> coordinator.getClaimableShards().size() == 2);
+
+        UUID paymentId = databaseShards.newPaymentId();
+        while (databaseShards.shardOf(paymentId) != 1) {
+            paymentId = databaseShards.newPaymentId();
+        }
+        int busyShard = OutboxShardCoordinator.shardOf(paymentId.toString(), 2);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate(node, 1).update("""
+                        INSERT INTO outbox_events (id, aggregate_type, aggregate_id, shard, event_type, payload_data,
+                                                   attempt_count, processed, locked, lock_expiry, next_attempt_at,
+                                                   created_at, updated_at)
+                        VALUES (?, 'PAYMENT', ?, ?, 'PAYMENT_PROCESSED', X'0101', 0, false, true, ?, ?, ?, ?)
+                        """, UUID.randomUUID(), paymentId.toString(), busyShard, now.plusMinutes(5), now, now, now);
+
+        // When
+        node.close();
+
+        // Then
+        JdbcTemplate leases = new JdbcTemplate(new DriverManagerDataSource(url("a"), "sa", "password"));
+        assertThat(leases.queryForObject("SELECT owner FROM outbox_shard_leases WHERE shard = ?", String.class,
+                busyShard)).isEqualTo(coordinator.getNodeId());
+        assertThat(leases.queryForObject("SELECT owner FROM outbox_shard_leases WHERE shard = ?", String.class,
+                1 - busyShard)).isNull();
+    }
+
+    private ConfigurableApplicationContext startNode(boolean outboxProcessing, String... shards) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--wiremock.server.port=0",
+                "--provider.endpoints.provider-a=" + simulator.url(ProviderSimulator.Provider.A),
+                "--provider.endpoints.provider-b=" + simulator.url(ProviderSimulator.Provider.B),
+                "--sharding.slot-count=" + SLOT_COUNT,
+                "--outbox.processing.enabled=" + outboxProcessing,
+                "--outbox.sharding.heartbeat-interval=100",
+                "--outbox.processing.fixed-delay=100",
+                "--outbox.compaction.enabled=false"));
+        arguments.addAll(List.of(shards));
+
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(PaymentRoutingApplication.class)
+                .profiles("test")
+                .run(arguments.toArray(String[]::new));
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * An in-memory database that outlives the nodes using it.
+     */
+    private String url(String shard) {
+        return "jdbc:h2:mem:" + database + "-" + shard + ";DB_CLOSE_DELAY=-1";
+    }
+
+    private static List<UUID> processPayments(PaymentService paymentService, int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PaymentRequest request = PaymentRequest.builder()
+                    .amount(new BigDecimal("100.00").add(BigDecimal.valueOf(i)))
+                    .currency("USD")
+                    .cardNumber(i % 2 == 0 ? "4111111111111111" : "5555555555554444")
+                    .build();
+            PaymentResponse response = paymentService.processPayment(request);
+            ids.add(response.getId());
+        }
+        return ids;
+    }
+
+    private static int unprocessedEvents(ConfigurableApplicationContext node) {
+        int unprocessed = 0;
+        for (int shard = 0; shard < node.getBean(DatabaseShards.class).count(); shard++) {
+            unprocessed += count(jdbcTemplate(node, shard), "SELECT COUNT(*) FROM outbox_events WHERE processed = false");
+        }
+        return unprocessed;
+    }
+
+    private static JdbcTemplate jdbcTemplate(ConfigurableApplicationContext node, int shard) {
+        return new JdbcTemplate(node.getBean(ShardPools.class).get(shard, ConnectionPool.BATCH));
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate, String sql, Object... arguments) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, arguments);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Thread.sleep(50);
+        }
+    }
+}
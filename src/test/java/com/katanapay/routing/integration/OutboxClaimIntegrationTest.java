@@ -0,0 +1,193 @@
+package com.katanapay.routing.integration;
+
+import com.katanapay.routing.model.entity.OutboxDeadLetter;
+import com.katanapay.routing.model.entity.OutboxEvent;
+import com.katanapay.routing.outbox.OutboxService;
+import com.katanapay.routing.repository.OutboxDeadLetterRepository;
+import com.katanapay.routing.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "outbox.processing.enabled=false")
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+public class OutboxClaimIntegrationTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        outboxDeadLetterRepository.deleteAll();
+    }
+
+    @Test
+    void whenClaimEvents_thenLeaseBatchInCreationOrder() {
+        // Given
+        List<UUID> createdIds = createEvents(5);
+
+        // When
+        List<OutboxEvent> firstClaim = outboxService.claimEvents(3);
+        List<OutboxEvent> secondClaim = outboxService.claimEvents(3);
+        List<OutboxEvent> thirdClaim = outboxService.claimEvents(3);
+
+        // Then
+        assertThat(firstClaim).extracting(OutboxEvent::getId).containsExactlyElementsOf(createdIds.subList(0, 3));
+        assertThat(firstClaim).allMatch(OutboxEvent::isLocked);
+        assertThat(secondClaim).extracting(OutboxEvent::getId).containsExactlyElementsOf(createdIds.subList(3, 5));
+        assertThat(thirdClaim).isEmpty();
+    }
+
+    @Test
+    void whenMarkAsProcessed_thenCompleteWholeBatch() {
+        // Given
+        createEvents(4);
+        List<UUID> claimedIds = outboxService.claimEvents(4).stream().map(OutboxEvent::getId).toList();
+
+        // When
+        outboxService.markAsProcessed(claimedIds);
+
+        // Then
+        assertThat(outboxEventRepository.findAllById(claimedIds))
+                .hasSize(4)
+                .allMatch(OutboxEvent::isProcessed)
+                .noneMatch(OutboxEvent::isLocked);
+    }
+
+    @Test
+    void whenRetryScheduled_thenEventIsClaimedAgainOnlyOnceDue() {
+        // Given
+        UUID id = createEvents(1).getFirst();
+        outboxService.claimEvents(1);
+
+        // When
+        outboxService.scheduleRetry(id, 1, LocalDateTime.now().plusHours(1));
+        List<OutboxEvent> claimedBeforeDue = outboxService.claimEvents(1);
+        outboxService.scheduleRetry(id, 1, LocalDateTime.now().minusSeconds(1));
+        List<OutboxEvent> claimedWhenDue = outboxService.claimEvents(1);
+
+        // Then
+        assertThat(claimedBeforeDue).isEmpty();
+        assertThat(claimedWhenDue).singleElement().satisfies(event -> {
+            assertThat(event.getId()).isEqualTo(id);
+            assertThat(event.getAttemptCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void whenEarlierEventOfAggregateFailed_thenLaterEventIsNotClaimedAheadOfIt() {
+        // Given
+        String aggregateId = UUID.randomUUID().toString();
+        UUID firstId = createEvent(aggregateId, 0);
+        UUID secondId = createEvent(aggregateId, 1);
+        UUID otherId = createEvents(1).getFirst();
+        List<OutboxEvent> firstClaim = outboxService.claimEvents(1);
+
+        // When
+        List<OutboxEvent> claimedWhileLeased = outboxService.claimEvents(10);
+        outboxService.scheduleRetry(firstId, 1, LocalDateTime.now().plusHours(1));
+        List<OutboxEvent> claimedBeforeRetry = outboxService.claimEvents(10);
+        outboxService.scheduleRetry(firstId, 1, LocalDateTime.now().minusSeconds(1));
+        List<OutboxEvent> claimedOnRetry = outboxService.claimEvents(1);
+        List<OutboxEvent> claimedAfterRetry = outboxService.claimEvents(10);
+
+        // Then
+        assertThat(firstClaim).extracting(OutboxEvent::getId).containsExactly(firstId);
+        assertThat(claimedWhileLeased).extracting(OutboxEvent::getId).containsExactly(otherId);
+        assertThat(claimedBeforeRetry).isEmpty();
+        assertThat(claimedOnRetry).extracting(OutboxEvent::getId).containsExactly(firstId);
+        assertThat(claimedAfterRetry).isEmpty();
+        assertThat(outboxEventRepository.findById(secondId)).get().satisfies(event -> {
+            assertThat(event.isProcessed()).isFalse();
+            assertThat(event.isLocked()).isFalse();
+        });
+    }
+
+    @Test
+    void whenDeadLettersReplayed_thenEventsAreClaimableWithFreshAttempts() {
+        // Given
+        List<UUID> ids = createEvents(3);
+        for (OutboxEvent event : outboxService.claimEvents(3)) {
+            outboxService.moveToDeadLetter(event, 5, "java.io.IOException: sink unavailable");
+        }
+        List<OutboxDeadLetter> deadLetters = outboxService.getDeadLetters(10);
+
+        // When
+        int replayed = outboxService.replayDeadLetters(ids.subList(0, 2));
+        List<OutboxEvent> reclaimed = outboxService.claimEvents(10);
+
+        // Then
+        assertThat(deadLetters).hasSize(3).allSatisfy(deadLetter -> {
+            assertThat(deadLetter.getAttemptCount()).isEqualTo(5);
+            assertThat(deadLetter.getLastError()).contains("sink unavailable");
+        });
+        assertThat(replayed).isEqualTo(2);
+        assertThat(reclaimed).extracting(OutboxEvent::getId).containsExactlyElementsOf(ids.subList(0, 2));
+        assertThat(reclaimed).allMatch(event -> event.getAttemptCount() == 0);
+        assertThat(outboxEventRepository.findAllById(ids.subList(0, 2))).hasSize(2).noneMatch(OutboxEvent::isNew);
+        assertThat(outboxService.getDeadLetters(10)).extracting(OutboxDeadLetter::getId).containsExactly(ids.get(2));
+    }
+
+    @Test
+    void whenClaimedConcurrently_thenBatchesAreDisjoint() throws Exception {
+        // Given
+        createEvents(200);
+        List<Callable<List<OutboxEvent>>> claims = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            claims.add(() -> outboxService.claimEvents(25));
+        }
+
+        // When
+        Set<UUID> claimedIds = new HashSet<>();
+        int totalClaimed = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<List<OutboxEvent>> claim : executor.invokeAll(claims)) {
+                for (OutboxEvent event : claim.get()) {
+                    claimedIds.add(event.getId());
+                    totalClaimed++;
+                }
+            }
+        }
+
+        // Then
+        assertThat(claimedIds).hasSize(totalClaimed);
+    }
+
+    private List<UUID> createEvents(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(createEvent(UUID.randomUUID().toString(), i));
+        }
+        return ids;
+    }
+
+    private UUID createEvent(String aggregateId, int sequence) {
+        return outboxService.createOutboxEvent("PAYMENT", aggregateId, "PAYMENT_PROCESSED",
+                ("payload-" + sequence).getBytes(StandardCharsets.UTF_8)).getId();
+    }
+}
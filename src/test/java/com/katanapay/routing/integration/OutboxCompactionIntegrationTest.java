@@ -0,0 +1,92 @@
+package com.katanapay.routing.integration;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+import com.katanapay.routing.outbox.OutboxCompactionJob;
+import com.katanapay.routing.outbox.OutboxService;
+import com.katanapay.routing.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "outbox.processing.enabled=false")
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+public class OutboxCompactionIntegrationTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxCompactionJob outboxCompactionJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        ReflectionTestUtils.setField(outboxCompactionJob, "chunkSize", 2);
+        ReflectionTestUtils.setField(outboxCompactionJob, "pause", Duration.ZERO);
+    }
+
+    @Test
+    void whenCompacted_thenOnlyOldProcessedEventsAreDeletedInChunks() {
+        // Given
+        List<UUID> oldProcessed = createEvents(5);
+        List<UUID> oldUnprocessed = createEvents(2);
+        List<UUID> recentProcessed = createEvents(2);
+        outboxService.markAsProcessed(oldProcessed);
+        outboxService.markAsProcessed(recentProcessed);
+        backdate(oldProcessed);
+        backdate(oldUnprocessed);
+
+        // When
+        int deleted = outboxCompactionJob.compact();
+
+        // Then
+        assertThat(deleted).isEqualTo(5);
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getId)
+                .containsExactlyInAnyOrderElementsOf(concat(oldUnprocessed, recentProcessed));
+    }
+
+    private void backdate(List<UUID> ids) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(2));
+        for (UUID id : ids) {
+            jdbcTemplate.update("UPDATE outbox_events SET created_at = ? WHERE id = ?", createdAt, id);
+        }
+    }
+
+    private List<UUID> createEvents(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(outboxService.createOutboxEvent("PAYMENT", UUID.randomUUID().toString(),
+                    "PAYMENT_PROCESSED", ("payload-" + i).getBytes(StandardCharsets.UTF_8)).getId());
+        }
+        return ids;
+    }
+
+    private static List<UUID> concat(List<UUID> first, List<UUID> second) {
+        List<UUID> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
@@ -0,0 +1,225 @@
+package com.katanapay.routing.integration;
+
+import com.katanapay.routing.PaymentRoutingApplication;
+import com.katanapay.routing.eventlog.LogRecord;
+import com.katanapay.routing.eventlog.SegmentedEventLog;
+import com.katanapay.routing.model.entity.OutboxEvent;
+import com.katanapay.routing.outbox.OutboxEventEnvelope;
+import com.katanapay.routing.outbox.OutboxService;
+import com.katanapay.routing.outbox.OutboxShardCoordinator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs several application contexts in one JVM as outbox nodes sharing one database.
+ */
+public class OutboxShardingIntegrationTest {
+
+    private static final int SHARD_COUNT = 8;
+
+    private final String database = "sharded-outbox-" + UUID.randomUUID();
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void whenNodesShareTheOutbox_thenEachAggregateIsPublishedByOneNodeInOrder() throws InterruptedException {
+        // Given
+        ConfigurableApplicationContext node1 = startNode("node-1");
+        ConfigurableApplicationContext node2 = startNode("node-2");
+        ConfigurableApplicationContext node3 = startNode("node-3");
+        awaitBalanced(node1, node2, node3);
+
+        // When
+        List<UUID> ids = createEvents(node1, 40, 5);
+        awaitProcessed(node1);
+
+        // Then
+        Map<String, Set<Integer>> shardsByNode = shardsByOwner(node1);
+        assertThat(shardsByNode.values()).extracting(Set::size).containsExactlyInAnyOrder(3, 3, 2);
+
+        List<OutboxEvent> published = new ArrayList<>();
+        Set<String> seenAggregates = new HashSet<>();
+        for (ConfigurableApplicationContext node : List.of(node1, node2, node3)) {
+            List<OutboxEvent> nodeEvents = publishedEvents(node);
+            Set<String> nodeAggregates = new HashSet<>();
+            for (OutboxEvent event : nodeEvents) {
+                nodeAggregates.add(event.getAggregateId());
+                assertThat(shardsByNode.get(nodeId(node)))
+                        .contains(OutboxShardCoordinator.shardOf(event.getAggregateId(), SHARD_COUNT));
+            }
+            assertThat(Collections.disjoint(seenAggregates, nodeAggregates)).isTrue();
+            assertThat(sequencesByAggregate(nodeEvents).values()).allSatisfy(sequence -> assertThat(sequence).isSorted());
+            seenAggregates.addAll(nodeAggregates);
+            published.addAll(nodeEvents);
+        }
+        assertThat(published).extracting(OutboxEvent::getId).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void whenNodesJoinAndLeave_thenShardsAreRebalancedAndNoEventIsLost() throws Exception {
+        // Given
+        ConfigurableApplicationContext node1 = startNode("node-1");
+        ConfigurableApplicationContext node2 = startNode("node-2");
+        awaitBalanced(node1, node2);
+        List<UUID> ids = new ArrayList<>(createEvents(node1, 20, 5));
+
+        // When
+        ConfigurableApplicationContext node3 = startNode("node-3");
+        ids.addAll(createEvents(node1, 20, 5));
+        awaitBalanced(node1, node2, node3);
+        ids.addAll(createEvents(node1, 20, 5));
+        awaitProcessed(node1);
+
+        Path node2Log = node2.getBean(SegmentedEventLog.class).getDirectory();
+        node2.close();
+        ids.addAll(createEvents(node1, 20, 5));
+        awaitBalanced(node1, node3);
+        awaitProcessed(node1);
+
+        // Then
+        assertThat(shardsByOwner(node1)).containsOnlyKeys("node-1", "node-3");
+        List<OutboxEvent> published = new ArrayList<>();
+        published.addAll(publishedEvents(node1));
+        published.addAll(publishedEvents(node3));
+        published.addAll(publishedEvents(node2Log));
+        assertThat(published).extracting(OutboxEvent::getId).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId) {
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(PaymentRoutingApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database,
+                        "--server.port=0",
+                        "--wiremock.server.port=0",
+                        "--outbox.sharding.node-id=" + nodeId,
+                        "--outbox.sharding.shard-count=" + SHARD_COUNT,
+                        "--outbox.sharding.heartbeat-interval=100",
+                        "--outbox.sharding.lease-duration=PT1S",
+                        "--outbox.processing.fixed-delay=100",
+                        "--outbox.compaction.enabled=false");
+        nodes.add(node);
+        return node;
+    }
+
+    private List<UUID> createEvents(ConfigurableApplicationContext node, int aggregates, int eventsPerAggregate) {
+        OutboxService outboxService = node.getBean(OutboxService.class);
+        List<String> aggregateIds = new ArrayList<>(aggregates);
+        for (int i = 0; i < aggregates; i++) {
+            aggregateIds.add(UUID.randomUUID().toString());
+        }
+
+        List<UUID> ids = new ArrayList<>(aggregates * eventsPerAggregate);
+        for (int sequence = 0; sequence < eventsPerAggregate; sequence++) {
+            for (String aggregateId : aggregateIds) {
+                ids.add(outboxService.createOutboxEvent("PAYMENT", aggregateId, "PAYMENT_PROCESSED",
+                        String.valueOf(sequence).getBytes(StandardCharsets.UTF_8)).getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Waits until every shard is owned and the shards are split evenly over the given nodes.
+     */
+    private void awaitBalanced(ConfigurableApplicationContext... liveNodes) throws InterruptedException {
+        int minShards = SHARD_COUNT / liveNodes.length;
+        int maxShards = minShards + (SHARD_COUNT % liveNodes.length == 0 ? 0 : 1);
+        await(() -> {
+            Map<String, Set<Integer>> shardsByNode = shardsByOwner(liveNodes[0]);
+            if (shardsByNode.size() != liveNodes.length
+                    || shardsByNode.values().stream().mapToInt(Set::size).sum() != SHARD_COUNT) {
+                return false;
+            }
+            for (ConfigurableApplicationContext node : liveNodes) {
+                Set<Integer> claimable = node.getBean(OutboxShardCoordinator.class).getClaimableShards();
+                if (claimable.size() < minShards || claimable.size() > maxShards
+                        || !claimable.equals(shardsByNode.get(nodeId(node)))) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private void awaitProcessed(ConfigurableApplicationContext node) throws InterruptedException {
+        JdbcTemplate jdbcTemplate = node.getBean(JdbcTemplate.class);
+        await(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE processed = false", Integer.class) == 0);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static Map<String, Set<Integer>> shardsByOwner(ConfigurableApplicationContext node) {
+        Map<String, Set<Integer>> shardsByNode = new HashMap<>();
+        node.getBean(JdbcTemplate.class).query(
+                "SELECT shard, owner FROM outbox_shard_leases WHERE owner IS NOT NULL",
+                rs -> {
+                    shardsByNode.computeIfAbsent(rs.getString("owner"), owner -> new HashSet<>())
+                            .add(rs.getInt("shard"));
+                });
+        return shardsByNode;
+    }
+
+    private static String nodeId(ConfigurableApplicationContext node) {
+        return node.getBean(OutboxShardCoordinator.class).getNodeId();
+    }
+
+    /**
+     * Reads the events a running node appended to its event log.
+     */
+    private static List<OutboxEvent> publishedEvents(ConfigurableApplicationContext node) {
+        return decode(node.getBean(SegmentedEventLog.class).read(0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Reads the events a stopped node appended to its event log.
+     */
+    private static List<OutboxEvent> publishedEvents(Path logDirectory) throws IOException {
+        try (SegmentedEventLog eventLog = new SegmentedEventLog(logDirectory, 4 * 1024 * 1024)) {
+            return decode(eventLog.read(0, Integer.MAX_VALUE));
+        }
+    }
+
+    private static List<OutboxEvent> decode(List<LogRecord> records) {
+        return records.stream().map(record -> OutboxEventEnvelope.decode(record.payload())).toList();
+    }
+
+    private static Map<String, List<Integer>> sequencesByAggregate(List<OutboxEvent> events) {
+        Map<String, List<Integer>> sequences = new HashMap<>();
+        for (OutboxEvent event : events) {
+            sequences.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>())
+                    .add(Integer.parseInt(new String(event.getPayload(), StandardCharsets.UTF_8)));
+        }
+        return sequences;
+    }
+}
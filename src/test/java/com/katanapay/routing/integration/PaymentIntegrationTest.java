@@ -4,10 +4,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.katanapay.routing.dto.PaymentRequest;
 import com.katanapay.routing.dto.PaymentResponse;
+import com.katanapay.routing.exception.RoutingException;
+import com.katanapay.routing.model.entity.OutboxEvent;
 import com.katanapay.routing.model.entity.Payment;
+import com.katanapay.routing.repository.OutboxEventRepository;
 import com.katanapay.routing.repository.PaymentRepository;
+import com.katanapay.routing.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -18,7 +27,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +37,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -46,6 +58,15 @@ public class PaymentIntegrationTest {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @BeforeEach
     void setUp() {
         paymentRepository.deleteAll();
@@ -91,6 +112,132 @@ public class PaymentIntegrationTest {
         assertThat(savedPayment.get().getStatus()).isEqualTo(Payment.Status.COMPLETED);
         assertThat(savedPayment.get().getProvider()).isNotEmpty();
         assertThat(savedPayment.get().getProviderReference()).isNotEmpty();
+        assertThat(savedPayment.get().getMaskedCardNumber()).isEqualTo("************1111");
+        assertThat(response.getMaskedCardNumber()).isEqualTo("************1111");
+    }
+
+    @Test
+    void whenInitiatePaymentWithInvalidCardNumber_thenRejectWithoutCallingProvider() throws Exception {
+        // Given
+        PaymentRequest request = PaymentRequest.builder()
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .cardNumber("4111111111111112")
+                .build();
+
+        // When
+        mockMvc.perform(post("/api/v1/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.cardNumber").value("Card number is invalid"));
+
+        // Then
+        assertThat(paymentRepository.count()).isZero();
+    }
+
+    @Test
+    void whenInitiatePayment_thenRecordProviderCallAndStageTimings() throws Exception {
+        // Given
+        PaymentRequest request = PaymentRequest.builder()
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .cardNumber("5555555555554444")
+                .build();
+        long providerCallsBefore = meterRegistry.get("payments.provider.requests")
+                .tags("provider", "PROVIDER_B", "outcome", "success").timer().count();
+        long providerStagesBefore = meterRegistry.get("payments.processing.stage")
+                .tag("stage", "provider").timer().count();
+
+        // When
+        mockMvc.perform(post("/api/v1/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // Then
+        assertThat(meterRegistry.get("payments.provider.requests")
+                .tags("provider", "PROVIDER_B", "outcome", "success").timer().count())
+                .isEqualTo(providerCallsBefore + 1);
+        assertThat(meterRegistry.get("payments.processing.stage")
+                .tag("stage", "provider").timer().count())
+                .isEqualTo(providerStagesBefore + 1);
+        assertThat(meterRegistry.get("payments.routing.decisions")
+                .tag("rule", "mastercard_bin").counter().count())
+                .isPositive();
+    }
+
+    @Test
+    void whenInitiatePayment_thenRecordFlightRecorderEventsPerStage(@TempDir Path directory) throws Exception {
+        // Given
+        PaymentRequest request = PaymentRequest.builder()
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .cardNumber("4111111111111111")
+                .build();
+        Path recordingFile = directory.resolve("payment.jfr");
+
+        // When
+        MvcResult result;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.katanapay.routing.PaymentProcessing");
+            recording.enable("com.katanapay.routing.PaymentStage");
+            recording.enable("com.katanapay.routing.ProviderCall");
+            recording.start();
+            result = mockMvc.perform(post("/api/v1/payments")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // Then
+        String paymentId = objectMapper.readValue(result.getResponse().getContentAsString(), PaymentResponse.class)
+                .getId().toString();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.hasField("paymentId") && paymentId.equals(event.getString("paymentId")))
+                .toList();
+
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("com.katanapay.routing.PaymentStage"))
+                .extracting(event -> event.getString("stage"))
+                .containsExactly("ROUTING", "PERSIST", "PROVIDER", "PERSIST_RESULT", "PUBLISH_EVENT");
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("com.katanapay.routing.ProviderCall"))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getString("outcome")).isEqualTo("SUCCESS");
+                    assertThat(event.getInt("statusCode")).isEqualTo(200);
+                });
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("com.katanapay.routing.PaymentProcessing"))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getString("provider")).isEqualTo("PROVIDER_A");
+                    assertThat(event.getString("status")).isEqualTo("COMPLETED");
+                    assertThat(event.getDuration()).isPositive();
+                });
+    }
+
+    @Test
+    void whenProcessPaymentOutsideTheController_thenStillStoreMaskedCardNumber() {
+        // Given
+        PaymentRequest request = PaymentRequest.builder()
+                .amount(new BigDecimal("100.00"))
+                .currency("USD")
+                .cardNumber("4222222222222")
+                .build();
+
+        // When
+        PaymentResponse response = paymentService.processPayment(request);
+
+        // Then
+        assertThat(response.getMaskedCardNumber()).isEqualTo("*********2222");
+        assertThat(paymentRepository.findById(response.getId())).get()
+                .extracting(Payment::getMaskedCardNumber)
+                .isEqualTo("*********2222");
     }
 
     @Test
@@ -122,6 +269,53 @@ public class PaymentIntegrationTest {
                 .andExpect(jsonPath("$.providerReference").value("TEST-REF-789"));
     }
 
+    @Test
+    void whenUpdatePaymentStatus_thenUpdateRowAndWriteStatusChangedEvent() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(5);
+        Payment payment = paymentRepository.save(Payment.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("75.50"))
+                .currency("USD")
+                .cardNumber("4111111111111111")
+                .maskedCardNumber("************1111")
+                .bin("411111")
+                .provider("PROVIDER_A")
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .status(Payment.Status.PROCESSING)
+                .build());
+
+        // When
+        PaymentResponse response = paymentService.updatePaymentStatus(payment.getId(), "PROV-A-999", "FAILED");
+
+        // Then
+        assertThat(response.getId()).isEqualTo(payment.getId());
+        assertThat(response.getStatus()).isEqualTo("FAILED");
+        assertThat(response.getProviderReference()).isEqualTo("PROV-A-999");
+        assertThat(response.getMaskedCardNumber()).isEqualTo("************1111");
+
+        Payment updated = paymentRepository.findById(payment.getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(Payment.Status.FAILED);
+        assertThat(updated.getProviderReference()).isEqualTo("PROV-A-999");
+        assertThat(updated.getUpdatedAt()).isAfter(createdAt);
+        assertThat(updated.getAmount()).isEqualByComparingTo("75.50");
+
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getAggregateId().equals(payment.getId().toString()))
+                .extracting(OutboxEvent::getEventType)
+                .containsExactly("PAYMENT_STATUS_CHANGED");
+    }
+
+    @Test
+    void whenUpdateStatusOfUnknownPayment_thenRejectIt() {
+        // When/Then
+        UUID id = UUID.randomUUID();
+        assertThatThrownBy(() -> paymentService.updatePaymentStatus(id, "PROV-A-999", "FAILED"))
+                .isInstanceOf(RoutingException.class)
+                .hasMessageContaining(id.toString());
+    }
+
     @Test
     void whenProviderFails_thenRetryAndRecoverGracefully() throws Exception {
         // Given - Configure provider to fail first, then succeed
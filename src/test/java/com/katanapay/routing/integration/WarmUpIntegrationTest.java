@@ -0,0 +1,75 @@
+package com.katanapay.routing.integration;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.katanapay.routing.datasource.ConnectionPool;
+import com.katanapay.routing.datasource.ShardPools;
+import com.katanapay.routing.warmup.PaymentWarmUp;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"warm-up.iterations=500", "warm-up.provider-connections=3"})
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+public class WarmUpIntegrationTest {
+
+    @Autowired
+    private PaymentWarmUp paymentWarmUp;
+
+    @Autowired
+    private ShardPools shardPools;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void whenWarmedUp_thenPoolIsFilledProvidersAreConnectedAndPaymentsAreReplayedUncounted() {
+        // Given
+        stubFor(WireMock.options(urlPathMatching("/api/v1/provider[AB]/payments"))
+                .willReturn(aResponse().withStatus(200).withHeader("Allow", "POST, OPTIONS")));
+        WireMock.resetAllRequests();
+        double decisionsBefore = routingDecisions();
+
+        // When
+        PaymentWarmUp.Result result = paymentWarmUp.warmUp();
+
+        // Then
+        HikariDataSource requestDataSource = shardPools.get(0, ConnectionPool.REQUEST);
+        assertThat(result.databaseConnections()).isEqualTo(requestDataSource.getMinimumIdle());
+        assertThat(requestDataSource.getHikariPoolMXBean().getTotalConnections())
+                .isGreaterThanOrEqualTo(result.databaseConnections());
+
+        assertThat(result.providerAConnections()).isEqualTo(3);
+        assertThat(result.providerBConnections()).isEqualTo(3);
+        assertThat(WireMock.findAll(options("/api/v1/providerA/payments"))).hasSize(3);
+        assertThat(WireMock.findAll(options("/api/v1/providerB/payments"))).hasSize(3);
+        assertThat(WireMock.findAll(RequestPatternBuilder.newRequestPattern(RequestMethod.POST, WireMock.anyUrl())))
+                .isEmpty();
+
+        assertThat(result.payments()).isEqualTo(500);
+        assertThat(routingDecisions()).isEqualTo(decisionsBefore);
+    }
+
+    private static RequestPatternBuilder options(String path) {
+        return RequestPatternBuilder.newRequestPattern(RequestMethod.OPTIONS, urlPathEqualTo(path));
+    }
+
+    private double routingDecisions() {
+        return meterRegistry.find("payments.routing.decisions").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,83 @@
+package com.katanapay.routing.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void shouldRejectWhenLimitReached() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10);
+
+        // When
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldShrinkLimitWhenLatencyGrows() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 100, 10, 500);
+        completeSamples(limiter, 200, 100, TimeUnit.MILLISECONDS.toNanos(10));
+        int limitAtSteadyLatency = limiter.getLimit();
+
+        // When
+        completeSamples(limiter, 3, 100, TimeUnit.MILLISECONDS.toNanos(200));
+
+        // Then
+        assertThat(limiter.getLimit()).isLessThan(limitAtSteadyLatency);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void shouldGrowLimitWhileLatencyIsStableAndLimitIsUsed() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 20, 10, 500);
+
+        // When
+        completeSamples(limiter, 100, 20, TimeUnit.MILLISECONDS.toNanos(10));
+
+        // Then
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void shouldBackOffOnDroppedRequests() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 100, 10, 500);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.onDropped();
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static void completeSamples(AdaptiveConcurrencyLimiter limiter, int rounds, int concurrency, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            for (int i = 0; i < concurrency && limiter.tryAcquire(); i++) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.onSuccess(rttNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.katanapay.routing.limiter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.katanapay.routing.exception.GlobalExceptionHandler;
+import com.katanapay.routing.exception.ProviderServerErrorException;
+import com.katanapay.routing.logging.LogRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrencyLimitFilterTest {
+
+    private static final int INITIAL_LIMIT = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private AdaptiveConcurrencyLimiter submissionLimiter;
+    private AdaptiveConcurrencyLimiter queryLimiter;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        submissionLimiter = new AdaptiveConcurrencyLimiter("submission", INITIAL_LIMIT, 10, 100);
+        queryLimiter = new AdaptiveConcurrencyLimiter("query", INITIAL_LIMIT, 10, 100);
+        filter = new ConcurrencyLimitFilter(submissionLimiter, queryLimiter, objectMapper, "3");
+    }
+
+    @Test
+    void shouldRejectWith503RetryAfterAndJsonBodyWhenLimitReached() throws ServletException, IOException {
+        // Given
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            assertThat(submissionLimiter.tryAcquire()).isTrue();
+        }
+        AtomicBoolean passedOn = new AtomicBoolean();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("POST"), response, (req, res) -> passedOn.set(true));
+
+        // Then
+        assertThat(passedOn).isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("status").asInt()).isEqualTo(503);
+        assertThat(body.get("error").asText()).isEqualTo("Service Overloaded");
+        assertThat(submissionLimiter.getRejectedCount()).isEqualTo(1);
+        assertThat(queryLimiter.getRejectedCount()).isZero();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "200, false, 20",
+            "400, false, 20",
+            "404, false, 20",
+            "500, true, 10",
+            "503, true, 10",
+            "503, false, 20"
+    })
+    void shouldBackOffOnlyOnServerErrorsOfThisInstance(int status, boolean ownError, int expectedLimit)
+            throws ServletException, IOException {
+        // Given
+        FilterChain chain = (req, res) -> {
+            ((MockHttpServletResponse) res).setStatus(status);
+            if (status >= 500 && !ownError) {
+                ConcurrencyLimitFilter.markProviderFailure((MockHttpServletRequest) req);
+            }
+        };
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            filter.doFilter(request("POST"), new MockHttpServletResponse(), chain);
+        }
+
+        // Then
+        assertThat(submissionLimiter.getLimit()).isEqualTo(expectedLimit);
+        assertThat(submissionLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldNotBackOffOnProviderErrorsAnsweredByTheExceptionHandler() throws ServletException, IOException {
+        // Given
+        GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler(
+                new LogRateLimiter(Duration.ofSeconds(10), 5));
+        FilterChain chain = (req, res) -> ((MockHttpServletResponse) res).setStatus(exceptionHandler
+                .handleProviderException(new ProviderServerErrorException(503), (MockHttpServletRequest) req)
+                .getStatusCode().value());
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            filter.doFilter(request("POST"), new MockHttpServletResponse(), chain);
+        }
+
+        // Then
+        assertThat(submissionLimiter.getLimit()).isEqualTo(INITIAL_LIMIT);
+        assertThat(submissionLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldBackOffWhenTheRequestThrows() throws ServletException, IOException {
+        // Given
+        FilterChain chain = (req, res) -> {
+            throw new ServletException("boom");
+        };
+
+        // When / Then
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> filter.doFilter(request("GET"), new MockHttpServletResponse(), chain))
+                    .isInstanceOf(ServletException.class);
+        }
+        assertThat(queryLimiter.getLimit()).isEqualTo(10);
+        assertThat(queryLimiter.getInFlight()).isZero();
+        assertThat(submissionLimiter.getLimit()).isEqualTo(INITIAL_LIMIT);
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/api/v1/payments");
+    }
+}
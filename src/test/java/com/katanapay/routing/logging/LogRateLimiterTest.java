@@ -0,0 +1,46 @@
+package com.katanapay.routing.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogRateLimiterTest {
+
+    @Test
+    void shouldSuppressMessagesOverTheLimitPerKey() {
+        // Given
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ofHours(1), 2);
+
+        // When
+        long first = limiter.acquire("SERVER_ERROR");
+        long second = limiter.acquire("SERVER_ERROR");
+        long third = limiter.acquire("SERVER_ERROR");
+        long otherKey = limiter.acquire("CONNECTION_ERROR");
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isEqualTo(-1);
+        assertThat(otherKey).isZero();
+    }
+
+    @Test
+    void shouldReportSuppressedCountWhenTheNextIntervalStarts() throws InterruptedException {
+        // Given
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ofMillis(50), 1);
+        limiter.acquire("SERVER_ERROR");
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("SERVER_ERROR");
+        }
+
+        // When
+        Thread.sleep(60);
+        long suppressed = limiter.acquire("SERVER_ERROR");
+
+        // Then
+        assertThat(suppressed).isEqualTo(3);
+        assertThat(limiter.acquire("SERVER_ERROR")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.katanapay.routing.money;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+public class FxRateSnapshotTest {
+
+    private static final FxRateSnapshot RATES = FxRateSnapshot.of("USD", Map.of(
+            "EUR", new BigDecimal("1.08"),
+            "JPY", new BigDecimal("0.0067"),
+            "KWD", new BigDecimal("3.25")), Instant.now());
+
+    @ParameterizedTest
+    @CsvSource({
+            "1000.00, USD, false",
+            "1000.01, USD, true",
+            "925.00, EUR, false",
+            "926.00, EUR, true",
+            "1000, JPY, false",
+            "150000, JPY, true",
+            "307.000, KWD, false",
+            "308.000, KWD, true"
+    })
+    void shouldCompareAmountsWithTheThresholdInTheBaseCurrency(String amount, String currency, boolean expected) {
+        // Given
+        Money money = Money.of(new BigDecimal(amount), currency);
+
+        // When / Then
+        assertThat(RATES.exceedsBaseMajorUnits(money, 1000)).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldConvertIntoBaseMinorUnits() {
+        // When / Then
+        assertThat(RATES.toBaseMinorUnits(Money.ofMinor(10_000, "JPY"))).isEqualTo(6700, offset(1e-6));
+        assertThat(RATES.toBaseMinorUnits(Money.ofMinor(1_000, "KWD"))).isEqualTo(325, offset(1e-6));
+        assertThat(RATES.toBaseMinorUnits(Money.ofMinor(1_000, "GBP"))).isNaN();
+        assertThat(RATES.getRateCount()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldFallBackToOwnUnitsWithoutRate() {
+        // Given
+        Money gbp = Money.of(new BigDecimal("1000.01"), "GBP");
+
+        // When / Then
+        assertThat(RATES.exceedsBaseMajorUnits(gbp, 1000)).isTrue();
+    }
+
+    @Test
+    void shouldRejectInvalidRates() {
+        // When / Then
+        assertThatThrownBy(() -> FxRateSnapshot.of("USD", Map.of("EUR", BigDecimal.ZERO), Instant.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FxRateSnapshot.of("USD", Map.of("XYZ", BigDecimal.ONE), Instant.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.katanapay.routing.money;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MoneyTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "10.50, USD, 1050",
+            "10.505, USD, 1051",
+            "1050, JPY, 1050",
+            "1050.5, JPY, 1051",
+            "1.2345, KWD, 1235",
+            "10.50, ABC, 1050"
+    })
+    void shouldConvertToMinorUnitsOfTheCurrency(String amount, String currency, long expectedMinorUnits) {
+        // When
+        Money money = Money.of(new BigDecimal(amount), currency);
+
+        // Then
+        assertThat(money.minorUnits()).isEqualTo(expectedMinorUnits);
+        assertThat(money.toBigDecimal()).isEqualByComparingTo(
+                new BigDecimal(expectedMinorUnits).movePointLeft(IsoCurrencies.exponentOf(currency)));
+    }
+
+    @Test
+    void shouldCompareWithMajorUnitsInTheCurrencyExponent() {
+        // Given
+        Money usd = Money.of(new BigDecimal("1000.01"), "USD");
+        Money jpy = Money.of(new BigDecimal("1000"), "JPY");
+
+        // When / Then
+        assertThat(usd.exceedsMajorUnits(1000)).isTrue();
+        assertThat(jpy.exceedsMajorUnits(1000)).isFalse();
+        assertThat(jpy.exceedsMajorUnits(999)).isTrue();
+    }
+
+    @Test
+    void shouldRejectComparisonAcrossCurrencies() {
+        // Given
+        Money usd = Money.ofMinor(100, "USD");
+        Money eur = Money.ofMinor(100, "EUR");
+
+        // When / Then
+        assertThat(usd.compareTo(Money.ofMinor(99, "USD"))).isPositive();
+        assertThatThrownBy(() -> usd.compareTo(eur)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.katanapay.routing.outbox;
+
+import com.katanapay.routing.model.entity.OutboxEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutboxDispatcherTest {
+
+    @Test
+    void shouldKeepOrderPerAggregateWhileUsingSeveralWorkers() throws Exception {
+        // Given
+        int aggregates = 20;
+        int eventsPerAggregate = 50;
+        CountDownLatch handled = new CountDownLatch(aggregates * eventsPerAggregate);
+        Map<String, List<Integer>> sequencesByAggregate = new ConcurrentHashMap<>();
+        Set<String> workerThreads = ConcurrentHashMap.newKeySet();
+
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int sequence = 0; sequence < eventsPerAggregate; sequence++) {
+            for (int aggregate = 0; aggregate < aggregates; aggregate++) {
+                events.add(event("aggregate-" + aggregate, sequence));
+            }
+        }
+
+        // When
+        try (OutboxDispatcher dispatcher = new OutboxDispatcher(4, 100, 10, chunk -> {
+            workerThreads.add(Thread.currentThread().getName());
+            for (OutboxEvent event : chunk) {
+                sequencesByAggregate.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>())
+                        .add(Integer.parseInt(new String(event.getPayload(), StandardCharsets.UTF_8)));
+                handled.countDown();
+            }
+        })) {
+            dispatcher.dispatch(events);
+            assertThat(handled.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // Then
+        assertThat(sequencesByAggregate).hasSize(aggregates);
+        sequencesByAggregate.values().forEach(sequences -> assertThat(sequences).isSorted().hasSize(eventsPerAggregate));
+        assertThat(workerThreads).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void shouldReportFreeCapacityOfPartitionQueues() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        try (OutboxDispatcher dispatcher = new OutboxDispatcher(2, 5, 1, chunk -> awaitQuietly(release))) {
+            int initialCapacity = dispatcher.availableCapacity();
+
+            // When
+            dispatcher.dispatch(List.of(event("a", 0), event("a", 1), event("a", 2)));
+            Thread.sleep(100);
+
+            // Then
+            assertThat(initialCapacity).isEqualTo(10);
+            assertThat(dispatcher.availableCapacity()).isEqualTo(8);
+            release.countDown();
+        }
+    }
+
+    private static OutboxEvent event(String aggregateId, int sequence) {
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateType("PAYMENT")
+                .aggregateId(aggregateId)
+                .eventType("PAYMENT_PROCESSED")
+                .payload(String.valueOf(sequence).getBytes(StandardCharsets.UTF_8))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.katanapay.routing.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutboxRetryPolicyTest {
+
+    private final OutboxRetryPolicy retryPolicy =
+            new OutboxRetryPolicy(Duration.ofSeconds(1), 2.0, Duration.ofMinutes(1));
+
+    @Test
+    void shouldGrowBackoffExponentiallyWithJitter() {
+        for (int i = 0; i < 100; i++) {
+            // When
+            Duration first = retryPolicy.backoff(1);
+            Duration third = retryPolicy.backoff(3);
+
+            // Then
+            assertThat(first).isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+            assertThat(third).isBetween(Duration.ofSeconds(2), Duration.ofSeconds(4));
+        }
+    }
+
+    @Test
+    void shouldCapBackoff() {
+        // When
+        Duration backoff = retryPolicy.backoff(30);
+
+        // Then
+        assertThat(backoff).isBetween(Duration.ofSeconds(30), Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,79 @@
+package com.katanapay.routing.performance;
+
+import com.katanapay.routing.outbox.OutboxProcessor;
+import com.katanapay.routing.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"outbox.processing.enabled=true", "outbox.processing.fixed-delay=3600000"})
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+public class OutboxDrainPerformanceTest {
+
+    private static final int EVENT_COUNT = 20_000;
+
+    @Autowired
+    private OutboxProcessor outboxProcessor;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(1);
+        List<Object[]> rows = new ArrayList<>(EVENT_COUNT);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            Timestamp timestamp = Timestamp.valueOf(createdAt.plusNanos(i * 1000L));
+            rows.add(new Object[]{UUID.randomUUID(), UUID.randomUUID().toString(), ("payload-" + i).getBytes(StandardCharsets.UTF_8), timestamp, timestamp, timestamp});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload_data,
+                                           attempt_count, processed, locked, next_attempt_at, created_at, updated_at)
+                VALUES (?, 'PAYMENT', ?, 'PAYMENT_PROCESSED', ?, 0, false, false, ?, ?, ?)
+                """, rows);
+    }
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void shouldDrainOutboxBacklog() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        int remaining;
+        do {
+            outboxProcessor.processOutboxEvents();
+            Thread.sleep(10);
+            remaining = countUnprocessedEvents();
+        } while (remaining > 0);
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+
+        assertThat(remaining).isZero();
+        System.out.printf("Outbox drain - %d events in %.2f s, Throughput: %.0f events/s%n",
+                EVENT_COUNT, elapsedSeconds, EVENT_COUNT / elapsedSeconds);
+    }
+
+    private int countUnprocessedEvents() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE processed = false", Integer.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.katanapay.routing.performance;
+
+import com.katanapay.routing.outbox.OutboxService;
+import com.katanapay.routing.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the time from the commit of an outbox event to its completion by the outbox processor.
+ * Run with {@code -Doutbox.processing.notify-on-commit=false -Doutbox.processing.fixed-delay=5000}
+ * to get the numbers of the polling-only mode.
+ */
+@SpringBootTest(properties = "outbox.processing.enabled=true")
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+public class OutboxLatencyPerformanceTest {
+
+    private static final int EVENT_COUNT = 200;
+    private static final int EVENTS_PER_SECOND = 40;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void shouldReportEndToEndEventLatency() throws InterruptedException {
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / EVENTS_PER_SECOND;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            long delayNanos = startNanos + i * periodNanos - System.nanoTime();
+            if (delayNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            }
+            outboxService.createOutboxEvent("PAYMENT", UUID.randomUUID().toString(),
+                    "PAYMENT_PROCESSED", ("payload-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        while (countUnprocessedEvents() > 0) {
+            Thread.sleep(50);
+        }
+
+        List<Long> latenciesMs = jdbcTemplate.query(
+                "SELECT created_at, updated_at FROM outbox_events WHERE processed = true",
+                (rs, rowNum) -> latencyMs(rs.getTimestamp("created_at"), rs.getTimestamp("updated_at")));
+        List<Long> sorted = latenciesMs.stream().sorted().toList();
+
+        assertThat(sorted).hasSize(EVENT_COUNT);
+        System.out.printf("Outbox event latency - p50: %d ms, p99: %d ms, max: %d ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.getLast());
+    }
+
+    private int countUnprocessedEvents() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE processed = false", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private static long latencyMs(Timestamp createdAt, Timestamp processedAt) {
+        return Duration.between(createdAt.toLocalDateTime(), processedAt.toLocalDateTime()).toMillis();
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1);
+    }
+}
@@ -0,0 +1,151 @@
+package com.katanapay.routing.performance;
+
+import com.katanapay.routing.performance.load.LoadRunResult;
+import com.katanapay.routing.performance.load.OpenModelLoadGenerator;
+import com.katanapay.routing.performance.load.ThroughputSweep;
+import com.katanapay.routing.simulator.LatencyDistribution;
+import com.katanapay.routing.simulator.ProviderBehavior;
+import com.katanapay.routing.simulator.ProviderSimulator;
+import com.katanapay.routing.simulator.ProviderSimulator.Provider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the payment API of the embedded server over HTTP at constant arrival rates, raising the rate until the
+ * p99 latency or the error rate misses its objective. Both providers are played by a {@link ProviderSimulator}
+ * answering with a log-normal delay, which also scripts degradations such as a latency spike of Provider B.
+ * <p>
+ * The sweep is tuned through system properties: {@code load.rates} (comma-separated req/s), {@code load.duration},
+ * {@code load.slo.p99}, {@code load.slo.error-rate}, {@code load.provider.median-latency} and
+ * {@code load.provider.latency-sigma}. The latency distribution of every step is written to
+ * {@code target/load-test/<rate>rps.hgrm}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class PaymentLoadTest {
+
+    private static final List<Double> RATES = Arrays.stream(System.getProperty("load.rates", "10,25,50,100").split(","))
+            .map(rate -> Double.parseDouble(rate.strip()))
+            .toList();
+    private static final Duration STEP_DURATION = Duration.parse(System.getProperty("load.duration", "PT3S"));
+    private static final Duration MAX_P99_LATENCY = Duration.parse(System.getProperty("load.slo.p99", "PT0.5S"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.slo.error-rate", "0.01"));
+    private static final Duration PROVIDER_MEDIAN_LATENCY =
+            Duration.parse(System.getProperty("load.provider.median-latency", "PT0.02S"));
+    private static final double PROVIDER_LATENCY_SIGMA =
+            Double.parseDouble(System.getProperty("load.provider.latency-sigma", "0.4"));
+
+    private static final String[] CARD_NUMBERS = {"4111111111111111", "5555555555554444"};
+
+    private static ProviderSimulator simulator;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void providerEndpoints(DynamicPropertyRegistry registry) throws IOException {
+        simulator = ProviderSimulator.start();
+        registry.add("provider.endpoints.provider-a", () -> simulator.url(Provider.A));
+        registry.add("provider.endpoints.provider-b", () -> simulator.url(Provider.B));
+    }
+
+    @AfterAll
+    static void stopSimulator() throws IOException {
+        simulator.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        simulator.reset();
+        ProviderBehavior behavior = ProviderBehavior.withLatency(
+                LatencyDistribution.logNormal(PROVIDER_MEDIAN_LATENCY, PROVIDER_LATENCY_SIGMA));
+        simulator.setBehavior(Provider.A, behavior);
+        simulator.setBehavior(Provider.B, behavior);
+    }
+
+    @Test
+    @Timeout(value = 180, unit = TimeUnit.SECONDS)
+    void shouldFindMaxSustainableThroughput() throws InterruptedException, IOException {
+        // Given
+        OpenModelLoadGenerator generator = paymentLoadGenerator();
+        ThroughputSweep sweep = new ThroughputSweep(generator, MAX_P99_LATENCY, MAX_ERROR_RATE);
+
+        // Warm up the JIT, the connection pools and the caches at the lowest rate
+        generator.run(RATES.getFirst(), Duration.ofSeconds(2));
+
+        // When
+        ThroughputSweep.SweepResult result = sweep.sweep(RATES, STEP_DURATION);
+
+        // Then
+        for (LoadRunResult run : result.runs()) {
+            run.writeLatencyDistribution(Path.of("target", "load-test", "%.0frps.hgrm".formatted(run.targetRate())));
+        }
+        System.out.printf("Max sustainable throughput: %.0f req/s%n", result.maxSustainableRate());
+
+        LoadRunResult first = result.runs().getFirst();
+        assertThat(first.requests()).isEqualTo((long) (RATES.getFirst() * STEP_DURATION.toSeconds()));
+        assertThat(first.latencyAt(50)).isGreaterThanOrEqualTo(PROVIDER_MEDIAN_LATENCY.dividedBy(2));
+        assertThat(result.maxSustainableRate()).isGreaterThanOrEqualTo(RATES.getFirst());
+        assertThat(simulator.getStats(Provider.A).contractViolations()).isZero();
+        assertThat(simulator.getStats(Provider.B).contractViolations()).isZero();
+    }
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void shouldSurfaceAProviderLatencySpikeInTheTail() throws InterruptedException {
+        // Given
+        OpenModelLoadGenerator generator = paymentLoadGenerator();
+        generator.run(RATES.getFirst(), Duration.ofSeconds(2));
+        simulator.schedule(Provider.B,
+                ProviderBehavior.withLatency(LatencyDistribution.logNormalWithP99(Duration.ofMillis(600), Duration.ofSeconds(1))),
+                Duration.ofSeconds(2), Duration.ofSeconds(2));
+
+        // When
+        LoadRunResult run = generator.run(RATES.getFirst(), Duration.ofSeconds(6));
+
+        // Then
+        System.out.println(run.report());
+        assertThat(run.errorRate()).isLessThanOrEqualTo(MAX_ERROR_RATE);
+        assertThat(run.latencyAt(50)).isLessThan(Duration.ofMillis(400));
+        assertThat(run.latencyAt(99)).isGreaterThanOrEqualTo(Duration.ofMillis(400));
+    }
+
+    private OpenModelLoadGenerator paymentLoadGenerator() {
+        URI paymentsUri = URI.create("http://localhost:" + port + "/api/v1/payments");
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        return new OpenModelLoadGenerator(httpClient,
+                i -> HttpRequest.newBuilder(paymentsUri)
+                        .timeout(Duration.ofSeconds(10))
+                        .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"amount\":100.00,\"currency\":\"USD\",\"cardNumber\":\"%s\"}"
+                                        .formatted(CARD_NUMBERS[i % CARD_NUMBERS.length])))
+                        .build(),
+                response -> response.statusCode() == HttpStatus.CREATED.value(),
+                5_000, Duration.ofSeconds(15));
+    }
+}
@@ -0,0 +1,78 @@
+package com.katanapay.routing.performance.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Outcome of one constant-rate run of an {@link OpenModelLoadGenerator}. Histograms are in microseconds.
+ *
+ * @param targetRate      the requests per second the run was meant to start
+ * @param duration        how long requests were sent for
+ * @param requests        the number of requests that were due
+ * @param succeeded       the responses that counted as a success
+ * @param failed          the error responses, failed connections and requests left unanswered
+ * @param dropped         the requests not sent because too many were in flight
+ * @param achievedRate    the successful responses per second
+ * @param maxSendLagMicros the largest delay between a request being due and being sent
+ * @param latency         the latency from the due time of each request, corrected for coordinated omission
+ * @param serviceTime     the time from sending each request to its response
+ */
+public record LoadRunResult(double targetRate, Duration duration, long requests, long succeeded, long failed,
+                            long dropped, double achievedRate, long maxSendLagMicros,
+                            Histogram latency, Histogram serviceTime) {
+
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) (failed + dropped) / requests;
+    }
+
+    /**
+     * Returns a latency percentile, corrected for coordinated omission.
+     *
+     * @param percentile the percentile, e.g. {@code 99.9}
+     * @return the latency
+     */
+    public Duration latencyAt(double percentile) {
+        return Duration.ofNanos(latency.getValueAtPercentile(percentile) * 1000);
+    }
+
+    public String report() {
+        return "%.0f req/s for %d s: %d requests, %d ok, %d failed, %d dropped, %.1f ok/s, max send lag %.1f ms%n"
+                .formatted(targetRate, duration.toSeconds(), requests, succeeded, failed, dropped, achievedRate,
+                        maxSendLagMicros / 1000.0)
+                + "  latency      " + percentiles(latency) + System.lineSeparator()
+                + "  service time " + percentiles(serviceTime);
+    }
+
+    /**
+     * Writes the corrected latency distribution in milliseconds, in the HdrHistogram percentile format that
+     * plotting tools read.
+     *
+     * @param file the {@code .hgrm} file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeLatencyDistribution(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            latency.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static String percentiles(Histogram histogram) {
+        StringBuilder line = new StringBuilder();
+        for (double percentile : REPORTED_PERCENTILES) {
+            line.append("p%s %.1f ms  ".formatted(format(percentile), histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        return line.append("max %.1f ms".formatted(histogram.getMaxValue() / 1000.0)).toString();
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,128 @@
+package com.katanapay.routing.performance.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Sends HTTP requests at a constant arrival rate, no matter how fast they are answered (open workload model).
+ * <p>
+ * Request {@code i} is due at {@code start + i / rate}. Its latency is measured from that due time, not from the
+ * moment it was actually sent, so the time a request would have waited behind a stalled server or a lagging
+ * sender is part of the result. This corrects the coordinated omission of closed-loop load tests, where a slow
+ * response delays the following requests and hides exactly the latencies that matter. The service time, from
+ * sending to the response, is recorded separately.
+ * <p>
+ * Once {@code maxInFlight} requests are outstanding, further requests are dropped instead of sent and count
+ * as errors, so a saturated server cannot exhaust the generator.
+ */
+public class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient httpClient;
+    private final IntFunction<HttpRequest> requests;
+    private final Predicate<HttpResponse<Void>> success;
+    private final int maxInFlight;
+    private final Duration drainTimeout;
+
+    /**
+     * @param httpClient   the client that sends the requests
+     * @param requests     creates the request with the given sequence number
+     * @param success      decides whether a response counts as a success
+     * @param maxInFlight  the maximum number of outstanding requests
+     * @param drainTimeout how long to wait for outstanding responses after the last request was sent
+     */
+    public OpenModelLoadGenerator(HttpClient httpClient, IntFunction<HttpRequest> requests,
+                                  Predicate<HttpResponse<Void>> success, int maxInFlight, Duration drainTimeout) {
+        this.httpClient = httpClient;
+        this.requests = requests;
+        this.success = success;
+        this.maxInFlight = maxInFlight;
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * Runs the load at a constant rate and waits for the outstanding responses.
+     *
+     * @param ratePerSecond the number of requests started per second
+     * @param duration      how long to send requests for
+     * @return the counts and latency histograms of the run
+     * @throws InterruptedException if interrupted while pacing or draining
+     */
+    public LoadRunResult run(double ratePerSecond, Duration duration) throws InterruptedException {
+        Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        AtomicLong lastResponseNanos = new AtomicLong();
+
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long requestCount = duration.toNanos() / periodNanos;
+        long dropped = 0;
+        long maxSendLagNanos = 0;
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < requestCount; i++) {
+            long dueNanos = startNanos + i * periodNanos;
+            long waitNanos;
+            while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (inFlight.get() >= maxInFlight) {
+                dropped++;
+                continue;
+            }
+
+            inFlight.incrementAndGet();
+            long sentNanos = System.nanoTime();
+            maxSendLagNanos = Math.max(maxSendLagNanos, sentNanos - dueNanos);
+            httpClient.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long nowNanos = System.nanoTime();
+                        record(latency, nowNanos - dueNanos);
+                        record(serviceTime, nowNanos - sentNanos);
+                        if (error == null && success.test(response)) {
+                            succeeded.increment();
+                        } else {
+                            failed.increment();
+                        }
+                        lastResponseNanos.accumulateAndGet(nowNanos, Math::max);
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long deadlineNanos = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(5);
+        }
+        long unanswered = inFlight.get();
+
+        long endNanos = Math.max(lastResponseNanos.get(), startNanos + requestCount * periodNanos);
+        double elapsedSeconds = (endNanos - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        return new LoadRunResult(ratePerSecond, duration, requestCount, succeeded.sum(),
+                failed.sum() + unanswered, dropped, succeeded.sum() / elapsedSeconds,
+                TimeUnit.NANOSECONDS.toMicros(maxSendLagNanos), latency, serviceTime);
+    }
+
+    private static void record(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+    }
+}
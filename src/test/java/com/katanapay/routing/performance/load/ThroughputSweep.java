@@ -0,0 +1,63 @@
+package com.katanapay.routing.performance.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Raises the arrival rate step by step until a run misses the service level objective, to find the highest
+ * rate the system sustains.
+ */
+public class ThroughputSweep {
+
+    private final OpenModelLoadGenerator generator;
+    private final Duration maxP99Latency;
+    private final double maxErrorRate;
+
+    /**
+     * @param generator     the generator running each step
+     * @param maxP99Latency the highest acceptable p99 latency, corrected for coordinated omission
+     * @param maxErrorRate  the highest acceptable share of failed and dropped requests
+     */
+    public ThroughputSweep(OpenModelLoadGenerator generator, Duration maxP99Latency, double maxErrorRate) {
+        this.generator = generator;
+        this.maxP99Latency = maxP99Latency;
+        this.maxErrorRate = maxErrorRate;
+    }
+
+    /**
+     * Runs the rates in ascending order and stops after the first one that misses the objective.
+     *
+     * @param ratesPerSecond the rates to try, in ascending order
+     * @param stepDuration   how long to run each rate
+     * @return the runs and the highest rate that met the objective
+     * @throws InterruptedException if interrupted during a run
+     */
+    public SweepResult sweep(List<Double> ratesPerSecond, Duration stepDuration) throws InterruptedException {
+        List<LoadRunResult> runs = new ArrayList<>();
+        double maxSustainableRate = 0;
+        for (double rate : ratesPerSecond) {
+            LoadRunResult run = generator.run(rate, stepDuration);
+            runs.add(run);
+            System.out.println(run.report());
+            if (!meetsObjective(run)) {
+                System.out.printf("SLO missed at %.0f req/s (p99 <= %d ms, errors <= %.2f%%)%n",
+                        rate, maxP99Latency.toMillis(), maxErrorRate * 100);
+                break;
+            }
+            maxSustainableRate = rate;
+        }
+        return new SweepResult(runs, maxSustainableRate);
+    }
+
+    public boolean meetsObjective(LoadRunResult run) {
+        return run.errorRate() <= maxErrorRate && run.latencyAt(99).compareTo(maxP99Latency) <= 0;
+    }
+
+    /**
+     * @param runs               the runs in the order they were made
+     * @param maxSustainableRate the highest rate that met the objective, 0 if none did
+     */
+    public record SweepResult(List<LoadRunResult> runs, double maxSustainableRate) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.katanapay.routing.provider;
+
+import com.katanapay.routing.dto.ProviderPaymentRequest;
+import com.katanapay.routing.dto.ProviderPaymentResponse;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProviderBTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "10.50, USD, 1050",
+            "10.505, USD, 1051",
+            "1050, JPY, 105000",
+            "1.234, KWD, 123"
+    })
+    void shouldSendAmountInCentsWhateverTheCurrency(BigDecimal amount, String currency, BigDecimal expectedAmount) {
+        // Given
+        AtomicReference<ProviderPaymentRequest> sentRequest = new AtomicReference<>();
+        ProviderB providerB = new ProviderB((endpoint, request) -> {
+            sentRequest.set(request);
+            return ProviderPaymentResponse.builder().status("COMPLETED").providerReference("PB-1").build();
+        });
+        ProviderPaymentRequest request = ProviderPaymentRequest.builder()
+                .paymentId(UUID.randomUUID())
+                .amount(amount)
+                .currency(currency)
+                .cardNumber("5555555555554444")
+                .build();
+
+        // When
+        providerB.processPayment(request);
+
+        // Then
+        assertThat(sentRequest.get().getAmount()).isEqualByComparingTo(expectedAmount);
+        assertThat(request.getAmount()).isEqualTo(amount);
+    }
+}
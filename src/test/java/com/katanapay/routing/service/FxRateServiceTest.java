@@ -0,0 +1,75 @@
+package com.katanapay.routing.service;
+
+import com.katanapay.routing.money.FxRateSnapshot;
+import com.katanapay.routing.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FxRateServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private Path ratesFile;
+    private MainFxRateService fxRateService;
+
+    @BeforeEach
+    void setUp() {
+        ratesFile = directory.resolve("rates.properties");
+        fxRateService = new MainFxRateService();
+        ReflectionTestUtils.setField(fxRateService, "ratesLocation", new FileSystemResource(ratesFile));
+    }
+
+    @Test
+    void whenRatesFileChanges_thenRefreshSwapsTheSnapshot() throws IOException {
+        // Given
+        Files.writeString(ratesFile, "base=USD\nEUR=1.08\n");
+        fxRateService.init();
+        FxRateSnapshot initial = fxRateService.getSnapshot();
+
+        // When
+        Files.writeString(ratesFile, "base=USD\nEUR=1.10\nJPY=0.0067\n");
+        fxRateService.refresh();
+
+        // Then
+        FxRateSnapshot refreshed = fxRateService.getSnapshot();
+        assertThat(refreshed).isNotSameAs(initial);
+        assertThat(refreshed.getRateCount()).isEqualTo(3);
+        assertThat(refreshed.toBaseMinorUnits(Money.of(new BigDecimal("100.00"), "EUR"))).isEqualTo(11000);
+    }
+
+    @Test
+    void whenRatesFileBecomesInvalid_thenRefreshKeepsThePreviousSnapshot() throws IOException {
+        // Given
+        Files.writeString(ratesFile, "base=USD\nEUR=1.08\n");
+        fxRateService.init();
+        FxRateSnapshot initial = fxRateService.getSnapshot();
+
+        // When
+        Files.writeString(ratesFile, "base=USD\nEUR=-1\n");
+        fxRateService.refresh();
+
+        // Then
+        assertThat(fxRateService.getSnapshot()).isSameAs(initial);
+    }
+
+    @Test
+    void whenRatesFileHasNoBaseCurrency_thenLoadingFails() throws IOException {
+        // Given
+        Files.writeString(ratesFile, "EUR=1.08\n");
+
+        // When / Then
+        assertThatThrownBy(fxRateService::init).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,24 +1,64 @@
 package com.katanapay.routing.service;
 
+import com.katanapay.routing.bin.BinDatabase;
+import com.katanapay.routing.bin.BinDatabaseCompiler;
 import com.katanapay.routing.dto.PaymentRequest;
-import org.junit.jupiter.api.extension.ExtendWith;
+import com.katanapay.routing.metrics.RoutingMetrics;
+import com.katanapay.routing.money.FxRateSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
-import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@ExtendWith(MockitoExtension.class)
 public class ProviderRoutingServiceTest {
 
-    @InjectMocks
+    private static final FxRateSnapshot FX_RATES = FxRateSnapshot.of("USD",
+            Map.of("EUR", new BigDecimal("1.08"), "JPY", new BigDecimal("0.0067")), Instant.now());
+
+    private static BinDatabase binDatabase;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger binLookups;
     private MainProviderRoutingService providerRoutingService;
 
+    @BeforeAll
+    static void compileBinDatabase(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("bin-ranges.bin");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                ProviderRoutingServiceTest.class.getResourceAsStream("/bin/bin-ranges.csv"), StandardCharsets.UTF_8))) {
+            BinDatabaseCompiler.compile(reader, path);
+        }
+        binDatabase = BinDatabase.open(path);
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        binLookups = new AtomicInteger();
+        providerRoutingService = new MainProviderRoutingService(null, List.of(), () -> FX_RATES, () -> {
+            binLookups.incrementAndGet();
+            return binDatabase;
+        }, new RoutingMetrics(meterRegistry));
+    }
+
     private static Stream<Arguments> providePaymentsForRouting() {
         return Stream.of(
                 // Test case 1: Visa card (starts with 4) should route to Provider A
@@ -59,6 +99,56 @@ public class ProviderRoutingServiceTest {
                                 .cardNumber("4111111111111111")
                                 .build(),
                         "PROVIDER_A"
+                ),
+
+                // Test case 5: High USD amount with a card outside the BIN rules should route to Provider B
+                Arguments.of(
+                        PaymentRequest.builder()
+                                .amount(new BigDecimal("1000.01"))
+                                .currency("USD")
+                                .cardNumber("3530111333300000")
+                                .build(),
+                        "PROVIDER_B"
+                ),
+
+                // Test case 6: USD amount exactly at the threshold is not a high amount
+                Arguments.of(
+                        PaymentRequest.builder()
+                                .amount(new BigDecimal("1000.00"))
+                                .currency("USD")
+                                .cardNumber("3530111333300000")
+                                .build(),
+                        "PROVIDER_A"
+                ),
+
+                // Test case 7: Mastercard from the 2-series BIN range is outside the BIN rules
+                Arguments.of(
+                        PaymentRequest.builder()
+                                .amount(new BigDecimal("200.00"))
+                                .currency("USD")
+                                .cardNumber("2221000000000009")
+                                .build(),
+                        "PROVIDER_A"
+                ),
+
+                // Test case 8: Maestro card outside the 5xxxxx range is outside the BIN rules
+                Arguments.of(
+                        PaymentRequest.builder()
+                                .amount(new BigDecimal("200.00"))
+                                .currency("USD")
+                                .cardNumber("6759649826438453")
+                                .build(),
+                        "PROVIDER_A"
+                ),
+
+                // Test case 9: Amex card with a small amount should use the default Provider A
+                Arguments.of(
+                        PaymentRequest.builder()
+                                .amount(new BigDecimal("200.00"))
+                                .currency("USD")
+                                .cardNumber("378282246310005")
+                                .build(),
+                        "PROVIDER_A"
                 )
         );
     }
@@ -72,4 +162,62 @@ public class ProviderRoutingServiceTest {
         // Then
         assertThat(selectedProvider).isEqualTo(expectedProvider);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCountRoutingDecisionsByRule() {
+        // Given
+        PaymentRequest visa = PaymentRequest.builder()
+                .amount(new BigDecimal("100.00")).currency("USD").cardNumber("4111111111111111").build();
+        PaymentRequest highAmountUsd = PaymentRequest.builder()
+                .amount(new BigDecimal("5000.00")).currency("USD").cardNumber("378282246310005").build();
+
+        // When
+        providerRoutingService.determineProvider(visa);
+        providerRoutingService.determineProvider(visa);
+        providerRoutingService.determineProvider(highAmountUsd);
+
+        // Then
+        assertThat(meterRegistry.get("payments.routing.decisions").tag("rule", "visa_bin").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("payments.routing.decisions").tag("rule", "high_amount_usd")
+                .tag("provider", "PROVIDER_B").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("payments.routing.decisions").tag("rule", "default").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void shouldNotCountDecisionsThatAreNotRecorded() {
+        // Given
+        PaymentRequest mastercard = PaymentRequest.builder()
+                .amount(new BigDecimal("100.00")).currency("USD").cardNumber("5555555555554444").build();
+
+        // When
+        String unrecorded = providerRoutingService.determineProvider(mastercard, false);
+        String recorded = providerRoutingService.determineProvider(mastercard);
+
+        // Then
+        assertThat(unrecorded).isEqualTo("PROVIDER_B");
+        assertThat(recorded).isEqualTo("PROVIDER_B");
+        assertThat(meterRegistry.get("payments.routing.decisions").tag("rule", "mastercard_bin").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldLookUpTheBinRangeOfTheCard() {
+        // Given
+        PaymentRequest withCard = PaymentRequest.builder()
+                .amount(new BigDecimal("100.00")).currency("USD").cardNumber("2221000000000009").build();
+        PaymentRequest withoutCard = PaymentRequest.builder()
+                .amount(new BigDecimal("100.00")).currency("USD").build();
+
+        // When
+        String cardProvider = providerRoutingService.determineProvider(withCard);
+        String noCardProvider = providerRoutingService.determineProvider(withoutCard);
+
+        // Then
+        assertThat(binLookups).hasValue(1);
+        assertThat(cardProvider).isEqualTo("PROVIDER_A");
+        assertThat(noCardProvider).isEqualTo("PROVIDER_A");
+    }
+}
@@ -0,0 +1,74 @@
+package com.katanapay.routing.simulator;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution of the time a simulated provider takes before it answers.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * z-score of the 99th percentile of the standard normal distribution.
+     */
+    double P99_Z_SCORE = 2.3263;
+
+    /**
+     * Draws a latency.
+     *
+     * @param random the source of randomness
+     * @return the latency in nanoseconds, never negative
+     */
+    long sampleNanos(RandomGenerator random);
+
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    /**
+     * Normally distributed latencies, cut off at zero.
+     */
+    static LatencyDistribution normal(Duration mean, Duration standardDeviation) {
+        double meanNanos = mean.toNanos();
+        double deviationNanos = standardDeviation.toNanos();
+        return random -> Math.max(0, Math.round(meanNanos + deviationNanos * random.nextGaussian()));
+    }
+
+    /**
+     * Log-normally distributed latencies, the usual shape of service response times.
+     *
+     * @param median the median latency
+     * @param sigma  the standard deviation of the logarithm of the latency; larger values give a longer tail
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double medianNanos = median.toNanos();
+        return random -> Math.round(medianNanos * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Log-normally distributed latencies with the given median and 99th percentile.
+     */
+    static LatencyDistribution logNormalWithP99(Duration median, Duration p99) {
+        if (p99.compareTo(median) <= 0) {
+            throw new IllegalArgumentException("p99 " + p99 + " must be above the median " + median);
+        }
+        return logNormal(median, Math.log((double) p99.toNanos() / median.toNanos()) / P99_Z_SCORE);
+    }
+
+    /**
+     * Mix of a fast and a slow mode, such as cache hits and misses or a healthy and a degraded replica.
+     *
+     * @param fast            the distribution of the fast mode
+     * @param slow            the distribution of the slow mode
+     * @param slowProbability the share of requests in the slow mode
+     */
+    static LatencyDistribution bimodal(LatencyDistribution fast, LatencyDistribution slow, double slowProbability) {
+        return random -> random.nextDouble() < slowProbability ? slow.sampleNanos(random) : fast.sampleNanos(random);
+    }
+}
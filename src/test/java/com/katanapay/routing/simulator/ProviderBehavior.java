@@ -0,0 +1,63 @@
+package com.katanapay.routing.simulator;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * How a simulated provider answers. Every request first waits for a latency drawn from {@link #latency}, then
+ * the faults are rolled in the order connection reset, server error, client error; a request that hits none of
+ * them succeeds, and its response is dripped out slowly with probability {@link #slowDripRate}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ProviderBehavior {
+
+    @Builder.Default
+    LatencyDistribution latency = LatencyDistribution.none();
+
+    /**
+     * Share of requests answered with {@link #serverErrorStatus}.
+     */
+    double serverErrorRate;
+
+    @Builder.Default
+    int serverErrorStatus = 503;
+
+    /**
+     * Share of requests answered with {@link #clientErrorStatus}.
+     */
+    double clientErrorRate;
+
+    @Builder.Default
+    int clientErrorStatus = 400;
+
+    /**
+     * Share of requests whose connection is reset instead of answered.
+     */
+    double connectionResetRate;
+
+    /**
+     * Share of successful responses written one byte at a time, {@link #dripInterval} apart.
+     */
+    double slowDripRate;
+
+    @Builder.Default
+    Duration dripInterval = Duration.ofMillis(20);
+
+    public static ProviderBehavior healthy() {
+        return builder().build();
+    }
+
+    public static ProviderBehavior withLatency(LatencyDistribution latency) {
+        return builder().latency(latency).build();
+    }
+
+    /**
+     * Answers every request with 503 Service Unavailable.
+     */
+    public static ProviderBehavior unavailable() {
+        return builder().serverErrorRate(1).build();
+    }
+}
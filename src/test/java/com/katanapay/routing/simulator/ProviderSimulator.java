@@ -0,0 +1,447 @@
+package com.katanapay.routing.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Local HTTP server that plays Provider A and Provider B with scriptable latency and faults.
+ * <p>
+ * Both providers accept the payment requests the application sends and answer like the real ones, with the
+ * payment ID echoed back. The request contracts are checked too: Provider A must only ever see a masked card
+ * number and Provider B the amount in whole cents; violations are answered with 400 and counted.
+ * <p>
+ * Each provider has a base {@link ProviderBehavior} that can be replaced at any time. Scheduled windows override
+ * it for a while, so a test can script scenarios such as "the p99 of Provider B jumps to 3 s for 30 s" or
+ * "Provider A is down from second 10 to 20" and run load through them. Connections are served on virtual threads,
+ * so slow responses never queue up behind each other; connection resets are real TCP resets.
+ */
+@Slf4j
+public class ProviderSimulator implements AutoCloseable {
+
+    private static final int MAX_HEADER_SIZE = 16 * 1024;
+
+    public enum Provider {
+        A("providerA", "PA"),
+        B("providerB", "PB");
+
+        private final String pathSegment;
+        private final String referencePrefix;
+
+        Provider(String pathSegment, String referencePrefix) {
+            this.pathSegment = pathSegment;
+            this.referencePrefix = referencePrefix;
+        }
+
+        public String path() {
+            return "/api/v1/" + pathSegment + "/payments";
+        }
+    }
+
+    private final ServerSocket serverSocket;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Provider, ProviderState> states = new EnumMap<>(Provider.class);
+    private final List<Socket> connections = new CopyOnWriteArrayList<>();
+    private final Thread acceptor;
+    private volatile boolean running = true;
+
+    private ProviderSimulator(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        for (Provider provider : Provider.values()) {
+            states.put(provider, new ProviderState());
+        }
+        this.acceptor = Thread.ofPlatform().name("provider-simulator-acceptor").daemon().start(this::acceptConnections);
+    }
+
+    /**
+     * Starts a simulator on a free local port with both providers healthy.
+     *
+     * @return the running simulator
+     * @throws IOException if no port can be bound
+     */
+    public static ProviderSimulator start() throws IOException {
+        return new ProviderSimulator(new ServerSocket(0, 512, InetAddress.getLoopbackAddress()));
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public String url(Provider provider) {
+        return "http://localhost:" + getPort() + provider.path();
+    }
+
+    /**
+     * Replaces the base behavior of a provider, effective for the next request.
+     */
+    public void setBehavior(Provider provider, ProviderBehavior behavior) {
+        states.get(provider).baseBehavior = behavior;
+    }
+
+    /**
+     * Overrides the behavior of a provider for a window of time. Of overlapping windows, the one scheduled last wins.
+     *
+     * @param provider the provider
+     * @param behavior the behavior during the window
+     * @param startIn  how long from now the window starts
+     * @param length   how long the window lasts
+     */
+    public void schedule(Provider provider, ProviderBehavior behavior, Duration startIn, Duration length) {
+        long startNanos = System.nanoTime() + startIn.toNanos();
+        states.get(provider).windows.add(new Window(behavior, startNanos, startNanos + length.toNanos()));
+    }
+
+    /**
+     * Makes a provider answer every request with 503 for a window of time.
+     */
+    public void scheduleOutage(Provider provider, Duration startIn, Duration length) {
+        schedule(provider, ProviderBehavior.unavailable(), startIn, length);
+    }
+
+    /**
+     * Makes both providers healthy again, drops all scheduled windows and clears the statistics.
+     */
+    public void reset() {
+        for (ProviderState state : states.values()) {
+            state.baseBehavior = ProviderBehavior.healthy();
+            state.windows.clear();
+            state.stats = new Stats();
+        }
+    }
+
+    public Stats getStats(Provider provider) {
+        return states.get(provider).stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        for (Socket connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                Thread.ofVirtual().name("provider-simulator-connection").start(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Provider simulator failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            HttpRequest request;
+            while ((request = HttpRequest.read(in)) != null) {
+                if (!handle(request, socket, out) || request.closeConnection()) {
+                    return;
+                }
+            }
+        } catch (SocketException e) {
+            // Closed by the client, by a simulated reset or on shutdown
+        } catch (Exception e) {
+            log.warn("Provider simulator failed to serve a connection", e);
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Answers a request.
+     *
+     * @return false if the connection was reset
+     */
+    private boolean handle(HttpRequest request, Socket socket, OutputStream out) throws IOException, InterruptedException {
+        Provider provider = providerOf(request.path());
+        if (provider == null || !"POST".equals(request.method())) {
+            writeResponse(out, 404, error("No such endpoint: " + request.method() + " " + request.path()), false, null);
+            return true;
+        }
+
+        ProviderState state = states.get(provider);
+        Stats stats = state.stats;
+        stats.requests.increment();
+        ProviderBehavior behavior = state.currentBehavior();
+        RandomGenerator random = ThreadLocalRandom.current();
+
+        long latencyNanos = behavior.getLatency().sampleNanos(random);
+        if (latencyNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(latencyNanos);
+        }
+
+        if (random.nextDouble() < behavior.getConnectionResetRate()) {
+            stats.connectionResets.increment();
+            socket.setSoLinger(true, 0);
+            socket.close();
+            return false;
+        }
+        if (random.nextDouble() < behavior.getServerErrorRate()) {
+            stats.serverErrors.increment();
+            writeResponse(out, behavior.getServerErrorStatus(), error("Simulated server error"), false, null);
+            return true;
+        }
+        if (random.nextDouble() < behavior.getClientErrorRate()) {
+            stats.clientErrors.increment();
+            writeResponse(out, behavior.getClientErrorStatus(), error("Simulated client error"), false, null);
+            return true;
+        }
+
+        JsonNode payment = objectMapper.readTree(request.body());
+        String violation = contractViolation(provider, payment);
+        if (violation != null) {
+            stats.contractViolations.increment();
+            writeResponse(out, 400, error(violation), false, null);
+            return true;
+        }
+
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("paymentId", payment.path("paymentId").asText())
+                .put("status", "COMPLETED")
+                .put("providerReference", provider.referencePrefix + "-" + state.references.incrementAndGet());
+        boolean slowDrip = random.nextDouble() < behavior.getSlowDripRate();
+        if (slowDrip) {
+            stats.slowDrips.increment();
+        }
+        writeResponse(out, 200, objectMapper.writeValueAsBytes(response), slowDrip, behavior.getDripInterval());
+        stats.succeeded.increment();
+        return true;
+    }
+
+    private static Provider providerOf(String path) {
+        for (Provider provider : Provider.values()) {
+            if (provider.path().equals(path)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    private static String contractViolation(Provider provider, JsonNode payment) {
+        if (!payment.hasNonNull("paymentId") || !payment.hasNonNull("amount") || !payment.hasNonNull("currency")) {
+            return "paymentId, amount and currency are required";
+        }
+        if (provider == Provider.A && !payment.path("cardNumber").asText().startsWith("*")) {
+            return "Provider A only accepts masked card numbers";
+        }
+        if (provider == Provider.B && !payment.path("amount").isIntegralNumber()) {
+            return "Provider B expects the amount in cents";
+        }
+        return null;
+    }
+
+    private byte[] error(String message) throws IOException {
+        return objectMapper.writeValueAsBytes(Map.of("error", message));
+    }
+
+    private static void writeResponse(OutputStream out, int status, byte[] body, boolean slowDrip, Duration dripInterval)
+            throws IOException, InterruptedException {
+        String head = "HTTP/1.1 " + status + " " + reasonPhrase(status) + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        if (!slowDrip) {
+            out.write(body);
+            out.flush();
+            return;
+        }
+
+        out.flush();
+        for (byte b : body) {
+            Thread.sleep(dripInterval);
+            out.write(b);
+            out.flush();
+        }
+    }
+
+    private static String reasonPhrase(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 400 -> "Bad Request";
+            case 404 -> "Not Found";
+            case 422 -> "Unprocessable Entity";
+            case 429 -> "Too Many Requests";
+            case 500 -> "Internal Server Error";
+            case 502 -> "Bad Gateway";
+            case 503 -> "Service Unavailable";
+            case 504 -> "Gateway Timeout";
+            default -> "Status " + status;
+        };
+    }
+
+    /**
+     * Counts of what a provider did since the simulator started or was last reset.
+     */
+    public static final class Stats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder connectionResets = new LongAdder();
+        private final LongAdder slowDrips = new LongAdder();
+        private final LongAdder contractViolations = new LongAdder();
+
+        public long requests() {
+            return requests.sum();
+        }
+
+        public long succeeded() {
+            return succeeded.sum();
+        }
+
+        public long serverErrors() {
+            return serverErrors.sum();
+        }
+
+        public long clientErrors() {
+            return clientErrors.sum();
+        }
+
+        public long connectionResets() {
+            return connectionResets.sum();
+        }
+
+        public long slowDrips() {
+            return slowDrips.sum();
+        }
+
+        public long contractViolations() {
+            return contractViolations.sum();
+        }
+    }
+
+    private static final class ProviderState {
+
+        private final List<Window> windows = new CopyOnWriteArrayList<>();
+        private final AtomicLong references = new AtomicLong();
+        private volatile ProviderBehavior baseBehavior = ProviderBehavior.healthy();
+        private volatile Stats stats = new Stats();
+
+        ProviderBehavior currentBehavior() {
+            long nowNanos = System.nanoTime();
+            ProviderBehavior behavior = baseBehavior;
+            for (Window window : windows) {
+                if (nowNanos - window.startNanos() >= 0 && nowNanos - window.endNanos() < 0) {
+                    behavior = window.behavior();
+                }
+            }
+            return behavior;
+        }
+    }
+
+    private record Window(ProviderBehavior behavior, long startNanos, long endNanos) {
+    }
+
+    /**
+     * The parts of an HTTP/1.1 request the simulator needs.
+     */
+    private record HttpRequest(String method, String path, Map<String, String> headers, byte[] body) {
+
+        boolean closeConnection() {
+            return "close".equalsIgnoreCase(headers.get("connection"));
+        }
+
+        /**
+         * Reads the next request of a connection.
+         *
+         * @return the request, or null once the client closed the connection
+         */
+        static HttpRequest read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            if (requestLine == null) {
+                return null;
+            }
+            String[] parts = requestLine.split(" ");
+            if (parts.length != 3) {
+                throw new IOException("Malformed request line: " + requestLine);
+            }
+
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).strip().toLowerCase(Locale.ROOT), line.substring(colon + 1).strip());
+                }
+            }
+
+            byte[] body;
+            if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+                body = readChunked(in);
+            } else {
+                body = in.readNBytes(Integer.parseInt(headers.getOrDefault("content-length", "0")));
+            }
+
+            String path = parts[1];
+            int query = path.indexOf('?');
+            return new HttpRequest(parts[0], query < 0 ? path : path.substring(0, query), headers, body);
+        }
+
+        private static byte[] readChunked(InputStream in) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            int size;
+            do {
+                String sizeLine = readLine(in);
+                if (sizeLine == null) {
+                    throw new IOException("Connection closed inside a chunked body");
+                }
+                int extension = sizeLine.indexOf(';');
+                size = Integer.parseInt((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).strip(), 16);
+                body.write(in.readNBytes(size));
+                readLine(in);
+            } while (size > 0);
+            return body.toByteArray();
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c == '\n') {
+                    int length = line.length();
+                    return length > 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line.toString();
+                }
+                if (line.length() == MAX_HEADER_SIZE) {
+                    throw new IOException("Request header line too long");
+                }
+                line.append((char) c);
+            }
+            return line.isEmpty() ? null : line.toString();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.katanapay.routing.simulator;
+
+import com.katanapay.routing.simulator.ProviderSimulator.Provider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProviderSimulatorTest {
+
+    private static final String PROVIDER_A_REQUEST = """
+            {"paymentId":"3f1c2a9e-0000-4000-8000-000000000001","amount":100.00,"currency":"USD",\
+            "cardNumber":"************1111","bin":"41111111"}""";
+    private static final String PROVIDER_B_REQUEST = """
+            {"paymentId":"3f1c2a9e-0000-4000-8000-000000000002","amount":10000,"currency":"USD",\
+            "cardNumber":"5555555555554444","bin":"55555555"}""";
+
+    private ProviderSimulator simulator;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        simulator = ProviderSimulator.start();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        simulator.close();
+    }
+
+    @Test
+    void shouldAnswerLikeTheProvidersAndCheckTheirContracts() throws Exception {
+        // When
+        HttpResponse<String> providerA = post(Provider.A, PROVIDER_A_REQUEST);
+        HttpResponse<String> providerB = post(Provider.B, PROVIDER_B_REQUEST);
+        HttpResponse<String> unmaskedCard = post(Provider.A, PROVIDER_B_REQUEST);
+        HttpResponse<String> majorUnits = post(Provider.B, PROVIDER_A_REQUEST);
+
+        // Then
+        assertThat(providerA.statusCode()).isEqualTo(200);
+        assertThat(providerA.body())
+                .contains("\"paymentId\":\"3f1c2a9e-0000-4000-8000-000000000001\"")
+                .contains("\"status\":\"COMPLETED\"")
+                .contains("\"providerReference\":\"PA-1\"");
+        assertThat(providerB.statusCode()).isEqualTo(200);
+        assertThat(providerB.body()).contains("\"providerReference\":\"PB-1\"");
+
+        assertThat(unmaskedCard.statusCode()).isEqualTo(400);
+        assertThat(majorUnits.statusCode()).isEqualTo(400);
+        assertThat(simulator.getStats(Provider.A).contractViolations()).isEqualTo(1);
+        assertThat(simulator.getStats(Provider.B).contractViolations()).isEqualTo(1);
+        assertThat(simulator.getStats(Provider.A).requests()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDelayResponsesByTheConfiguredLatency() throws Exception {
+        // Given
+        simulator.setBehavior(Provider.A, ProviderBehavior.withLatency(LatencyDistribution.fixed(Duration.ofMillis(200))));
+
+        // When
+        long start = System.nanoTime();
+        HttpResponse<String> providerA = post(Provider.A, PROVIDER_A_REQUEST);
+        Duration providerALatency = Duration.ofNanos(System.nanoTime() - start);
+        start = System.nanoTime();
+        post(Provider.B, PROVIDER_B_REQUEST);
+        Duration providerBLatency = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(providerA.statusCode()).isEqualTo(200);
+        assertThat(providerALatency).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+        assertThat(providerBLatency).isLessThan(Duration.ofMillis(200));
+    }
+
+    @Test
+    void shouldInjectServerAndClientErrors() throws Exception {
+        // Given
+        simulator.setBehavior(Provider.A, ProviderBehavior.unavailable());
+        simulator.setBehavior(Provider.B, ProviderBehavior.builder().clientErrorRate(1).clientErrorStatus(422).build());
+
+        // When
+        HttpResponse<String> providerA = post(Provider.A, PROVIDER_A_REQUEST);
+        HttpResponse<String> providerB = post(Provider.B, PROVIDER_B_REQUEST);
+
+        // Then
+        assertThat(providerA.statusCode()).isEqualTo(503);
+        assertThat(providerB.statusCode()).isEqualTo(422);
+        assertThat(simulator.getStats(Provider.A).serverErrors()).isEqualTo(1);
+        assertThat(simulator.getStats(Provider.B).clientErrors()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldResetConnections() {
+        // Given
+        simulator.setBehavior(Provider.A, ProviderBehavior.builder().connectionResetRate(1).build());
+
+        // When / Then
+        assertThatThrownBy(() -> post(Provider.A, PROVIDER_A_REQUEST)).isInstanceOf(IOException.class);
+        assertThat(simulator.getStats(Provider.A).connectionResets()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDripSlowResponses() throws Exception {
+        // Given
+        simulator.setBehavior(Provider.B, ProviderBehavior.builder()
+                .slowDripRate(1)
+                .dripInterval(Duration.ofMillis(5))
+                .build());
+
+        // When
+        long start = System.nanoTime();
+        HttpResponse<String> response = post(Provider.B, PROVIDER_B_REQUEST);
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(latency).isGreaterThanOrEqualTo(Duration.ofMillis(5L * response.body().length()));
+        assertThat(simulator.getStats(Provider.B).slowDrips()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyScheduledBehaviorOnlyDuringItsWindow() throws Exception {
+        // Given
+        simulator.scheduleOutage(Provider.B, Duration.ofMillis(300), Duration.ofMillis(300));
+
+        // When
+        int beforeWindow = post(Provider.B, PROVIDER_B_REQUEST).statusCode();
+        Thread.sleep(400);
+        int duringWindow = post(Provider.B, PROVIDER_B_REQUEST).statusCode();
+        Thread.sleep(300);
+        int afterWindow = post(Provider.B, PROVIDER_B_REQUEST).statusCode();
+
+        // Then
+        assertThat(beforeWindow).isEqualTo(200);
+        assertThat(duringWindow).isEqualTo(503);
+        assertThat(afterWindow).isEqualTo(200);
+    }
+
+    @Test
+    void shouldDrawLatenciesWithTheRequestedMedianAndP99() {
+        // Given
+        LatencyDistribution distribution = LatencyDistribution.logNormalWithP99(Duration.ofMillis(20), Duration.ofSeconds(3));
+        SplittableRandom random = new SplittableRandom(42);
+
+        // When
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = distribution.sampleNanos(random);
+        }
+        Arrays.sort(samples);
+
+        // Then
+        assertThat(samples[samples.length / 2]).isBetween(Duration.ofMillis(18).toNanos(), Duration.ofMillis(22).toNanos());
+        assertThat(samples[samples.length * 99 / 100])
+                .isBetween(Duration.ofMillis(2700).toNanos(), Duration.ofMillis(3300).toNanos());
+    }
+
+    @Test
+    void shouldMixBimodalLatencies() {
+        // Given
+        LatencyDistribution distribution = LatencyDistribution.bimodal(
+                LatencyDistribution.fixed(Duration.ofMillis(5)), LatencyDistribution.fixed(Duration.ofMillis(500)), 0.1);
+        SplittableRandom random = new SplittableRandom(42);
+
+        // When
+        int slow = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (distribution.sampleNanos(random) == Duration.ofMillis(500).toNanos()) {
+                slow++;
+            }
+        }
+
+        // Then
+        assertThat(slow).isBetween(9_500, 10_500);
+    }
+
+    private HttpResponse<String> post(Provider provider, String body) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(simulator.url(provider)))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,26 @@
+package com.katanapay.routing.validation;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CardNumbersTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "4111111111111111, ************1111",
+            "4222222222222, *********2222",
+            "378282246310005, ***********0005",
+            "12345, *2345",
+            "1234, ****",
+            "'', ''"
+    })
+    void shouldMaskAllButTheLastFourDigits(String cardNumber, String expected) {
+        // When
+        String masked = CardNumbers.mask(cardNumber);
+
+        // Then
+        assertThat(masked).isEqualTo(expected);
+    }
+}
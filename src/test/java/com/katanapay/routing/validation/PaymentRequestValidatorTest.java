@@ -0,0 +1,133 @@
+package com.katanapay.routing.validation;
+
+import com.katanapay.routing.dto.PaymentRequest;
+import com.katanapay.routing.money.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.SimpleErrors;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class PaymentRequestValidatorTest {
+
+    private final PaymentRequestValidator validator = new PaymentRequestValidator();
+
+    @Test
+    void shouldAcceptValidRequestWithoutChangingIt() {
+        // Given
+        PaymentRequest request = request(new BigDecimal("100.00"), "USD", "4111111111111111");
+
+        // When
+        Errors errors = validate(request);
+
+        // Then
+        assertThat(errors.hasErrors()).isFalse();
+        assertThat(request).isEqualTo(request(new BigDecimal("100.00"), "USD", "4111111111111111"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "4111111111111111, true",
+            "4222222222222, true",
+            "5555555555554444, true",
+            "2221000000000009, true",
+            "378282246310005, true",
+            "3530111333300000, true",
+            "6011111111111117, true",
+            "36227206271667, true",
+            "4111111111111112, false",
+            "41111111111111113, false",
+            "37828224631003, false",
+            "555555555555442, false",
+            "4111-1111-1111-1111, false",
+            "41111111111, false"
+    })
+    void shouldCheckLengthPerSchemeAndLuhnChecksum(String cardNumber, boolean valid) {
+        // Given
+        PaymentRequest request = request(new BigDecimal("100.00"), "USD", cardNumber);
+
+        // When
+        Errors errors = validate(request);
+
+        // Then
+        assertThat(errors.hasFieldErrors("cardNumber")).isEqualTo(!valid);
+    }
+
+    @Test
+    void shouldRejectEveryInvalidField() {
+        // Given
+        PaymentRequest request = request(new BigDecimal("0.001"), "usd", "4111111111111112");
+
+        // When
+        Errors errors = validate(request);
+
+        // Then
+        assertThat(errors.getFieldErrors())
+                .extracting(FieldError::getField, FieldError::getDefaultMessage)
+                .containsExactly(
+                        tuple("amount", "Amount must be greater than 0"),
+                        tuple("currency", "Currency must be in ISO 4217 format"),
+                        tuple("cardNumber", "Card number is invalid"));
+    }
+
+    @Test
+    void shouldRejectUnknownCurrencyAndMissingFields() {
+        // Given
+        PaymentRequest unknownCurrency = request(new BigDecimal("10.00"), "ABC", "4111111111111111");
+        PaymentRequest empty = new PaymentRequest();
+
+        // When
+        Errors unknownCurrencyErrors = validate(unknownCurrency);
+        Errors emptyErrors = validate(empty);
+
+        // Then
+        assertThat(unknownCurrencyErrors.getFieldErrors()).extracting(FieldError::getField).containsExactly("currency");
+        assertThat(emptyErrors.getFieldErrors()).extracting(FieldError::getDefaultMessage)
+                .containsExactly("Amount is required", "Currency is required", "Card number is required");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "99999999999999.99, USD, false",
+            "99999999999999.99, CLF, false",
+            "100000000000000.00, USD, true",
+            "92233720368547758.08, USD, true"
+    })
+    void shouldRejectAmountsBeyondMinorUnitRange(BigDecimal amount, String currency, boolean rejected) {
+        // Given
+        PaymentRequest request = request(amount, currency, "4111111111111111");
+
+        // When
+        Errors errors = validate(request);
+
+        // Then
+        assertThat(errors.getFieldErrors()).extracting(FieldError::getField, FieldError::getDefaultMessage)
+                .isEqualTo(rejected
+                        ? List.of(tuple("amount", "Amount must not exceed 99999999999999.99"))
+                        : List.of());
+        if (!rejected) {
+            assertThat(Money.of(amount, currency).toBigDecimal()).isEqualByComparingTo(amount);
+        }
+    }
+
+    private Errors validate(PaymentRequest request) {
+        Errors errors = new SimpleErrors(request, "paymentRequest");
+        validator.validate(request, errors);
+        return errors;
+    }
+
+    private static PaymentRequest request(BigDecimal amount, String currency, String cardNumber) {
+        return PaymentRequest.builder()
+                .amount(amount)
+                .currency(currency)
+                .cardNumber(cardNumber)
+                .build();
+    }
+}